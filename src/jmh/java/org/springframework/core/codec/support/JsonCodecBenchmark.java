@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.MockServerHttpRequest;
+import org.springframework.http.server.reactive.MockServerHttpResponse;
+
+/**
+ * Benchmarks for the JSON codecs, decoding a request body of a JSON array as received
+ * in network-sized chunks, and encoding a stream of objects to a response body.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class JsonCodecBenchmark {
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private static final ResolvableType POJO_TYPE = ResolvableType.forClass(Pojo.class);
+
+	@Param({"1", "100", "10000"})
+	public int elementCount;
+
+	private final DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
+
+	private final JsonObjectDecoder jsonObjectDecoder = new JsonObjectDecoder();
+
+	private final JacksonJsonDecoder jacksonJsonDecoder =
+			new JacksonJsonDecoder(new JsonObjectDecoder());
+
+	private final JacksonJsonEncoder jacksonJsonEncoder = new JacksonJsonEncoder();
+
+	private List<Pojo> pojos;
+
+	private List<byte[]> chunks;
+
+
+	@Setup
+	public void setUp() throws Exception {
+		this.pojos = new ArrayList<>(this.elementCount);
+		for (int i = 0; i < this.elementCount; i++) {
+			this.pojos.add(new Pojo("foo" + i, "The quick brown fox jumps over the lazy dog, " +
+					"\"escaped\" {and} [bracketed] " + i));
+		}
+		byte[] json = new ObjectMapper().writeValueAsBytes(this.pojos);
+		this.chunks = new ArrayList<>();
+		for (int i = 0; i < json.length; i += CHUNK_SIZE) {
+			this.chunks.add(Arrays.copyOfRange(json, i, Math.min(i + CHUNK_SIZE, json.length)));
+		}
+	}
+
+	private MockServerHttpRequest createRequest() {
+		Flux<DataBuffer> body = Flux.fromIterable(this.chunks)
+				.map(chunk -> this.dataBufferFactory.allocateBuffer(chunk.length).write(chunk));
+		MockServerHttpRequest request =
+				new MockServerHttpRequest(body, HttpMethod.POST, URI.create("/pojos"));
+		request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		return request;
+	}
+
+
+	@Benchmark
+	public long jsonObjectDecoder() {
+		MockServerHttpRequest request = createRequest();
+		return this.jsonObjectDecoder
+				.decode(request.getBody(), null, MediaType.APPLICATION_JSON)
+				.doOnNext(DataBufferUtils::release)
+				.count()
+				.block();
+	}
+
+	@Benchmark
+	public long jacksonJsonDecoder() {
+		MockServerHttpRequest request = createRequest();
+		return this.jacksonJsonDecoder
+				.decode(request.getBody(), POJO_TYPE, MediaType.APPLICATION_JSON)
+				.count()
+				.block();
+	}
+
+	@Benchmark
+	public Object jacksonJsonEncoder() {
+		MockServerHttpResponse response = new MockServerHttpResponse();
+		Flux<DataBuffer> body = this.jacksonJsonEncoder.encode(Flux.fromIterable(this.pojos),
+				response.bufferFactory(), POJO_TYPE, MediaType.APPLICATION_JSON)
+				.doOnNext(DataBufferUtils::release);
+		return response.writeWith(body).block();
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.util.Arrays;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+
+/**
+ * Benchmarks for the {@link DataBuffer} implementations: writing and reading, primitive
+ * access, and delimiter search.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class DataBufferBenchmark {
+
+	@Param({"default-heap", "default-direct", "pooling-heap", "netty-unpooled-heap",
+			"netty-pooled-direct"})
+	public String factory;
+
+	@Param({"128", "8192"})
+	public int size;
+
+	private DataBufferFactory dataBufferFactory;
+
+	private byte[] payload;
+
+	private DataBuffer lines;
+
+
+	@Setup
+	public void setUp() {
+		this.dataBufferFactory = createFactory(this.factory);
+		this.payload = new byte[this.size];
+		Arrays.fill(this.payload, (byte) 'a');
+
+		// log-like lines of 80 bytes each
+		byte[] line = new byte[80];
+		Arrays.fill(line, (byte) 'x');
+		line[line.length - 1] = '\n';
+		this.lines = this.dataBufferFactory.allocateBuffer(this.size);
+		for (int i = 0; i < this.size / line.length; i++) {
+			this.lines.write(line);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		DataBufferUtils.release(this.lines);
+	}
+
+	private static DataBufferFactory createFactory(String name) {
+		switch (name) {
+			case "default-heap":
+				return new DefaultDataBufferFactory(false);
+			case "default-direct":
+				return new DefaultDataBufferFactory(true);
+			case "pooling-heap":
+				return new PoolingDataBufferFactory(false);
+			case "netty-unpooled-heap":
+				return new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+			case "netty-pooled-direct":
+				return new NettyDataBufferFactory(new PooledByteBufAllocator(true));
+			default:
+				throw new IllegalArgumentException("Unknown factory: " + name);
+		}
+	}
+
+
+	@Benchmark
+	public void writeAndReadBytes(Blackhole blackhole) {
+		DataBuffer buffer = this.dataBufferFactory.allocateBuffer(this.size);
+		buffer.write(this.payload);
+		byte[] result = new byte[this.size];
+		buffer.read(result);
+		blackhole.consume(result);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Benchmark
+	public long writeAndReadLongs() {
+		DataBuffer buffer = this.dataBufferFactory.allocateBuffer(this.size);
+		int count = this.size / Long.BYTES;
+		for (int i = 0; i < count; i++) {
+			buffer.writeLong(i);
+		}
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			sum += buffer.readLong();
+		}
+		DataBufferUtils.release(buffer);
+		return sum;
+	}
+
+	@Benchmark
+	public int indexOfPredicate() {
+		int count = 0;
+		int index = this.lines.indexOf(b -> b == '\n', 0);
+		while (index != -1) {
+			count++;
+			index = this.lines.indexOf(b -> b == '\n', index + 1);
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int indexOfByte() {
+		int count = 0;
+		int index = this.lines.indexOf((byte) '\n', 0);
+		while (index != -1) {
+			count++;
+			index = this.lines.indexOf((byte) '\n', index + 1);
+		}
+		return count;
+	}
+
+}
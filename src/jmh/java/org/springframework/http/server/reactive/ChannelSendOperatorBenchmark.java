@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+
+/**
+ * Benchmarks for {@link ChannelSendOperator}, writing a stream of data buffers to a
+ * write function that releases them, as a server response would.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ChannelSendOperatorBenchmark {
+
+	@Param({"1", "100", "10000"})
+	public int bufferCount;
+
+	private final DataBufferFactory dataBufferFactory =
+			new MockServerHttpResponse().bufferFactory();
+
+	private byte[] payload;
+
+
+	@Setup
+	public void setUp() {
+		this.payload = "{\"foo\":\"foofoo\",\"bar\":\"barbar\"}".getBytes(StandardCharsets.UTF_8);
+	}
+
+
+	@Benchmark
+	public Object writeWith() {
+		Flux<DataBuffer> body = Flux.range(0, this.bufferCount)
+				.map(i -> this.dataBufferFactory.wrap(ByteBuffer.wrap(this.payload)));
+		return new ChannelSendOperator<>(body,
+				writePublisher -> Flux.from(writePublisher)
+						.doOnNext(DataBufferUtils::release)
+						.then())
+				.block();
+	}
+
+}
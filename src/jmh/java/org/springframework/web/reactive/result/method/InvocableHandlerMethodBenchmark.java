@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.result.method;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.MockServerHttpRequest;
+import org.springframework.http.server.reactive.MockServerHttpResponse;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.result.method.annotation.RequestHeaderMethodArgumentResolver;
+import org.springframework.web.reactive.result.method.annotation.RequestParamMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+
+/**
+ * Benchmarks for {@link InvocableHandlerMethod#invokeForRequest}, resolving the
+ * arguments of a handler method from request parameters and headers.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class InvocableHandlerMethodBenchmark {
+
+	private final WebSessionManager sessionManager = new DefaultWebSessionManager();
+
+	private InvocableHandlerMethod handlerMethod;
+
+
+	@Setup
+	public void setUp() throws Exception {
+		Method method = TestController.class.getMethod("handle", String.class, int.class,
+				String.class);
+		this.handlerMethod = new InvocableHandlerMethod(new TestController(), method);
+
+		ConversionService conversionService = new DefaultConversionService();
+		this.handlerMethod.setHandlerMethodArgumentResolvers(Arrays.asList(
+				new RequestParamMethodArgumentResolver(conversionService, null, false),
+				new RequestHeaderMethodArgumentResolver(conversionService, null)));
+	}
+
+	private ServerWebExchange createExchange() {
+		MockServerHttpRequest request = new MockServerHttpRequest(HttpMethod.GET,
+				URI.create("http://localhost/orders?name=foo&count=42"));
+		request.getQueryParams().add("name", "foo");
+		request.getQueryParams().add("count", "42");
+		request.getHeaders().add("X-Request-Id", "c0ffee");
+		return new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+				this.sessionManager);
+	}
+
+
+	@Benchmark
+	public HandlerResult invokeForRequest() {
+		return this.handlerMethod.invokeForRequest(createExchange(), new ExtendedModelMap())
+				.block();
+	}
+
+
+	private static class TestController {
+
+		@SuppressWarnings("unused")
+		public String handle(@RequestParam("name") String name, @RequestParam("count") int count,
+				@RequestHeader("X-Request-Id") String requestId) {
+			return name + count + requestId;
+		}
+	}
+
+}
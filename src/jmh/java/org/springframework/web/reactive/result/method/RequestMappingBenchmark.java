@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.result.method;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.MockServerHttpRequest;
+import org.springframework.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo.BuilderConfiguration;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+
+/**
+ * Benchmarks for {@link AbstractHandlerMethodMapping#lookupHandlerMethod}, through
+ * {@link RequestMappingHandlerMapping#getHandler}, with a varying number of mappings.
+ * Half of the mappings are direct paths, the other half URI templates.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RequestMappingBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int mappingCount;
+
+	private final WebSessionManager sessionManager = new DefaultWebSessionManager();
+
+	private RequestMappingHandlerMapping handlerMapping;
+
+	private URI directUri;
+
+	private URI templateUri;
+
+
+	@Setup
+	public void setUp() throws Exception {
+		this.handlerMapping = new RequestMappingHandlerMapping();
+		this.handlerMapping.setApplicationContext(new StaticApplicationContext());
+		this.handlerMapping.afterPropertiesSet();
+
+		BuilderConfiguration options = new BuilderConfiguration();
+		options.setPathHelper(this.handlerMapping.getPathHelper());
+		options.setPathMatcher(this.handlerMapping.getPathMatcher());
+		options.setSuffixPatternMatch(true);
+		options.setTrailingSlashMatch(true);
+
+		TestController controller = new TestController();
+		Method method = TestController.class.getMethod("handle");
+		for (int i = 0; i < this.mappingCount / 2; i++) {
+			this.handlerMapping.registerMapping(RequestMappingInfo.paths("/direct/resource" + i)
+					.methods(RequestMethod.GET).produces(MediaType.APPLICATION_JSON_VALUE)
+					.options(options).build(), controller, method);
+			this.handlerMapping.registerMapping(RequestMappingInfo.paths("/template/resource" +
+					i + "/{id}").methods(RequestMethod.GET, RequestMethod.POST)
+					.options(options).build(), controller, method);
+		}
+		int last = this.mappingCount / 2 - 1;
+		this.directUri = URI.create("http://localhost/direct/resource" + last);
+		this.templateUri = URI.create("http://localhost/template/resource" + last + "/42");
+	}
+
+	private ServerWebExchange createExchange(URI uri) {
+		MockServerHttpRequest request = new MockServerHttpRequest(HttpMethod.GET, uri);
+		request.getHeaders().add("Accept", MediaType.APPLICATION_JSON_VALUE);
+		return new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+				this.sessionManager);
+	}
+
+
+	@Benchmark
+	public Object directPath() {
+		return this.handlerMapping.getHandler(createExchange(this.directUri)).block();
+	}
+
+	@Benchmark
+	public Object uriTemplate() {
+		return this.handlerMapping.getHandler(createExchange(this.templateUri)).block();
+	}
+
+
+	private static class TestController {
+
+		@SuppressWarnings("unused")
+		public String handle() {
+			return "handled";
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
@@ -60,6 +61,26 @@ public interface Decoder<T> {
 	Flux<T> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			MimeType mimeType, Object... hints);
 
+	/**
+	 * Decode a {@link DataBuffer} input stream into a Mono of {@code T}. Used when only
+	 * a single value is expected, so that implementations can decode the input as a
+	 * whole, rather than splitting it into a stream of elements first.
+	 * <p>The default implementation returns the first element {@linkplain #decode
+	 * decoded} from the input stream.
+	 *
+	 * @param inputStream the {@code DataBuffer} input stream to decode
+	 * @param elementType the expected type of the output value;
+	 * this type must have been previously passed to the {@link #canDecode}
+	 * method and it must have returned {@code true}.
+	 * @param mimeType the MIME type associated with the input stream, optional
+	 * @param hints additional information about how to do decode, optional
+	 * @return the output stream with the decoded value
+	 */
+	default Mono<T> decodeToMono(Publisher<DataBuffer> inputStream,
+			ResolvableType elementType, MimeType mimeType, Object... hints) {
+		return decode(inputStream, elementType, mimeType, hints).next();
+	}
+
 	/**
 	 * Return the list of MIME types this decoder supports.
 	 */
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.util.BackpressureUtils;
+
+import org.springframework.util.Assert;
+
+/**
+ * Publisher that groups the elements of a source publisher into lists of the elements
+ * that are available at once. Up to {@code maxBatchSize} elements are requested ahead
+ * from the source; whenever there is demand, all elements received since the previous
+ * list was emitted, up to {@code maxBatchSize}, are emitted as one list.
+ *
+ * <p>Elements that a source emits synchronously upon request thus end up in the same
+ * list, while the elements of a slow source are emitted as soon as they arrive. Unlike
+ * {@code Flux.buffer(int, Duration)}, no timer is involved. An error of the source is
+ * signalled right away, dropping any queued elements.
+ */
+class AvailableElementsBatcher<T> implements Publisher<List<T>> {
+
+	private final Publisher<? extends T> source;
+
+	private final int maxBatchSize;
+
+
+	public AvailableElementsBatcher(Publisher<? extends T> source, int maxBatchSize) {
+		Assert.notNull(source, "'source' must not be null");
+		Assert.isTrue(maxBatchSize > 0, "'maxBatchSize' must be larger than 0");
+		this.source = source;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+
+	@Override
+	public void subscribe(Subscriber<? super List<T>> subscriber) {
+		Assert.notNull(subscriber, "'subscriber' must not be null");
+		new BatchingSubscriber<>(subscriber, this.maxBatchSize).subscribeTo(this.source);
+	}
+
+
+	/**
+	 * Queues the elements of the source, and emits them as lists from {@link #drain()}.
+	 * Subscribing to and replenishing the source happen while draining is held off, so
+	 * that elements the source emits synchronously are queued, and end up in one list.
+	 */
+	private static class BatchingSubscriber<T> implements Subscriber<T>, Subscription {
+
+		private final Subscriber<? super List<T>> subscriber;
+
+		private final int maxBatchSize;
+
+		private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicLong demand = new AtomicLong();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private Subscription subscription;
+
+		private volatile boolean done;
+
+		private Throwable error;
+
+		private volatile boolean cancelled;
+
+		public BatchingSubscriber(Subscriber<? super List<T>> subscriber, int maxBatchSize) {
+			this.subscriber = subscriber;
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		public void subscribeTo(Publisher<? extends T> source) {
+			this.wip.getAndIncrement();
+			source.subscribe(this);
+			drainLoop();
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			if (BackpressureUtils.validate(this.subscription, subscription)) {
+				this.subscription = subscription;
+				this.subscriber.onSubscribe(this);
+				subscription.request(this.maxBatchSize);
+			}
+		}
+
+		@Override
+		public void onNext(T element) {
+			this.queue.offer(element);
+			drain();
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			this.error = ex;
+			this.done = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			this.done = true;
+			drain();
+		}
+
+		@Override
+		public void request(long n) {
+			if (!this.cancelled && BackpressureUtils.checkRequest(n, this.subscriber)) {
+				BackpressureUtils.addAndGet(this.demand, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!this.cancelled) {
+				this.cancelled = true;
+				this.subscription.cancel();
+				drain();
+			}
+		}
+
+		private void drain() {
+			if (this.wip.getAndIncrement() == 0) {
+				drainLoop();
+			}
+		}
+
+		private void drainLoop() {
+			int missed = 1;
+			do {
+				while (true) {
+					if (this.cancelled) {
+						this.queue.clear();
+						break;
+					}
+					boolean done = this.done;
+					if (done && this.error != null) {
+						this.cancelled = true;
+						this.queue.clear();
+						this.subscriber.onError(this.error);
+						break;
+					}
+					if (this.queue.isEmpty()) {
+						if (done) {
+							this.cancelled = true;
+							this.subscriber.onComplete();
+						}
+						break;
+					}
+					if (this.demand.get() == 0) {
+						break;
+					}
+					List<T> batch = new ArrayList<>();
+					T element;
+					while (batch.size() < this.maxBatchSize &&
+							(element = this.queue.poll()) != null) {
+						batch.add(element);
+					}
+					BackpressureUtils.getAndSub(this.demand, 1L);
+					this.subscriber.onNext(batch);
+					if (!done) {
+						this.subscription.request(batch.size());
+					}
+				}
+				missed = this.wip.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+	}
+
+}
@@ -17,18 +17,23 @@
 package org.springframework.core.codec.support;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.CodecException;
 import org.springframework.core.codec.Decoder;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.MimeType;
 
 
@@ -44,6 +49,9 @@ public class JacksonJsonDecoder extends AbstractDecoder<Object> {
 
 	private Decoder<DataBuffer> preProcessor;
 
+	private final Map<ResolvableType, ObjectReader> readers =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	public JacksonJsonDecoder() {
 		this(new ObjectMapper(), null);
@@ -54,8 +62,20 @@ public class JacksonJsonDecoder extends AbstractDecoder<Object> {
 	}
 
 	public JacksonJsonDecoder(ObjectMapper mapper, Decoder<DataBuffer> preProcessor) {
-		super(new MimeType("application", "json", StandardCharsets.UTF_8),
+		this(mapper, preProcessor, new MimeType("application", "json", StandardCharsets.UTF_8),
 				new MimeType("application", "*+json", StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Constructor for subclasses that decode other JSON-based formats.
+	 * @param mapper the object mapper to use
+	 * @param preProcessor the decoder that splits the stream into JSON texts; may be
+	 * {@code null}
+	 * @param supportedMimeTypes the supported mime types
+	 */
+	protected JacksonJsonDecoder(ObjectMapper mapper, Decoder<DataBuffer> preProcessor,
+			MimeType... supportedMimeTypes) {
+		super(supportedMimeTypes);
 		this.mapper = mapper;
 		this.preProcessor = preProcessor;
 	}
@@ -64,23 +84,63 @@ public class JacksonJsonDecoder extends AbstractDecoder<Object> {
 	public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			MimeType mimeType, Object... hints) {
 
-		ObjectReader reader = this.mapper.readerFor(elementType.getRawClass());
+		ObjectReader reader = getReader(elementType);
 
 		Flux<DataBuffer> stream = Flux.from(inputStream);
 		if (this.preProcessor != null) {
 			stream = this.preProcessor.decode(inputStream, elementType, mimeType, hints);
 		}
 
-		return stream.map(dataBuffer -> {
-			try {
-				Object value = reader.readValue(dataBuffer.asInputStream());
-				DataBufferUtils.release(dataBuffer);
-				return value;
-			}
-			catch (IOException e) {
-				throw new CodecException("Error while reading the data", e);
-			}
-		});
+		return stream.map(dataBuffer -> readValueAndRelease(reader, dataBuffer));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation joins all buffers of the input stream, and parses them as
+	 * a single JSON text, without splitting them with the pre-processor first.
+	 */
+	@Override
+	public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream,
+			ResolvableType elementType, MimeType mimeType, Object... hints) {
+
+		ObjectReader reader = getReader(elementType);
+
+		return DataBufferUtils.join(inputStream)
+				.map(dataBuffer -> readValueAndRelease(reader, dataBuffer));
+	}
+
+	private ObjectReader getReader(ResolvableType elementType) {
+		ObjectReader reader = this.readers.get(elementType);
+		if (reader == null) {
+			JavaType javaType =
+					JacksonTypeUtils.getJavaType(this.mapper.getTypeFactory(), elementType);
+			reader = this.mapper.readerFor(javaType);
+			this.readers.putIfAbsent(elementType, reader);
+		}
+		return reader;
+	}
+
+	private static Object readValueAndRelease(ObjectReader reader, DataBuffer dataBuffer) {
+		try {
+			return readValue(reader, dataBuffer);
+		}
+		catch (IOException e) {
+			throw new CodecException("Error while reading the data", e);
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+	private static Object readValue(ObjectReader reader, DataBuffer dataBuffer)
+			throws IOException {
+		ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+		if (byteBuffer.hasArray()) {
+			// read straight from the backing array, rather than through a stream
+			return reader.readValue(byteBuffer.array(),
+					byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+		}
+		return reader.readValue(dataBuffer.asInputStream());
 	}
 
 }
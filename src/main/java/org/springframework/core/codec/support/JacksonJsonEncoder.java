@@ -18,10 +18,17 @@ package org.springframework.core.codec.support;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -30,38 +37,78 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.CodecException;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.MimeType;
 
 /**
  * Encode from an {@code Object} stream to a byte stream of JSON objects.
  *
+ * <p>A {@code Mono} is encoded as a single JSON object; other publishers as a JSON array.
+ * The elements of an array are written with a single {@link JsonGenerator}, and packed
+ * into data buffers of about {@linkplain #setBufferSize buffer size} bytes. Elements
+ * that are available at once are encoded together; the encoded bytes are emitted as
+ * soon as no more elements are immediately available.
+ *
  * @author Sebastien Deleuze
  * @author Arjen Poutsma
  * @see JacksonJsonDecoder
  */
 public class JacksonJsonEncoder extends AbstractEncoder<Object> {
 
+	/**
+	 * The default number of bytes after which an encoded JSON array is emitted as a
+	 * data buffer.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private static final int MAX_BATCH_SIZE = 256;
+
+	private static final Object END_OF_ARRAY = new Object();
+
+
 	private final ObjectMapper mapper;
 
-	private static final ByteBuffer START_ARRAY_BUFFER = ByteBuffer.wrap(new byte[]{'['});
+	private final Map<ResolvableType, ObjectWriter> writers =
+			new ConcurrentReferenceHashMap<>(64);
 
-	private static final ByteBuffer SEPARATOR_BUFFER = ByteBuffer.wrap(new byte[]{','});
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
 
-	private static final ByteBuffer END_ARRAY_BUFFER = ByteBuffer.wrap(new byte[]{']'});
 
 	public JacksonJsonEncoder() {
 		this(new ObjectMapper());
 	}
 
 	public JacksonJsonEncoder(ObjectMapper mapper) {
-		super(new MimeType("application", "json", StandardCharsets.UTF_8),
+		this(mapper, new MimeType("application", "json", StandardCharsets.UTF_8),
 				new MimeType("application", "*+json", StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Constructor for subclasses that encode other JSON-based formats.
+	 * @param mapper the object mapper to use
+	 * @param supportedMimeTypes the supported mime types
+	 */
+	protected JacksonJsonEncoder(ObjectMapper mapper, MimeType... supportedMimeTypes) {
+		super(supportedMimeTypes);
 		Assert.notNull(mapper, "'mapper' must not be null");
 
 		this.mapper = mapper;
 	}
 
+
+	/**
+	 * Set the number of bytes after which an encoded JSON array is emitted as a data
+	 * buffer. Elements are packed into buffers of about this size, rather than being
+	 * emitted one by one.
+	 * <p>By default this is set to {@link #DEFAULT_BUFFER_SIZE}.
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be larger than 0");
+		this.bufferSize = bufferSize;
+	}
+
 	@Override
 	public Flux<DataBuffer> encode(Publisher<?> inputStream,
 			DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType,
@@ -69,40 +116,160 @@ public class JacksonJsonEncoder extends AbstractEncoder<Object> {
 		if (inputStream instanceof Mono) {
 			// single object
 			return Flux.from(inputStream)
-					.map(value -> serialize(value, bufferFactory));
+					.map(value -> serialize(value, bufferFactory, elementType));
 		}
 		else {
 			// array
-			Mono<DataBuffer> startArray =
-					Mono.just(bufferFactory.wrap(START_ARRAY_BUFFER));
-			Flux<DataBuffer> arraySeparators =
-					Mono.just(bufferFactory.wrap(SEPARATOR_BUFFER)).repeat();
-			Mono<DataBuffer> endArray =
-					Mono.just(bufferFactory.wrap(END_ARRAY_BUFFER));
-
-			Flux<DataBuffer> serializedObjects = Flux.from(inputStream)
-					.map(value -> serialize(value, bufferFactory));
-
-			Flux<DataBuffer> array = Flux.zip(serializedObjects, arraySeparators)
-					.flatMap(tuple -> Flux.just(tuple.getT1(), tuple.getT2()));
-
-			Flux<DataBuffer> arrayWithoutLastSeparator = array.skipLast(1);
-
-			return Flux.concat(startArray, arrayWithoutLastSeparator, endArray);
+			return Flux.defer(() -> {
+				JsonArrayWriter arrayWriter = new JsonArrayWriter(bufferFactory, elementType);
+				// the end marker makes the end of the array part of the last batch
+				Flux<Object> elements = Flux.<Object>from(inputStream)
+						.concatWith(Mono.just(END_OF_ARRAY));
+				return Flux.from(new AvailableElementsBatcher<>(elements, MAX_BATCH_SIZE))
+						.concatMapIterable(arrayWriter::writeElements)
+						.doOnCancel(arrayWriter::discard)
+						.doOnError(ex -> arrayWriter.discard());
+			});
 		}
 	}
 
-	private DataBuffer serialize(Object value, DataBufferFactory dataBufferFactory) {
+	/**
+	 * Serialize the given value as a single JSON text into a newly allocated buffer.
+	 */
+	protected DataBuffer serialize(Object value, DataBufferFactory dataBufferFactory,
+			ResolvableType elementType) {
 		DataBuffer buffer = dataBufferFactory.allocateBuffer();
 		OutputStream outputStream = buffer.asOutputStream();
 		try {
-			this.mapper.writeValue(outputStream, value);
+			getWriter(value, elementType).writeValue(outputStream, value);
 		}
 		catch (IOException e) {
+			DataBufferUtils.release(buffer);
 			throw new CodecException("Error while writing the data", e);
 		}
 		return buffer;
 	}
 
+	/**
+	 * Returns the writer for the given value. The element type is used only when it has
+	 * generics that the runtime class of the value lacks, such as {@code List<Foo>};
+	 * otherwise the runtime class is used, as with {@link ObjectMapper#writeValue}.
+	 */
+	private ObjectWriter getWriter(Object value, ResolvableType elementType) {
+		ResolvableType type;
+		if (elementType != null && elementType.hasGenerics() &&
+				elementType.isAssignableFrom(value.getClass())) {
+			type = elementType;
+		}
+		else {
+			type = ResolvableType.forClass(value.getClass());
+		}
+		ObjectWriter writer = this.writers.get(type);
+		if (writer == null) {
+			JavaType javaType = JacksonTypeUtils.getJavaType(this.mapper.getTypeFactory(), type);
+			// flushing is up to the caller, see JsonArrayWriter
+			writer = this.mapper.writerFor(javaType)
+					.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			this.writers.putIfAbsent(type, writer);
+		}
+		return writer;
+	}
+
+
+	/**
+	 * Per-subscription writer of a JSON array. Uses a single {@link JsonGenerator} for all
+	 * elements, writing into a data buffer that is emitted once it holds
+	 * {@linkplain #setBufferSize buffer size} bytes, or at the end of a batch of elements.
+	 */
+	private class JsonArrayWriter {
+
+		private final DataBufferFactory bufferFactory;
+
+		private final ResolvableType elementType;
+
+		private final JsonGenerator generator;
+
+		private DataBuffer buffer;
+
+		public JsonArrayWriter(DataBufferFactory bufferFactory, ResolvableType elementType) {
+			this.bufferFactory = bufferFactory;
+			this.elementType = elementType;
+			try {
+				this.generator = mapper.getFactory().createGenerator(new OutputStream() {
+					@Override
+					public void write(int b) {
+						currentBuffer().write((byte) b);
+					}
+					@Override
+					public void write(byte[] bytes, int off, int len) {
+						currentBuffer().write(bytes, off, len);
+					}
+				}, JsonEncoding.UTF8);
+				this.generator.writeStartArray();
+			}
+			catch (IOException ex) {
+				throw new CodecException("Error while writing the data", ex);
+			}
+		}
+
+		private DataBuffer currentBuffer() {
+			if (this.buffer == null) {
+				this.buffer = this.bufferFactory.allocateBuffer(bufferSize);
+			}
+			return this.buffer;
+		}
+
+		/**
+		 * Write the given elements, and return the buffers that are ready to be emitted.
+		 * The {@link #END_OF_ARRAY} marker closes the array.
+		 */
+		public List<DataBuffer> writeElements(List<?> elements) {
+			List<DataBuffer> result = new ArrayList<>();
+			try {
+				for (Object element : elements) {
+					if (element == END_OF_ARRAY) {
+						this.generator.writeEndArray();
+						result.add(flush());
+						this.generator.close();
+						return result;
+					}
+					getWriter(element, this.elementType).writeValue(this.generator, element);
+					if (bufferedByteCount() >= bufferSize) {
+						result.add(flush());
+					}
+				}
+				if (bufferedByteCount() > 0) {
+					result.add(flush());
+				}
+			}
+			catch (IOException ex) {
+				result.forEach(DataBufferUtils::release);
+				throw new CodecException("Error while writing the data", ex);
+			}
+			return result;
+		}
+
+		private int bufferedByteCount() {
+			int count = Math.max(this.generator.getOutputBuffered(), 0);
+			if (this.buffer != null) {
+				count += this.buffer.readableByteCount();
+			}
+			return count;
+		}
+
+		private DataBuffer flush() throws IOException {
+			this.generator.flush();
+			DataBuffer result = currentBuffer();
+			this.buffer = null;
+			return result;
+		}
+
+		public void discard() {
+			if (this.buffer != null) {
+				DataBufferUtils.release(this.buffer);
+				this.buffer = null;
+			}
+		}
+	}
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.util.MimeType;
+
+/**
+ * Decode from a byte stream of newline-delimited JSON ({@code application/x-ndjson})
+ * to a stream of {@code Object} (POJO). Lines are split by a {@link NdJsonObjectDecoder},
+ * and every line is decoded as soon as it has been received.
+ *
+ * @see JacksonNdJsonEncoder
+ * @see <a href="http://ndjson.org/">Newline Delimited JSON</a>
+ */
+public class JacksonNdJsonDecoder extends JacksonJsonDecoder {
+
+	public JacksonNdJsonDecoder() {
+		this(new ObjectMapper());
+	}
+
+	public JacksonNdJsonDecoder(ObjectMapper mapper) {
+		this(mapper, new NdJsonObjectDecoder());
+	}
+
+	/**
+	 * @param mapper the object mapper to use
+	 * @param lineDecoder the decoder that splits the stream into lines
+	 */
+	public JacksonNdJsonDecoder(ObjectMapper mapper, NdJsonObjectDecoder lineDecoder) {
+		super(mapper, lineDecoder,
+				new MimeType("application", "x-ndjson", StandardCharsets.UTF_8));
+	}
+
+}
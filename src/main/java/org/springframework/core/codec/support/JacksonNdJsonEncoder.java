@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * Encode from an {@code Object} stream to a byte stream of newline-delimited JSON
+ * ({@code application/x-ndjson}).
+ *
+ * <p>Each element is written as a single-line JSON text followed by a newline, and
+ * emitted as soon as it is encoded. As there is no enclosing array, the stream can be
+ * consumed while it is being written, and may be infinite.
+ *
+ * @see JacksonNdJsonDecoder
+ * @see <a href="http://ndjson.org/">Newline Delimited JSON</a>
+ */
+public class JacksonNdJsonEncoder extends JacksonJsonEncoder {
+
+	private static final byte NEWLINE = '\n';
+
+
+	public JacksonNdJsonEncoder() {
+		this(new ObjectMapper());
+	}
+
+	/**
+	 * Create a new encoder with the given mapper. If the mapper indents its output, a
+	 * copy without indentation is used instead, as every element must fit on one line.
+	 * @param mapper the object mapper to use
+	 */
+	public JacksonNdJsonEncoder(ObjectMapper mapper) {
+		super(singleLine(mapper),
+				new MimeType("application", "x-ndjson", StandardCharsets.UTF_8));
+	}
+
+	private static ObjectMapper singleLine(ObjectMapper mapper) {
+		Assert.notNull(mapper, "'mapper' must not be null");
+		if (mapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			return mapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+		}
+		return mapper;
+	}
+
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream,
+			DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType,
+			Object... hints) {
+
+		return Flux.from(inputStream).map(value -> {
+			DataBuffer buffer = serialize(value, bufferFactory, elementType);
+			return buffer.write(NEWLINE);
+		});
+	}
+
+}
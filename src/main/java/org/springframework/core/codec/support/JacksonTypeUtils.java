@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import org.springframework.core.ResolvableType;
+
+/**
+ * Converts {@link ResolvableType}s into Jackson {@link JavaType}s, retaining their
+ * generics. Used by the Jackson codecs.
+ */
+abstract class JacksonTypeUtils {
+
+	/**
+	 * Returns the Jackson type for the given type. Generics that cannot be resolved are
+	 * treated as {@code Object}.
+	 * @param typeFactory the type factory to construct the type with
+	 * @param type the type to convert
+	 * @return the corresponding Jackson type
+	 */
+	public static JavaType getJavaType(TypeFactory typeFactory, ResolvableType type) {
+		if (type.isArray()) {
+			return typeFactory.constructArrayType(
+					getJavaType(typeFactory, type.getComponentType()));
+		}
+		Class<?> rawClass = type.resolve(Object.class);
+		if (!type.hasGenerics()) {
+			return typeFactory.constructType(rawClass);
+		}
+		ResolvableType[] generics = type.getGenerics();
+		JavaType[] parameterTypes = new JavaType[generics.length];
+		for (int i = 0; i < generics.length; i++) {
+			parameterTypes[i] = getJavaType(typeFactory, generics[i]);
+		}
+		return typeFactory.constructParametricType(rawClass, parameterTypes);
+	}
+
+}
@@ -16,7 +16,9 @@
 
 package org.springframework.core.codec.support;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.Function;
 import javax.xml.XMLConstants;
@@ -28,8 +30,16 @@ import javax.xml.bind.annotation.XmlSchema;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.StreamReaderDelegate;
 
+import com.fasterxml.aalto.AsyncByteBufferFeeder;
+import com.fasterxml.aalto.AsyncXMLInputFactory;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -37,6 +47,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.CodecException;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -60,14 +71,32 @@ public class Jaxb2Decoder extends AbstractDecoder<Object> {
 	 */
 	private final static String JAXB_DEFAULT_ANNOTATION_VALUE = "##default";
 
+	private static final boolean aaltoPresent = ClassUtils
+			.isPresent("com.fasterxml.aalto.AsyncXMLStreamReader",
+					Jaxb2Decoder.class.getClassLoader());
+
 	private final XmlEventDecoder xmlEventDecoder = new XmlEventDecoder();
 
 	private final JaxbContextContainer jaxbContexts = new JaxbContextContainer();
 
+	private final boolean useAalto;
+
 	public Jaxb2Decoder() {
+		this(true);
+	}
+
+	/**
+	 * Create a new {@code Jaxb2Decoder}, indicating whether root elements should be
+	 * unmarshalled incrementally with the non-blocking Aalto parser, if present on
+	 * the classpath. Otherwise the input is split into {@link XMLEvent}s first.
+	 * @param useAalto whether to use Aalto if present
+	 */
+	public Jaxb2Decoder(boolean useAalto) {
 		super(MimeTypeUtils.APPLICATION_XML, MimeTypeUtils.TEXT_XML);
+		this.useAalto = useAalto;
 	}
 
+
 	@Override
 	public boolean canDecode(ResolvableType elementType, MimeType mimeType, Object... hints) {
 		if (super.canDecode(elementType, mimeType, hints)) {
@@ -84,10 +113,22 @@ public class Jaxb2Decoder extends AbstractDecoder<Object> {
 	public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			MimeType mimeType, Object... hints) {
 		Class<?> outputClass = elementType.getRawClass();
+		QName typeName = toQName(outputClass);
+
+		if (this.useAalto && aaltoPresent) {
+			return Flux.defer(() -> {
+				AaltoDataBufferToObject unmarshaller = new AaltoDataBufferToObject(
+						typeName, streamReader -> unmarshal(streamReader, outputClass));
+				return Flux.from(inputStream)
+						.flatMap(unmarshaller)
+						.doOnComplete(unmarshaller::releasePending)
+						.doOnError(ex -> unmarshaller.releasePending())
+						.doOnCancel(unmarshaller::releasePending);
+			});
+		}
+
 		Flux<XMLEvent> xmlEventFlux =
 				this.xmlEventDecoder.decode(inputStream, null, mimeType);
-
-		QName typeName = toQName(outputClass);
 		Flux<List<XMLEvent>> splitEvents = split(xmlEventFlux, typeName);
 
 		return splitEvents.map(events -> unmarshal(events, outputClass));
@@ -196,20 +237,216 @@ public class Jaxb2Decoder extends AbstractDecoder<Object> {
 
 	private Object unmarshal(List<XMLEvent> events, Class<?> outputClass) {
 		try {
-			Unmarshaller unmarshaller = this.jaxbContexts.createUnmarshaller(outputClass);
+			Unmarshaller unmarshaller = this.jaxbContexts.borrowUnmarshaller(outputClass);
 			XMLEventReader eventReader = StaxUtils2.createXMLEventReader(events);
+			Object result;
 			if (outputClass.isAnnotationPresent(XmlRootElement.class)) {
-				return unmarshaller.unmarshal(eventReader);
+				result = unmarshaller.unmarshal(eventReader);
 			}
 			else {
 				JAXBElement<?> jaxbElement =
 						unmarshaller.unmarshal(eventReader, outputClass);
-				return jaxbElement.getValue();
+				result = jaxbElement.getValue();
 			}
+			this.jaxbContexts.returnUnmarshaller(outputClass, unmarshaller);
+			return result;
 		}
 		catch (JAXBException ex) {
 			throw new CodecException(ex.getMessage(), ex);
 		}
 	}
 
+	private Object unmarshal(XMLStreamReader streamReader, Class<?> outputClass) {
+		try {
+			Unmarshaller unmarshaller = this.jaxbContexts.borrowUnmarshaller(outputClass);
+			Object result;
+			if (outputClass.isAnnotationPresent(XmlRootElement.class)) {
+				result = unmarshaller.unmarshal(streamReader);
+			}
+			else {
+				JAXBElement<?> jaxbElement =
+						unmarshaller.unmarshal(streamReader, outputClass);
+				result = jaxbElement.getValue();
+			}
+			this.jaxbContexts.returnUnmarshaller(outputClass, unmarshaller);
+			return result;
+		}
+		catch (JAXBException ex) {
+			throw new CodecException(ex.getMessage(), ex);
+		}
+	}
+
+
+	/**
+	 * Unmarshals each branch of the tree that starts with a given qualified name
+	 * directly from the cursor of an Aalto {@link AsyncXMLStreamReader}, without
+	 * allocating {@link XMLEvent}s.
+	 * <p>As the unmarshaller pulls events synchronously, it can only be handed the
+	 * cursor once the complete branch has been received. A second, lookahead reader is
+	 * fed every incoming buffer to find the end of each branch; the buffers are held
+	 * until the primary reader, which the unmarshaller reads from, has consumed them.
+	 * Separate static class to isolate Aalto dependency.
+	 */
+	private static class AaltoDataBufferToObject
+			implements Function<DataBuffer, Publisher<?>> {
+
+		private static final AsyncXMLInputFactory inputFactory = new InputFactoryImpl();
+
+		private final QName desiredName;
+
+		private final Function<XMLStreamReader, Object> unmarshaller;
+
+		private final AsyncXMLStreamReader<AsyncByteBufferFeeder> lookaheadReader =
+				inputFactory.createAsyncForByteBuffer();
+
+		private final AsyncXMLStreamReader<AsyncByteBufferFeeder> streamReader =
+				inputFactory.createAsyncForByteBuffer();
+
+		private final Deque<DataBuffer> pending = new ArrayDeque<>();
+
+		private DataBuffer current;
+
+		private int elementDepth = 0;
+
+		private int barrier = Integer.MAX_VALUE;
+
+		private int completedBranches = 0;
+
+		public AaltoDataBufferToObject(QName desiredName,
+				Function<XMLStreamReader, Object> unmarshaller) {
+			this.desiredName = desiredName;
+			this.unmarshaller = unmarshaller;
+		}
+
+		@Override
+		public Publisher<?> apply(DataBuffer dataBuffer) {
+			if (dataBuffer.readableByteCount() == 0) {
+				DataBufferUtils.release(dataBuffer);
+				return Flux.empty();
+			}
+			try {
+				this.pending.add(dataBuffer);
+				lookahead(dataBuffer);
+				List<Object> result = new ArrayList<>(this.completedBranches);
+				while (true) {
+					if (this.streamReader.getEventType() == XMLStreamConstants.START_ELEMENT &&
+							this.desiredName.equals(this.streamReader.getName())) {
+						if (this.completedBranches == 0) {
+							// the rest of this branch has not been received yet
+							break;
+						}
+						this.completedBranches--;
+						result.add(this.unmarshaller.apply(new BranchStreamReader()));
+					}
+					int event = next();
+					if (event == AsyncXMLStreamReader.EVENT_INCOMPLETE ||
+							event == XMLStreamConstants.END_DOCUMENT) {
+						break;
+					}
+				}
+				return Flux.fromIterable(result);
+			}
+			catch (XMLStreamException ex) {
+				return Flux.error(ex);
+			}
+		}
+
+		/**
+		 * Feeds the given buffer to the lookahead reader, and counts the branches
+		 * that have been completed by it.
+		 */
+		private void lookahead(DataBuffer dataBuffer) throws XMLStreamException {
+			this.lookaheadReader.getInputFeeder().feedInput(dataBuffer.asByteBuffer());
+			while (true) {
+				int event = this.lookaheadReader.next();
+				if (event == AsyncXMLStreamReader.EVENT_INCOMPLETE ||
+						event == XMLStreamConstants.END_DOCUMENT) {
+					break;
+				}
+				else if (event == XMLStreamConstants.START_ELEMENT) {
+					if (this.barrier == Integer.MAX_VALUE &&
+							this.desiredName.equals(this.lookaheadReader.getName())) {
+						this.barrier = this.elementDepth;
+					}
+					this.elementDepth++;
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					this.elementDepth--;
+					if (this.elementDepth == this.barrier) {
+						this.barrier = Integer.MAX_VALUE;
+						this.completedBranches++;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Advances the primary reader, feeding it pending buffers as required.
+		 */
+		private int next() throws XMLStreamException {
+			int event = this.streamReader.next();
+			while (event == AsyncXMLStreamReader.EVENT_INCOMPLETE && !this.pending.isEmpty()) {
+				DataBufferUtils.release(this.current);
+				this.current = this.pending.poll();
+				this.streamReader.getInputFeeder().feedInput(this.current.asByteBuffer());
+				event = this.streamReader.next();
+			}
+			return event;
+		}
+
+		public void releasePending() {
+			DataBufferUtils.release(this.current);
+			this.current = null;
+			this.pending.forEach(DataBufferUtils::release);
+			this.pending.clear();
+		}
+
+
+		/**
+		 * Exposes the branch that starts at the current element of the primary reader
+		 * as a complete document.
+		 */
+		private class BranchStreamReader extends StreamReaderDelegate {
+
+			private int depth = 1;
+
+			private boolean endDocument = false;
+
+			public BranchStreamReader() {
+				super(streamReader);
+			}
+
+			@Override
+			public int next() throws XMLStreamException {
+				if (this.depth == 0) {
+					// do not move beyond the end of the branch
+					this.endDocument = true;
+					return XMLStreamConstants.END_DOCUMENT;
+				}
+				int event = AaltoDataBufferToObject.this.next();
+				if (event == AsyncXMLStreamReader.EVENT_INCOMPLETE) {
+					throw new XMLStreamException("Unexpected end of input");
+				}
+				else if (event == XMLStreamConstants.START_ELEMENT) {
+					this.depth++;
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					this.depth--;
+				}
+				return event;
+			}
+
+			@Override
+			public boolean hasNext() throws XMLStreamException {
+				return !this.endDocument;
+			}
+
+			@Override
+			public int getEventType() {
+				return (this.endDocument ? XMLStreamConstants.END_DOCUMENT :
+						super.getEventType());
+			}
+		}
+	}
+
 }
@@ -17,17 +17,24 @@
 package org.springframework.core.codec.support;
 
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -35,18 +42,50 @@ import org.springframework.util.MimeTypeUtils;
 /**
  * Encode from an {@code Object} stream to a byte stream of XML elements.
  *
+ * <p>A {@link Mono} is encoded as a single XML document. Any other publisher is
+ * encoded as a document with a {@linkplain #setRootElementName root element} that
+ * wraps the marshalled elements. Each element is marshalled as a fragment into its
+ * own buffer as soon as it arrives, so the stream is never collected in memory.
+ *
  * @author Sebastien Deleuze
  * @author Arjen Poutsma
  * @see Jaxb2Decoder
  */
-public class Jaxb2Encoder extends AbstractSingleValueEncoder<Object> {
+public class Jaxb2Encoder extends AbstractEncoder<Object> {
+
+	/**
+	 * The default name of the root element that wraps a stream of elements.
+	 */
+	public static final String DEFAULT_ROOT_ELEMENT_NAME = "list";
+
+	private static final String XML_DECLARATION =
+			"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+	private final JaxbContextContainer jaxbContexts = new JaxbContextContainer(
+			Collections.singletonMap(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name()));
 
-	private final JaxbContextContainer jaxbContexts = new JaxbContextContainer();
+	private String rootElementName = DEFAULT_ROOT_ELEMENT_NAME;
 
 	public Jaxb2Encoder() {
 		super(MimeTypeUtils.APPLICATION_XML, MimeTypeUtils.TEXT_XML);
 	}
 
+	/**
+	 * Set the name of the root element that wraps the elements of a stream.
+	 * <p>By default this is set to {@link #DEFAULT_ROOT_ELEMENT_NAME}.
+	 */
+	public void setRootElementName(String rootElementName) {
+		Assert.hasLength(rootElementName, "'rootElementName' must not be empty");
+		this.rootElementName = rootElementName;
+	}
+
+	/**
+	 * Return the name of the root element that wraps the elements of a stream.
+	 */
+	public String getRootElementName() {
+		return this.rootElementName;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, MimeType mimeType, Object... hints) {
 		if (super.canEncode(elementType, mimeType, hints)) {
@@ -61,24 +100,55 @@ public class Jaxb2Encoder extends AbstractSingleValueEncoder<Object> {
 	}
 
 	@Override
-	protected Flux<DataBuffer> encode(Object value, DataBufferFactory dataBufferFactory,
-			ResolvableType type, MimeType mimeType, Object... hints) {
+	public Flux<DataBuffer> encode(Publisher<?> inputStream,
+			DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType,
+			Object... hints) {
+		if (inputStream instanceof Mono) {
+			// single document
+			return Flux.from(inputStream).map(value -> marshal(value, bufferFactory, false));
+		}
+		else {
+			// root element wrapping fragments
+			String rootElementName = this.rootElementName;
+			Mono<DataBuffer> start = Mono.fromCallable(() -> writeString(bufferFactory,
+					XML_DECLARATION + "<" + rootElementName + ">"));
+			Mono<DataBuffer> end = Mono.fromCallable(() -> writeString(bufferFactory,
+					"</" + rootElementName + ">"));
+			return Flux.concat(start,
+					Flux.from(inputStream).map(value -> marshal(value, bufferFactory, true)),
+					end);
+		}
+	}
+
+	private DataBuffer marshal(Object value, DataBufferFactory bufferFactory,
+			boolean fragment) {
+		DataBuffer buffer = bufferFactory.allocateBuffer(1024);
 		try {
-			DataBuffer buffer = dataBufferFactory.allocateBuffer(1024);
 			OutputStream outputStream = buffer.asOutputStream();
 			Class<?> clazz = ClassUtils.getUserClass(value);
-			Marshaller marshaller = jaxbContexts.createMarshaller(clazz);
-			marshaller
-					.setProperty(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name());
-			marshaller.marshal(value, outputStream);
-			return Flux.just(buffer);
+			Marshaller marshaller = this.jaxbContexts.borrowMarshaller(clazz);
+			if (fragment) {
+				marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+				marshaller.marshal(value, outputStream);
+				marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+			}
+			else {
+				marshaller.marshal(value, outputStream);
+			}
+			this.jaxbContexts.returnMarshaller(clazz, marshaller);
+			return buffer;
 		}
 		catch (JAXBException ex) {
-			return Flux.error(ex);
+			DataBufferUtils.release(buffer);
+			throw new CodecException(ex.getMessage(), ex);
 		}
 	}
 
-
+	private static DataBuffer writeString(DataBufferFactory bufferFactory, String s) {
+		ByteBuffer byteBuffer = StandardCharsets.UTF_8.encode(s);
+		DataBuffer buffer = bufferFactory.allocateBuffer(byteBuffer.remaining());
+		buffer.write(byteBuffer);
+		return buffer;
+	}
 
 }
-
@@ -16,6 +16,10 @@
 
 package org.springframework.core.codec.support;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import javax.xml.bind.JAXBContext;
@@ -26,16 +30,53 @@ import javax.xml.bind.Unmarshaller;
 import org.springframework.util.Assert;
 
 /**
+ * Holds a {@link JAXBContext} per class, and bounded per-class pools of
+ * {@link Marshaller}s and {@link Unmarshaller}s. These are expensive to create and not
+ * thread-safe, so they are borrowed for the duration of a single (un)marshalling
+ * operation, and returned afterwards.
+ *
  * @author Arjen Poutsma
  */
 final class JaxbContextContainer {
 
+	/**
+	 * The maximum number of idle (un)marshallers kept per class.
+	 */
+	static final int MAX_IDLE = 16;
+
 	private final ConcurrentMap<Class<?>, JAXBContext> jaxbContexts =
 			new ConcurrentHashMap<>(64);
 
+	private final ConcurrentMap<Class<?>, BlockingQueue<Marshaller>> marshallers =
+			new ConcurrentHashMap<>(64);
+
+	private final ConcurrentMap<Class<?>, BlockingQueue<Unmarshaller>> unmarshallers =
+			new ConcurrentHashMap<>(64);
+
+	private final Map<String, ?> marshallerProperties;
+
+
+	public JaxbContextContainer() {
+		this(Collections.emptyMap());
+	}
+
+	/**
+	 * @param marshallerProperties the properties set on every marshaller when it is
+	 * created, rather than every time it is borrowed
+	 */
+	public JaxbContextContainer(Map<String, ?> marshallerProperties) {
+		Assert.notNull(marshallerProperties, "'marshallerProperties' must not be null");
+		this.marshallerProperties = marshallerProperties;
+	}
+
+
 	public Marshaller createMarshaller(Class<?> clazz) throws JAXBException {
 		JAXBContext jaxbContext = getJaxbContext(clazz);
-		return jaxbContext.createMarshaller();
+		Marshaller marshaller = jaxbContext.createMarshaller();
+		for (Map.Entry<String, ?> property : this.marshallerProperties.entrySet()) {
+			marshaller.setProperty(property.getKey(), property.getValue());
+		}
+		return marshaller;
 	}
 
 	public Unmarshaller createUnmarshaller(Class<?> clazz) throws JAXBException {
@@ -43,6 +84,54 @@ final class JaxbContextContainer {
 		return jaxbContext.createUnmarshaller();
 	}
 
+	/**
+	 * Return an idle marshaller for the given class, or a new one if there is none.
+	 * The marshaller should be {@linkplain #returnMarshaller returned} after use.
+	 */
+	public Marshaller borrowMarshaller(Class<?> clazz) throws JAXBException {
+		Marshaller marshaller = getPool(this.marshallers, clazz).poll();
+		return (marshaller != null ? marshaller : createMarshaller(clazz));
+	}
+
+	/**
+	 * Return the given marshaller to the pool of the given class. Marshallers that
+	 * failed should not be returned, as their state is unknown.
+	 */
+	public void returnMarshaller(Class<?> clazz, Marshaller marshaller) {
+		getPool(this.marshallers, clazz).offer(marshaller);
+	}
+
+	/**
+	 * Return an idle unmarshaller for the given class, or a new one if there is none.
+	 * The unmarshaller should be {@linkplain #returnUnmarshaller returned} after use.
+	 */
+	public Unmarshaller borrowUnmarshaller(Class<?> clazz) throws JAXBException {
+		Unmarshaller unmarshaller = getPool(this.unmarshallers, clazz).poll();
+		return (unmarshaller != null ? unmarshaller : createUnmarshaller(clazz));
+	}
+
+	/**
+	 * Return the given unmarshaller to the pool of the given class. Unmarshallers that
+	 * failed should not be returned, as their state is unknown.
+	 */
+	public void returnUnmarshaller(Class<?> clazz, Unmarshaller unmarshaller) {
+		getPool(this.unmarshallers, clazz).offer(unmarshaller);
+	}
+
+	private static <T> BlockingQueue<T> getPool(ConcurrentMap<Class<?>, BlockingQueue<T>> pools,
+			Class<?> clazz) {
+		Assert.notNull(clazz, "'clazz' must not be null");
+		BlockingQueue<T> pool = pools.get(clazz);
+		if (pool == null) {
+			pool = new ArrayBlockingQueue<>(MAX_IDLE);
+			BlockingQueue<T> existing = pools.putIfAbsent(clazz, pool);
+			if (existing != null) {
+				pool = existing;
+			}
+		}
+		return pool;
+	}
+
 	private JAXBContext getJaxbContext(Class<?> clazz) throws JAXBException {
 		Assert.notNull(clazz, "'clazz' must not be null");
 		JAXBContext jaxbContext = this.jaxbContexts.get(clazz);
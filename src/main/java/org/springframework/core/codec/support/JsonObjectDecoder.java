@@ -16,20 +16,22 @@
 
 package org.springframework.core.codec.support;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
 
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufUtil;
-import io.netty.buffer.Unpooled;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.CompositeDataBuffer;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.util.MimeType;
 
@@ -41,6 +43,12 @@ import org.springframework.util.MimeType;
  * is considered a JSON object/array if it contains a matching number of opening
  * and closing braces/brackets.
  *
+ * <p>Incoming buffers are scanned only once, and are retained by reference rather
+ * than copied. Emitted objects are slices of the incoming buffers; objects that span
+ * multiple buffers are emitted as a {@link CompositeDataBuffer} of slices. Buffers
+ * are released as soon as no pending object refers to them, so the memory held is
+ * bounded by the size of the current object, not by the length of the stream.
+ *
  * Based on  <a href="https://github.com/netty/netty/blob/master/codec/src/main/java/io/netty/handler/codec/json/JsonObjectDecoder.java">Netty JsonObjectDecoder</a>
  *
  * @author Sebastien Deleuze
@@ -55,6 +63,8 @@ public class JsonObjectDecoder extends AbstractDecoder<DataBuffer> {
 
 	private static final int ST_DECODING_ARRAY_STREAM = 2;
 
+	private static final byte[] STRING_DELIMITERS = {'"', '\\'};
+
 	private final int maxObjectLength;
 
 	private final boolean streamArrayElements;
@@ -80,6 +90,7 @@ public class JsonObjectDecoder extends AbstractDecoder<DataBuffer> {
 	 * @param streamArrayElements if set to true and the "top level" JSON object
 	 * is an array, each of its entries is passed through the pipeline individually
 	 * and immediately after it was fully received, allowing for arrays with
+	 * "infinitely" many elements
 	 */
 	public JsonObjectDecoder(int maxObjectLength,
 			boolean streamArrayElements) {
@@ -96,169 +107,244 @@ public class JsonObjectDecoder extends AbstractDecoder<DataBuffer> {
 	public Flux<DataBuffer> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			MimeType mimeType, Object... hints) {
 
-		return Flux.from(inputStream)
-				.flatMap(new Function<DataBuffer, Publisher<? extends DataBuffer>>() {
-
-			int openBraces;
-			int index;
-			int state;
-			boolean insideString;
-			ByteBuf input;
-			Integer writerIndex;
-
-			@Override
-			public Publisher<? extends DataBuffer> apply(DataBuffer b) {
-				List<DataBuffer> chunks = new ArrayList<>();
-				if (this.input == null) {
-					this.input = Unpooled.copiedBuffer(b.asByteBuffer());
-					DataBufferUtils.release(b);
-					this.writerIndex = this.input.writerIndex();
-				}
-				else {
-					this.input = Unpooled.copiedBuffer(this.input,
-							Unpooled.copiedBuffer(b.asByteBuffer()));
-					DataBufferUtils.release(b);
-					this.writerIndex = this.input.writerIndex();
-				}
-				if (this.state == ST_CORRUPTED) {
-					this.input.skipBytes(this.input.readableBytes());
-					return Flux.error(new IllegalStateException("Corrupted stream"));
-				}
-				if (this.writerIndex > maxObjectLength) {
-					// buffer size exceeded maxObjectLength; discarding the complete buffer.
-					this.input.skipBytes(this.input.readableBytes());
-					reset();
-					return Flux.error(new IllegalStateException("object length exceeds " +
-							maxObjectLength + ": " + this.writerIndex + " bytes discarded"));
-				}
-				DataBufferFactory dataBufferFactory = b.factory();
-				for (/* use current index */; this.index < this.writerIndex; this.index++) {
-					byte c = this.input.getByte(this.index);
-					if (this.state == ST_DECODING_NORMAL) {
-						decodeByte(c, this.input, this.index);
-
-						// All opening braces/brackets have been closed. That's enough to conclude
-						// that the JSON object/array is complete.
-						if (this.openBraces == 0) {
-							ByteBuf json = extractObject(this.input, this.input.readerIndex(),
-									this.index + 1 - this.input.readerIndex());
-							if (json != null) {
-								chunks.add(dataBufferFactory.wrap(json.nioBuffer()));
-							}
-
-							// The JSON object/array was extracted => discard the bytes from
-							// the input buffer.
-							this.input.readerIndex(this.index + 1);
-							// Reset the object state to get ready for the next JSON object/text
-							// coming along the byte stream.
-							reset();
-						}
-					}
-					else if (this.state == ST_DECODING_ARRAY_STREAM) {
-						decodeByte(c, this.input, this.index);
+		return Flux.defer(() -> {
+			JsonObjectTokenizer tokenizer = new JsonObjectTokenizer();
+			return Flux.from(inputStream)
+					.flatMap(tokenizer)
+					.doOnTerminate(tokenizer::releasePending)
+					.doOnCancel(tokenizer::releasePending);
+		});
+	}
 
-						if (!this.insideString && (this.openBraces == 1 && c == ',' ||
-								this.openBraces == 0 && c == ']')) {
-							// skip leading spaces. No range check is needed and the loop will terminate
-							// because the byte at position index is not a whitespace.
-							for (int i = this.input.readerIndex(); Character.isWhitespace(this.input.getByte(i)); i++) {
-								this.input.skipBytes(1);
-							}
 
-							// skip trailing spaces.
-							int idxNoSpaces = this.index - 1;
-							while (idxNoSpaces >= this.input.readerIndex() &&
-									Character.isWhitespace(this.input.getByte(idxNoSpaces))) {
+	/**
+	 * Per-subscription tokenizer. Keeps the scan state between buffers, so that every
+	 * byte of the stream is inspected only once. Positions are offsets in the stream.
+	 */
+	private class JsonObjectTokenizer implements Function<DataBuffer, Publisher<DataBuffer>> {
 
-								idxNoSpaces--;
-							}
+		private final Deque<Chunk> pending = new ArrayDeque<>();
 
-							ByteBuf json = extractObject(this.input, this.input.readerIndex(),
-									idxNoSpaces + 1 - this.input.readerIndex());
+		private int state = ST_INIT;
 
-							if (json != null) {
-								chunks.add(dataBufferFactory.wrap(json.nioBuffer()));
-							}
+		private int openBraces;
 
-							this.input.readerIndex(this.index + 1);
+		private boolean insideString;
 
-							if (c == ']') {
-								reset();
-							}
-						}
-						// JSON object/array detected. Accumulate bytes until all braces/brackets are closed.
+		private boolean escaped;
+
+		/** Offset of the next byte to be scanned. */
+		private long position;
+
+		/** Offset of the first byte of the current object, or -1 if there is none. */
+		private long objectStart = -1;
+
+		/** Offset of the last non-whitespace byte of the current array element. */
+		private long objectEnd = -1;
+
+		@Override
+		public Publisher<DataBuffer> apply(DataBuffer buffer) {
+			if (this.state == ST_CORRUPTED) {
+				DataBufferUtils.release(buffer);
+				return Flux.error(new IllegalStateException("Corrupted stream"));
+			}
+			int length = buffer.readableByteCount();
+			if (length == 0) {
+				DataBufferUtils.release(buffer);
+				return Flux.empty();
+			}
+			// a composite view gives us indexes relative to the first readable byte
+			Chunk chunk = new Chunk(new CompositeDataBuffer(buffer.factory(),
+					Collections.singletonList(buffer)), this.position, length);
+			this.pending.add(chunk);
+
+			List<DataBuffer> objects = new ArrayList<>();
+			ByteBuffer byteBuffer = chunk.buffer.asByteBuffer();
+			for (int i = byteBuffer.position(); i < byteBuffer.limit(); i++, this.position++) {
+				if (this.insideString && !this.escaped) {
+					// only quotes and backslashes matter inside a string, so skip to the
+					// next one, or to the last byte of the chunk if there is none
+					int next = chunk.buffer.indexOfAny(STRING_DELIMITERS, i);
+					int skipTo = (next != -1 ? next : byteBuffer.limit() - 1);
+					this.position += skipTo - i;
+					i = skipTo;
+				}
+				byte c = byteBuffer.get(i);
+				if (this.state == ST_DECODING_NORMAL) {
+					decodeByte(c);
+
+					// All opening braces/brackets have been closed. That's enough to conclude
+					// that the JSON object/array is complete.
+					if (this.openBraces == 0) {
+						objects.add(extractObject(this.objectStart, this.position + 1));
+						// Reset the object state to get ready for the next JSON object/text
+						// coming along the byte stream.
+						reset();
 					}
-					else if (c == '{' || c == '[') {
-						initDecoding(c, streamArrayElements);
+				}
+				else if (this.state == ST_DECODING_ARRAY_STREAM) {
+					decodeByte(c);
 
-						if (this.state == ST_DECODING_ARRAY_STREAM) {
-							// Discard the array bracket
-							this.input.skipBytes(1);
+					if (!this.insideString && (this.openBraces == 1 && c == ',' ||
+							this.openBraces == 0 && c == ']')) {
+						if (this.objectStart != -1) {
+							objects.add(extractObject(this.objectStart, this.objectEnd + 1));
+						}
+						this.objectStart = -1;
+						if (c == ']') {
+							reset();
 						}
-						// Discard leading spaces in front of a JSON object/array.
-					}
-					else if (Character.isWhitespace(c)) {
-						this.input.skipBytes(1);
 					}
-					else {
-						this.state = ST_CORRUPTED;
-						return Flux.error(new IllegalStateException(
-								"invalid JSON received at byte position " + this.index + ": " +
-										ByteBufUtil.hexDump(this.input)));
+					else if (!Character.isWhitespace(c)) {
+						// Element bytes, excluding leading and trailing spaces
+						if (this.objectStart == -1) {
+							this.objectStart = this.position;
+						}
+						this.objectEnd = this.position;
 					}
 				}
+				// JSON object/array detected. Accumulate bytes until all braces/brackets are closed.
+				else if (c == '{' || c == '[') {
+					initDecoding(c);
+				}
+				// Discard leading spaces in front of a JSON object/array.
+				else if (!Character.isWhitespace(c)) {
+					this.state = ST_CORRUPTED;
+					releasePending();
+					objects.forEach(DataBufferUtils::release);
+					return Flux.error(new IllegalStateException(
+							"invalid JSON received at byte position " + this.position));
+				}
 
-				if (this.input.readableBytes() == 0) {
-					this.index = 0;
+				if (this.objectStart != -1 &&
+						this.position - this.objectStart >= maxObjectLength) {
+					long discarded = this.position - this.objectStart + 1;
+					reset();
+					releasePending();
+					objects.forEach(DataBufferUtils::release);
+					return Flux.error(new IllegalStateException("object length exceeds " +
+							maxObjectLength + ": " + discarded + " bytes discarded"));
 				}
-				return Flux.fromIterable(chunks);
 			}
 
-			/**
-			 * Override this method if you want to filter the json objects/arrays that
-			 * get passed through the pipeline.
-			 */
-			@SuppressWarnings("UnusedParameters")
-			protected ByteBuf extractObject(ByteBuf buffer, int index, int length) {
-				return buffer.slice(index, length).retain();
-			}
+			discardConsumedChunks();
+			return Flux.fromIterable(objects);
+		}
 
-			private void decodeByte(byte c, ByteBuf input, int index) {
-				if ((c == '{' || c == '[') && !this.insideString) {
-					this.openBraces++;
+		private void decodeByte(byte c) {
+			if (this.insideString) {
+				// braces/brackets inside a string do not count; a double quote ends the
+				// string, unless it was escaped
+				if (this.escaped) {
+					this.escaped = false;
 				}
-				else if ((c == '}' || c == ']') && !this.insideString) {
-					this.openBraces--;
+				else if (c == '\\') {
+					this.escaped = true;
 				}
 				else if (c == '"') {
-					// start of a new JSON string. It's necessary to detect strings as they may
-					// also contain braces/brackets and that could lead to incorrect results.
-					if (!this.insideString) {
-						this.insideString = true;
-						// If the double quote wasn't escaped then this is the end of a string.
-					}
-					else if (input.getByte(index - 1) != '\\') {
-						this.insideString = false;
-					}
+					this.insideString = false;
 				}
 			}
+			else if (c == '{' || c == '[') {
+				this.openBraces++;
+			}
+			else if (c == '}' || c == ']') {
+				this.openBraces--;
+			}
+			else if (c == '"') {
+				// start of a new JSON string. It's necessary to detect strings as they may
+				// also contain braces/brackets and that could lead to incorrect results.
+				this.insideString = true;
+			}
+		}
+
+		private void initDecoding(byte openingBrace) {
+			this.openBraces = 1;
+			if (openingBrace == '[' && streamArrayElements) {
+				// Discard the array bracket
+				this.state = ST_DECODING_ARRAY_STREAM;
+			}
+			else {
+				this.state = ST_DECODING_NORMAL;
+				this.objectStart = this.position;
+			}
+		}
 
-			private void initDecoding(byte openingBrace, boolean streamArrayElements) {
-				this.openBraces = 1;
-				if (openingBrace == '[' && streamArrayElements) {
-					this.state = ST_DECODING_ARRAY_STREAM;
+		private void reset() {
+			this.insideString = false;
+			this.escaped = false;
+			this.state = ST_INIT;
+			this.openBraces = 0;
+			this.objectStart = -1;
+			this.objectEnd = -1;
+		}
+
+		/**
+		 * Return the bytes between the given stream offsets as a slice of the pending
+		 * chunks, retaining the chunks for the returned buffer.
+		 */
+		private DataBuffer extractObject(long start, long end) {
+			List<DataBuffer> slices = new ArrayList<>();
+			for (Chunk chunk : this.pending) {
+				if (chunk.end() <= start) {
+					continue;
 				}
-				else {
-					this.state = ST_DECODING_NORMAL;
+				if (chunk.offset >= end) {
+					break;
+				}
+				int sliceStart = (int) (Math.max(start, chunk.offset) - chunk.offset);
+				int sliceEnd = (int) (Math.min(end, chunk.end()) - chunk.offset);
+				slices.add(chunk.buffer.slice(sliceStart, sliceEnd - sliceStart).retain());
+			}
+			if (slices.size() == 1) {
+				return slices.get(0);
+			}
+			return new CompositeDataBuffer(slices.get(0).factory(), slices);
+		}
+
+		/**
+		 * Release the chunks that precede the current object, or all chunks if there is
+		 * no current object.
+		 */
+		private void discardConsumedChunks() {
+			long retainFrom = (this.objectStart != -1 ? this.objectStart : this.position);
+			Iterator<Chunk> iterator = this.pending.iterator();
+			while (iterator.hasNext()) {
+				Chunk chunk = iterator.next();
+				if (chunk.end() > retainFrom) {
+					break;
 				}
+				chunk.buffer.release();
+				iterator.remove();
 			}
+		}
 
-			private void reset() {
-				this.insideString = false;
-				this.state = ST_INIT;
-				this.openBraces = 0;
+		public void releasePending() {
+			for (Chunk chunk : this.pending) {
+				chunk.buffer.release();
 			}
-		});
+			this.pending.clear();
+		}
+	}
+
+
+	private static class Chunk {
+
+		private final CompositeDataBuffer buffer;
+
+		private final long offset;
+
+		private final int length;
+
+		public Chunk(CompositeDataBuffer buffer, long offset, int length) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public long end() {
+			return this.offset + this.length;
+		}
 	}
 
 }
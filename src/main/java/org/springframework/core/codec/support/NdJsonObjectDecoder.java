@@ -0,0 +1,178 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.CompositeDataBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * Decode an arbitrary split byte stream of newline-delimited JSON to a byte stream
+ * where each chunk is a single line, i.e. a single JSON text. The newline characters
+ * are not part of the emitted chunks, and blank lines are skipped.
+ *
+ * <p>Unlike {@link JsonObjectDecoder}, this class does not need to count braces or
+ * track strings: an encoded JSON text cannot contain a raw newline, so lines are found
+ * with {@link DataBuffer#indexOf(byte, int)}. Emitted lines are slices of the incoming
+ * buffers; lines that span multiple buffers are emitted as a
+ * {@link CompositeDataBuffer} of slices.
+ *
+ * @see <a href="http://ndjson.org/">Newline Delimited JSON</a>
+ */
+public class NdJsonObjectDecoder extends AbstractDecoder<DataBuffer> {
+
+	/**
+	 * The default maximum number of bytes in a line, excluding the newline character.
+	 */
+	public static final int DEFAULT_MAX_LINE_LENGTH = 1024 * 1024;
+
+	private static final byte NEWLINE = '\n';
+
+	private final int maxLineLength;
+
+
+	public NdJsonObjectDecoder() {
+		this(DEFAULT_MAX_LINE_LENGTH);
+	}
+
+	/**
+	 * @param maxLineLength the maximum number of bytes in a line, excluding the newline
+	 * character. Longer lines result in an {@link IllegalStateException}.
+	 */
+	public NdJsonObjectDecoder(int maxLineLength) {
+		super(new MimeType("application", "x-ndjson", StandardCharsets.UTF_8));
+		Assert.isTrue(maxLineLength > 0, "'maxLineLength' must be larger than 0");
+		this.maxLineLength = maxLineLength;
+	}
+
+
+	@Override
+	public Flux<DataBuffer> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			MimeType mimeType, Object... hints) {
+
+		return Flux.defer(() -> {
+			LineTokenizer tokenizer = new LineTokenizer();
+			return Flux.from(inputStream)
+					.flatMap(tokenizer)
+					.concatWith(Flux.defer(tokenizer::remainder))
+					.doOnError(ex -> tokenizer.releasePending())
+					.doOnCancel(tokenizer::releasePending);
+		});
+	}
+
+
+	/**
+	 * Per-subscription tokenizer. Keeps the slices of the current, incomplete line
+	 * between buffers.
+	 */
+	private class LineTokenizer implements Function<DataBuffer, Publisher<DataBuffer>> {
+
+		private final List<DataBuffer> pending = new ArrayList<>();
+
+		private int pendingLength;
+
+		@Override
+		public Publisher<DataBuffer> apply(DataBuffer buffer) {
+			List<DataBuffer> lines = new ArrayList<>();
+			try {
+				int start = buffer.readPosition();
+				int end = buffer.writePosition();
+				int index;
+				while (start < end && (index = buffer.indexOf(NEWLINE, start)) != -1) {
+					addPending(buffer, start, index);
+					DataBuffer line = takePending();
+					if (line != null) {
+						lines.add(line);
+					}
+					start = index + 1;
+				}
+				if (start < end) {
+					addPending(buffer, start, end);
+				}
+			}
+			catch (IllegalStateException ex) {
+				lines.forEach(DataBufferUtils::release);
+				return Flux.error(ex);
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+			return Flux.fromIterable(lines);
+		}
+
+		private void addPending(DataBuffer buffer, int start, int end) {
+			int length = end - start;
+			if (this.pendingLength + length > maxLineLength) {
+				int discarded = this.pendingLength + length;
+				releasePending();
+				throw new IllegalStateException("line length exceeds " + maxLineLength +
+						": " + discarded + " bytes discarded");
+			}
+			if (length > 0) {
+				this.pending.add(DataBufferUtils.retain(buffer.slice(start, length)));
+				this.pendingLength += length;
+			}
+		}
+
+		/**
+		 * Return the pending line, or {@code null} if it is blank.
+		 */
+		private DataBuffer takePending() {
+			DataBuffer line = null;
+			if (this.pending.size() == 1) {
+				line = this.pending.get(0);
+			}
+			else if (this.pending.size() > 1) {
+				line = new CompositeDataBuffer(this.pending.get(0).factory(), this.pending);
+			}
+			this.pending.clear();
+			this.pendingLength = 0;
+			if (line != null && line.indexOf(b -> !Character.isWhitespace(b),
+					line.readPosition()) == -1) {
+				DataBufferUtils.release(line);
+				line = null;
+			}
+			return line;
+		}
+
+		/**
+		 * Return the last line of the stream, if it is not terminated by a newline.
+		 */
+		public Publisher<DataBuffer> remainder() {
+			DataBuffer line = takePending();
+			return (line != null ? Flux.just(line) : Flux.empty());
+		}
+
+		public void releasePending() {
+			this.pending.forEach(DataBufferUtils::release);
+			this.pending.clear();
+			this.pendingLength = 0;
+		}
+	}
+
+}
@@ -18,6 +18,8 @@ package org.springframework.core.codec.support;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.StandardOpenOption;
 
 import reactor.core.publisher.Flux;
 
@@ -26,6 +28,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.core.io.support.ResourceUtils2;
 import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -33,6 +36,10 @@ import org.springframework.util.StreamUtils;
 
 /**
  * An encoder for {@link Resource}s.
+ *
+ * <p>Resources that have a file are read with an {@link AsynchronousFileChannel}, so
+ * that reading does not block the calling thread; other resources are read from
+ * their input stream.
  * @author Arjen Poutsma
  */
 public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
@@ -62,8 +69,13 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 	protected Flux<DataBuffer> encode(Resource resource,
 			DataBufferFactory dataBufferFactory,
 			ResolvableType type, MimeType mimeType, Object... hints) throws IOException {
+		if (ResourceUtils2.hasFile(resource)) {
+			AsynchronousFileChannel channel = AsynchronousFileChannel
+					.open(resource.getFile().toPath(), StandardOpenOption.READ);
+			return DataBufferUtils.read(channel, 0, dataBufferFactory, this.bufferSize);
+		}
 		InputStream is = resource.getInputStream();
-		return DataBufferUtils.read(is, dataBufferFactory, bufferSize);
+		return DataBufferUtils.read(is, dataBufferFactory, this.bufferSize);
 	}
 
 }
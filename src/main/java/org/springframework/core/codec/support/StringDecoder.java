@@ -16,12 +16,18 @@
 
 package org.springframework.core.codec.support;
 
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.IntPredicate;
+import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -29,6 +35,7 @@ import reactor.core.publisher.Flux;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
 
@@ -37,7 +44,8 @@ import org.springframework.util.MimeTypeUtils;
  *
  * <p>By default, this decoder will split the received {@link DataBuffer}s along newline
  * characters ({@code \r\n}), but this can be changed by passing {@code false} as
- * constructor argument.
+ * constructor argument. Lines that span multiple data buffers are joined, up to the
+ * {@linkplain #StringDecoder(boolean, int) maximum line length}.
  *
  * @author Sebastien Deleuze
  * @author Brian Clozel
@@ -49,10 +57,17 @@ public class StringDecoder extends AbstractDecoder<String> {
 
 	public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
-	private static final IntPredicate NEWLINE_DELIMITER = b -> b == '\n' || b == '\r';
+	/**
+	 * The default maximum number of bytes in a line, excluding the newline character.
+	 */
+	public static final int DEFAULT_MAX_LINE_LENGTH = 64 * 1024;
+
+	private static final byte[] NEWLINE_DELIMITERS = {'\n', '\r'};
 
 	private final boolean splitOnNewline;
 
+	private final int maxLineLength;
+
 	/**
 	 * Create a {@code StringDecoder} that decodes a bytes stream to a String stream
 	 *
@@ -69,8 +84,23 @@ public class StringDecoder extends AbstractDecoder<String> {
 	 * along newline characters
 	 */
 	public StringDecoder(boolean splitOnNewline) {
+		this(splitOnNewline, DEFAULT_MAX_LINE_LENGTH);
+	}
+
+	/**
+	 * Create a {@code StringDecoder} that decodes a bytes stream to a String stream
+	 *
+	 * @param splitOnNewline whether this decoder should split the received data buffers
+	 * along newline characters
+	 * @param maxLineLength the maximum number of bytes in a line, excluding the newline
+	 * character. Longer lines result in an {@link IllegalStateException}. Only used when
+	 * splitting along newline characters.
+	 */
+	public StringDecoder(boolean splitOnNewline, int maxLineLength) {
 		super(new MimeType("text", "*", DEFAULT_CHARSET), MimeTypeUtils.ALL);
+		Assert.isTrue(maxLineLength > 0, "'maxLineLength' must be larger than 0");
 		this.splitOnNewline = splitOnNewline;
+		this.maxLineLength = maxLineLength;
 	}
 
 	@Override
@@ -82,36 +112,26 @@ public class StringDecoder extends AbstractDecoder<String> {
 	@Override
 	public Flux<String> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			MimeType mimeType, Object... hints) {
-		Flux<DataBuffer> inputFlux = Flux.from(inputStream);
-		if (this.splitOnNewline) {
-			inputFlux = inputFlux.flatMap(StringDecoder::splitOnNewline);
-		}
 		Charset charset = getCharset(mimeType);
-		return inputFlux.map(dataBuffer -> {
-			CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
-			DataBufferUtils.release(dataBuffer);
-			return charBuffer.toString();
+		return Flux.defer(() -> {
+			StringFactory stringFactory = new StringFactory(charset);
+			if (this.splitOnNewline) {
+				LineSplitter lineSplitter = new LineSplitter(stringFactory);
+				return Flux.from(inputStream)
+						.flatMap(lineSplitter)
+						.concatWith(Flux.defer(lineSplitter::remainder));
+			}
+			return Flux.from(inputStream).map(dataBuffer -> {
+				try {
+					return stringFactory.createString(dataBuffer.asByteBuffer());
+				}
+				finally {
+					DataBufferUtils.release(dataBuffer);
+				}
+			});
 		});
 	}
 
-	private static Flux<DataBuffer> splitOnNewline(DataBuffer dataBuffer) {
-		List<DataBuffer> results = new ArrayList<DataBuffer>();
-		int startIdx = 0;
-		int endIdx = 0;
-		final int limit = dataBuffer.readableByteCount();
-		do {
-			endIdx = dataBuffer.indexOf(NEWLINE_DELIMITER, startIdx);
-			int length = endIdx != -1 ? endIdx - startIdx + 1 : limit - startIdx;
-			DataBuffer token = dataBuffer.slice(startIdx, length);
-			results.add(DataBufferUtils.retain(token));
-			startIdx = endIdx + 1;
-		}
-		while (startIdx < limit && endIdx != -1);
-		DataBufferUtils.release(dataBuffer);
-		return Flux.fromIterable(results);
-	}
-	
-
 	private Charset getCharset(MimeType mimeType) {
 		if (mimeType != null && mimeType.getCharset() != null) {
 			return mimeType.getCharset();
@@ -121,4 +141,188 @@ public class StringDecoder extends AbstractDecoder<String> {
 		}
 	}
 
+
+	/**
+	 * Per-subscription line splitter. Lines that are not terminated by the end of a data
+	 * buffer are copied, and completed with the next buffer(s).
+	 */
+	private class LineSplitter implements Function<DataBuffer, Publisher<String>> {
+
+		private final StringFactory stringFactory;
+
+		private byte[] partialLine = new byte[0];
+
+		private int partialLength;
+
+		private boolean receivedAny;
+
+		private boolean emittedAny;
+
+		public LineSplitter(StringFactory stringFactory) {
+			this.stringFactory = stringFactory;
+		}
+
+		@Override
+		public Publisher<String> apply(DataBuffer dataBuffer) {
+			try {
+				this.receivedAny = true;
+				List<String> lines = new ArrayList<>();
+				ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+				// the byte buffer starts at the read position of the data buffer
+				int offset = byteBuffer.position();
+				int readPosition = dataBuffer.readPosition();
+				int writePosition = dataBuffer.writePosition();
+				int start = readPosition;
+				while (start < writePosition) {
+					int index = dataBuffer.indexOfAny(NEWLINE_DELIMITERS, start);
+					int end = (index != -1 ? index + 1 : writePosition);
+					int lineLength = this.partialLength + end - start - (index != -1 ? 1 : 0);
+					if (lineLength > maxLineLength) {
+						this.partialLength = 0;
+						return Flux.error(new IllegalStateException(
+								"line length exceeds " + maxLineLength + " bytes"));
+					}
+					byteBuffer.limit(offset + end - readPosition);
+					byteBuffer.position(offset + start - readPosition);
+					if (index == -1) {
+						appendPartialLine(byteBuffer);
+					}
+					else if (this.partialLength == 0) {
+						lines.add(this.stringFactory.createString(byteBuffer));
+					}
+					else {
+						appendPartialLine(byteBuffer);
+						lines.add(this.stringFactory.createString(
+								ByteBuffer.wrap(this.partialLine, 0, this.partialLength)));
+						this.partialLength = 0;
+					}
+					start = end;
+				}
+				this.emittedAny |= !lines.isEmpty();
+				return Flux.fromIterable(lines);
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		private void appendPartialLine(ByteBuffer byteBuffer) {
+			int length = byteBuffer.remaining();
+			int required = this.partialLength + length;
+			if (required > this.partialLine.length) {
+				int capacity = Math.max(required, this.partialLine.length * 2);
+				this.partialLine = Arrays.copyOf(this.partialLine, capacity);
+			}
+			byteBuffer.duplicate().get(this.partialLine, this.partialLength, length);
+			this.partialLength = required;
+		}
+
+		/**
+		 * Returns the last line, if it was not terminated by a newline character. An empty
+		 * stream of bytes results in a single, empty string.
+		 */
+		public Flux<String> remainder() {
+			if (this.partialLength > 0 || (this.receivedAny && !this.emittedAny)) {
+				String line = this.stringFactory.createString(
+						ByteBuffer.wrap(this.partialLine, 0, this.partialLength));
+				this.partialLength = 0;
+				return Flux.just(line);
+			}
+			return Flux.empty();
+		}
+	}
+
+
+	/**
+	 * Creates strings from bytes, reusing a {@link CharsetDecoder} and its output buffer
+	 * for every string created. Strings that consist of ASCII characters only, in an
+	 * ASCII-compatible charset, are created without the decoder. Not thread-safe.
+	 */
+	private static class StringFactory {
+
+		private final Charset charset;
+
+		private final boolean asciiCompatible;
+
+		private final CharsetDecoder decoder;
+
+		private CharBuffer charBuffer = CharBuffer.allocate(0);
+
+		private byte[] bytes = new byte[0];
+
+		public StringFactory(Charset charset) {
+			this.charset = charset;
+			this.asciiCompatible = StandardCharsets.UTF_8.equals(charset) ||
+					StandardCharsets.US_ASCII.equals(charset) ||
+					StandardCharsets.ISO_8859_1.equals(charset);
+			this.decoder = charset.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+
+		/**
+		 * Creates a string from the remaining bytes of the given buffer, without
+		 * changing its position.
+		 */
+		public String createString(ByteBuffer byteBuffer) {
+			int length = byteBuffer.remaining();
+			if (this.asciiCompatible) {
+				byte[] array;
+				int offset;
+				if (byteBuffer.hasArray()) {
+					array = byteBuffer.array();
+					offset = byteBuffer.arrayOffset() + byteBuffer.position();
+				}
+				else {
+					if (this.bytes.length < length) {
+						this.bytes = new byte[length];
+					}
+					byteBuffer.duplicate().get(this.bytes, 0, length);
+					array = this.bytes;
+					offset = 0;
+				}
+				if (StandardCharsets.ISO_8859_1.equals(this.charset) ||
+						isAscii(array, offset, length)) {
+					// every byte maps to the char with the same value
+					return new String(array, offset, length, StandardCharsets.ISO_8859_1);
+				}
+			}
+			return decode(byteBuffer.duplicate(), length);
+		}
+
+		private String decode(ByteBuffer byteBuffer, int length) {
+			int capacity = (int) (length * (double) this.decoder.maxCharsPerByte());
+			if (this.charBuffer.capacity() < capacity) {
+				this.charBuffer = CharBuffer.allocate(capacity);
+			}
+			this.charBuffer.clear();
+			this.decoder.reset();
+			try {
+				CoderResult result = this.decoder.decode(byteBuffer, this.charBuffer, true);
+				if (!result.isUnderflow()) {
+					result.throwException();
+				}
+				result = this.decoder.flush(this.charBuffer);
+				if (!result.isUnderflow()) {
+					result.throwException();
+				}
+			}
+			catch (CharacterCodingException ex) {
+				// cannot happen, as errors are replaced and the output buffer is large enough
+				throw new IllegalStateException(ex);
+			}
+			this.charBuffer.flip();
+			return this.charBuffer.toString();
+		}
+
+		private static boolean isAscii(byte[] array, int offset, int length) {
+			for (int i = offset; i < offset + length; i++) {
+				if (array[i] < 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 }
@@ -16,11 +16,19 @@
 
 package org.springframework.core.codec.support;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
@@ -30,6 +38,13 @@ import org.springframework.util.MimeType;
 /**
  * Encode from a String stream to a bytes stream.
  *
+ * <p>Strings are encoded straight into the {@linkplain DataBuffer#asWritableByteBuffer
+ * writable space} of the target buffer. For US-ASCII, ISO-8859-1, and UTF-8 the exact
+ * encoded size is computed up front, and no {@code CharsetEncoder} is used; other
+ * charsets are encoded with a {@code CharsetEncoder} that is reused for all elements
+ * of a stream. If {@linkplain #setCombineElements combining} is enabled, the elements
+ * of a {@code Flux} that are available at once are combined into a single buffer.
+ *
  * @author Sebastien Deleuze
  * @see StringDecoder
  */
@@ -37,11 +52,26 @@ public class StringEncoder extends AbstractEncoder<String> {
 
 	public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
+	private static final int MAX_BATCH_SIZE = 256;
+
+	private boolean combineElements;
+
 	public StringEncoder() {
 		super(new MimeType("text", "plain", DEFAULT_CHARSET));
 	}
 
 
+	/**
+	 * Set whether the elements of a stream that are available at once, such as those
+	 * of a synchronous source, are combined into a single data buffer. Elements are
+	 * never held back waiting for more to arrive.
+	 * <p>By default this is {@code false}, and each element is encoded into its own
+	 * buffer.
+	 */
+	public void setCombineElements(boolean combineElements) {
+		this.combineElements = combineElements;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, MimeType mimeType, Object... hints) {
 		Class<?> clazz = elementType.getRawClass();
@@ -59,12 +89,193 @@ public class StringEncoder extends AbstractEncoder<String> {
 		else {
 			 charset = DEFAULT_CHARSET;
 		}
-		return Flux.from(inputStream).map(s -> {
-			byte[] bytes = s.getBytes(charset);
-			DataBuffer dataBuffer = bufferFactory.allocateBuffer(bytes.length);
-			dataBuffer.write(bytes);
-			return dataBuffer;
+		boolean combineElements = this.combineElements;
+		return Flux.defer(() -> {
+			CharsetWriter writer = new CharsetWriter(bufferFactory, charset);
+			if (!combineElements || inputStream instanceof Mono) {
+				return Flux.from(inputStream).map(writer::write);
+			}
+			else {
+				return Flux.from(new AvailableElementsBatcher<>(inputStream, MAX_BATCH_SIZE))
+						.map(writer::write);
+			}
 		});
 	}
 
+
+	/**
+	 * Per-subscription writer of strings. Encodes into the writable space of a buffer
+	 * that is allocated with the exact encoded size if that can be computed up front,
+	 * or with the maximum encoded size otherwise.
+	 */
+	private static class CharsetWriter {
+
+		private final DataBufferFactory bufferFactory;
+
+		private final Charset charset;
+
+		private final boolean utf8;
+
+		private final int singleByteLimit;
+
+		private CharsetEncoder encoder;
+
+		public CharsetWriter(DataBufferFactory bufferFactory, Charset charset) {
+			this.bufferFactory = bufferFactory;
+			this.charset = charset;
+			this.utf8 = StandardCharsets.UTF_8.equals(charset);
+			if (StandardCharsets.US_ASCII.equals(charset)) {
+				this.singleByteLimit = 0x80;
+			}
+			else if (StandardCharsets.ISO_8859_1.equals(charset)) {
+				this.singleByteLimit = 0x100;
+			}
+			else {
+				this.singleByteLimit = 0;
+			}
+		}
+
+		public DataBuffer write(String s) {
+			return write(Collections.singletonList(s));
+		}
+
+		public DataBuffer write(List<? extends String> strings) {
+			int[] encodedLengths = new int[strings.size()];
+			int capacity = 0;
+			for (int i = 0; i < encodedLengths.length; i++) {
+				String s = strings.get(i);
+				encodedLengths[i] = encodedLength(s);
+				capacity += (encodedLengths[i] != -1 ? encodedLengths[i] : maxEncodedLength(s));
+			}
+			DataBuffer dataBuffer = this.bufferFactory.allocateBuffer(capacity);
+			ByteBuffer out = dataBuffer.asWritableByteBuffer(capacity);
+			for (int i = 0; i < encodedLengths.length; i++) {
+				String s = strings.get(i);
+				if (encodedLengths[i] == -1) {
+					encodeWithEncoder(s, out);
+				}
+				else if (this.utf8) {
+					encodeUtf8(s, out);
+				}
+				else {
+					encodeSingleByte(s, out);
+				}
+			}
+			dataBuffer.commitWritableByteBuffer(out);
+			return dataBuffer;
+		}
+
+		/**
+		 * Returns the number of bytes the given string encodes to, or -1 if that cannot
+		 * be computed without a {@code CharsetEncoder}.
+		 */
+		private int encodedLength(String s) {
+			if (this.utf8) {
+				return utf8Length(s);
+			}
+			else if (this.singleByteLimit > 0) {
+				int length = s.length();
+				for (int i = 0; i < length; i++) {
+					if (s.charAt(i) >= this.singleByteLimit) {
+						return -1;
+					}
+				}
+				return length;
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns the UTF-8 encoded length, or -1 if the string contains unpaired
+		 * surrogates.
+		 */
+		private static int utf8Length(String s) {
+			int length = s.length();
+			int result = length;
+			for (int i = 0; i < length; i++) {
+				char c = s.charAt(i);
+				if (c < 0x80) {
+					continue;
+				}
+				else if (c < 0x800) {
+					result += 1;
+				}
+				else if (Character.isSurrogate(c)) {
+					if (!Character.isHighSurrogate(c) || i + 1 == length ||
+							!Character.isLowSurrogate(s.charAt(i + 1))) {
+						return -1;
+					}
+					// four bytes for the two chars of the pair
+					result += 2;
+					i++;
+				}
+				else {
+					result += 2;
+				}
+			}
+			return result;
+		}
+
+		private int maxEncodedLength(String s) {
+			return (int) Math.ceil(s.length() * (double) getEncoder().maxBytesPerChar());
+		}
+
+		private static void encodeUtf8(String s, ByteBuffer out) {
+			int length = s.length();
+			for (int i = 0; i < length; i++) {
+				char c = s.charAt(i);
+				if (c < 0x80) {
+					out.put((byte) c);
+				}
+				else if (c < 0x800) {
+					out.put((byte) (0xC0 | (c >> 6)));
+					out.put((byte) (0x80 | (c & 0x3F)));
+				}
+				else if (Character.isHighSurrogate(c)) {
+					int codePoint = Character.toCodePoint(c, s.charAt(++i));
+					out.put((byte) (0xF0 | (codePoint >> 18)));
+					out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+					out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+					out.put((byte) (0x80 | (codePoint & 0x3F)));
+				}
+				else {
+					out.put((byte) (0xE0 | (c >> 12)));
+					out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+					out.put((byte) (0x80 | (c & 0x3F)));
+				}
+			}
+		}
+
+		private static void encodeSingleByte(String s, ByteBuffer out) {
+			int length = s.length();
+			for (int i = 0; i < length; i++) {
+				out.put((byte) s.charAt(i));
+			}
+		}
+
+		private void encodeWithEncoder(String s, ByteBuffer out) {
+			CharsetEncoder encoder = getEncoder();
+			encoder.reset();
+			CoderResult result = encoder.encode(CharBuffer.wrap(s), out, true);
+			if (!result.isOverflow()) {
+				result = encoder.flush(out);
+			}
+			if (result.isOverflow()) {
+				// cannot happen, as the buffer holds maxBytesPerChar for every char
+				throw new IllegalStateException("Encoded size of '" + s +
+						"' exceeds the maximum for " + this.charset);
+			}
+		}
+
+		private CharsetEncoder getEncoder() {
+			if (this.encoder == null) {
+				// same replacement behavior as String.getBytes(Charset)
+				this.encoder = this.charset.newEncoder()
+						.onMalformedInput(CodingErrorAction.REPLACE)
+						.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			}
+			return this.encoder;
+		}
+	}
+
 }
@@ -16,9 +16,13 @@
 
 package org.springframework.core.codec.support;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.function.Function;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
@@ -31,12 +35,17 @@ import com.fasterxml.aalto.AsyncXMLInputFactory;
 import com.fasterxml.aalto.AsyncXMLStreamReader;
 import com.fasterxml.aalto.evt.EventAllocatorImpl;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.core.subscriber.SignalEmitter;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -66,6 +75,12 @@ import org.springframework.util.MimeTypeUtils;
  * Note that this decoder is not registered by default, but used internally by other
  * decoders who are.
  *
+ * <p>If <a href="https://github.com/FasterXML/aalto-xml">Aalto</a> is on the
+ * classpath, events are parsed as buffers arrive, without blocking. Otherwise, a
+ * blocking StAX reader parses the document on a worker thread, reading from a small
+ * queue of incoming buffers. The size of such documents is limited by
+ * {@link #setMaxDocumentSize(int)}.
+ *
  * @author Arjen Poutsma
  */
 public class XmlEventDecoder extends AbstractDecoder<XMLEvent> {
@@ -76,12 +91,39 @@ public class XmlEventDecoder extends AbstractDecoder<XMLEvent> {
 
 	private static final XMLInputFactory inputFactory = XMLInputFactory.newFactory();
 
+	/**
+	 * The default maximum document size: 10 MB.
+	 */
+	public static final int DEFAULT_MAX_DOCUMENT_SIZE = 10 * 1024 * 1024;
+
+	private int maxDocumentSize = DEFAULT_MAX_DOCUMENT_SIZE;
+
 	boolean useAalto = true;
 
 	public XmlEventDecoder() {
 		super(MimeTypeUtils.APPLICATION_XML, MimeTypeUtils.TEXT_XML);
 	}
 
+	/**
+	 * Set the maximum number of bytes of a single XML document. Documents exceeding
+	 * this size result in an {@link IllegalStateException}.
+	 * <p>Only applies when Aalto is not on the classpath, in which case the document
+	 * is parsed with a blocking StAX reader on a worker thread, which is fed the
+	 * incoming buffers as they arrive.
+	 * <p>By default this is set to {@link #DEFAULT_MAX_DOCUMENT_SIZE}.
+	 */
+	public void setMaxDocumentSize(int maxDocumentSize) {
+		Assert.isTrue(maxDocumentSize > 0, "'maxDocumentSize' must be larger than 0");
+		this.maxDocumentSize = maxDocumentSize;
+	}
+
+	/**
+	 * Return the maximum number of bytes of a single XML document.
+	 */
+	public int getMaxDocumentSize() {
+		return this.maxDocumentSize;
+	}
+
 	@Override
 	public Flux<XMLEvent> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			MimeType mimeType, Object... hints) {
@@ -90,23 +132,14 @@ public class XmlEventDecoder extends AbstractDecoder<XMLEvent> {
 			return flux.flatMap(new AaltoDataBufferToXmlEvent());
 		}
 		else {
-			Mono<DataBuffer> singleBuffer = flux.reduce(DataBuffer::write);
-			return singleBuffer.
-					flatMap(dataBuffer -> {
-						try {
-							InputStream is = dataBuffer.asInputStream();
-							XMLEventReader eventReader =
-									inputFactory.createXMLEventReader(is);
-							return Flux
-									.fromIterable((Iterable<XMLEvent>) () -> eventReader);
-						}
-						catch (XMLStreamException ex) {
-							return Mono.error(ex);
-						}
-						finally {
-							DataBufferUtils.release(dataBuffer);
-						}
-					});
+			return Flux.<XMLEvent, StaxEventSource>generate(
+					() -> new StaxEventSource(flux, this.maxDocumentSize),
+					(source, emitter) -> {
+						source.next(emitter);
+						return source;
+					},
+					StaxEventSource::close)
+					.subscribeOn(Schedulers.elastic());
 		}
 	}
 
@@ -153,4 +186,188 @@ public class XmlEventDecoder extends AbstractDecoder<XMLEvent> {
 			}
 		}
 	}
+
+
+	/**
+	 * Parses the events of a document with a blocking {@link XMLEventReader}, one
+	 * event per request. The reader reads from a {@link DataBufferPipe}.
+	 */
+	private static class StaxEventSource {
+
+		private final DataBufferPipe pipe;
+
+		private XMLEventReader eventReader;
+
+		public StaxEventSource(Publisher<DataBuffer> inputStream, int maxDocumentSize) {
+			this.pipe = new DataBufferPipe(maxDocumentSize);
+			inputStream.subscribe(this.pipe);
+		}
+
+		public void next(SignalEmitter<XMLEvent> emitter) {
+			try {
+				if (this.eventReader == null) {
+					this.eventReader = inputFactory.createXMLEventReader(this.pipe);
+				}
+				if (this.eventReader.hasNext()) {
+					emitter.next(this.eventReader.nextEvent());
+				}
+				else {
+					emitter.complete();
+				}
+			}
+			catch (XMLStreamException | RuntimeException ex) {
+				Throwable error = this.pipe.getError();
+				emitter.fail(error != null ? error : ex);
+			}
+		}
+
+		public void close() {
+			this.pipe.close();
+		}
+	}
+
+
+	/**
+	 * Blocking {@code InputStream} that reads from a {@code DataBuffer} publisher.
+	 * At most {@link #PREFETCH} buffers are requested ahead of the reader, and each
+	 * buffer is released as soon as it has been read.
+	 */
+	private static class DataBufferPipe extends InputStream
+			implements Subscriber<DataBuffer> {
+
+		private static final int PREFETCH = 4;
+
+		private static final Object COMPLETE = new Object();
+
+		private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(PREFETCH + 1);
+
+		private final int maxDocumentSize;
+
+		private volatile Subscription subscription;
+
+		private volatile boolean closed;
+
+		private volatile Throwable error;
+
+		private long byteCount;
+
+		private DataBuffer current;
+
+		private boolean completed;
+
+		public DataBufferPipe(int maxDocumentSize) {
+			this.maxDocumentSize = maxDocumentSize;
+		}
+
+		public Throwable getError() {
+			return this.error;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(PREFETCH);
+		}
+
+		@Override
+		public void onNext(DataBuffer dataBuffer) {
+			this.byteCount += dataBuffer.readableByteCount();
+			if (this.byteCount > this.maxDocumentSize) {
+				DataBufferUtils.release(dataBuffer);
+				this.subscription.cancel();
+				onError(new IllegalStateException(
+						"Exceeded maximum document size of " + this.maxDocumentSize));
+				return;
+			}
+			this.queue.offer(dataBuffer);
+			if (this.closed) {
+				releaseQueued();
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			this.error = t;
+			this.queue.offer(t);
+		}
+
+		@Override
+		public void onComplete() {
+			this.queue.offer(COMPLETE);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!ensureReadable()) {
+				return -1;
+			}
+			return this.current.read() & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!ensureReadable()) {
+				return -1;
+			}
+			len = Math.min(len, this.current.readableByteCount());
+			this.current.read(b, off, len);
+			return len;
+		}
+
+		private boolean ensureReadable() throws IOException {
+			while (this.current == null || this.current.readableByteCount() == 0) {
+				if (this.completed) {
+					return false;
+				}
+				DataBufferUtils.release(this.current);
+				this.current = null;
+				Object signal;
+				try {
+					signal = this.queue.take();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+				if (signal == COMPLETE) {
+					this.completed = true;
+				}
+				else if (signal instanceof Throwable) {
+					this.completed = true;
+					throw new IOException((Throwable) signal);
+				}
+				else {
+					this.current = (DataBuffer) signal;
+					this.subscription.request(1);
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(this.current);
+				this.current = null;
+				if (this.subscription != null) {
+					this.subscription.cancel();
+				}
+				releaseQueued();
+			}
+		}
+
+		private void releaseQueued() {
+			Object signal;
+			while ((signal = this.queue.poll()) != null) {
+				if (signal instanceof DataBuffer) {
+					DataBufferUtils.release((DataBuffer) signal);
+				}
+			}
+		}
+	}
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte search routines for {@link ByteBuffer}s, used by the {@link DataBuffer}
+ * implementations in this package.
+ *
+ * <p>Searches read a word of eight bytes at a time, and use SWAR ("SIMD within a
+ * register") arithmetic to detect whether any byte in that word matches, falling back
+ * to single bytes for the remainder.
+ */
+abstract class ByteSearchUtils {
+
+	/**
+	 * The maximum number of values for which {@link #indexOfAny} uses word-at-a-time
+	 * search. For more values, a lookup table is cheaper.
+	 */
+	private static final int MAX_SWAR_VALUES = 4;
+
+	private static final long ONES = 0x0101010101010101L;
+
+	private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+
+	/**
+	 * Returns the index of the first occurrence of the given value in the given buffer.
+	 * @param buffer the buffer to search, using absolute indexes
+	 * @param value the value to search for
+	 * @param fromIndex the index to start the search from (inclusive)
+	 * @param toIndex the index to end the search at (exclusive)
+	 * @return the index of the first occurrence; or {@code -1} if not found
+	 */
+	public static int indexOf(ByteBuffer buffer, byte value, int fromIndex, int toIndex) {
+		int i = fromIndex;
+		int wordLimit = toIndex - Long.BYTES;
+		if (i <= wordLimit) {
+			long pattern = ONES * (value & 0xFF);
+			boolean bigEndian = (buffer.order() == ByteOrder.BIG_ENDIAN);
+			for (; i <= wordLimit; i += Long.BYTES) {
+				long matches = zeroBytes(buffer.getLong(i) ^ pattern);
+				if (matches != 0) {
+					return i + firstByte(matches, bigEndian);
+				}
+			}
+		}
+		for (; i < toIndex; i++) {
+			if (buffer.get(i) == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of any of the given values in the given
+	 * buffer.
+	 * @param buffer the buffer to search, using absolute indexes
+	 * @param values the values to search for
+	 * @param fromIndex the index to start the search from (inclusive)
+	 * @param toIndex the index to end the search at (exclusive)
+	 * @return the index of the first occurrence; or {@code -1} if not found
+	 */
+	public static int indexOfAny(ByteBuffer buffer, byte[] values, int fromIndex,
+			int toIndex) {
+		if (values.length == 0) {
+			return -1;
+		}
+		else if (values.length == 1) {
+			return indexOf(buffer, values[0], fromIndex, toIndex);
+		}
+		else if (values.length > MAX_SWAR_VALUES) {
+			return indexOfAnyInTable(buffer, values, fromIndex, toIndex);
+		}
+		int i = fromIndex;
+		int wordLimit = toIndex - Long.BYTES;
+		if (i <= wordLimit) {
+			long[] patterns = new long[values.length];
+			for (int j = 0; j < values.length; j++) {
+				patterns[j] = ONES * (values[j] & 0xFF);
+			}
+			boolean bigEndian = (buffer.order() == ByteOrder.BIG_ENDIAN);
+			for (; i <= wordLimit; i += Long.BYTES) {
+				long word = buffer.getLong(i);
+				long matches = 0;
+				for (long pattern : patterns) {
+					matches |= zeroBytes(word ^ pattern);
+				}
+				if (matches != 0) {
+					return i + firstByte(matches, bigEndian);
+				}
+			}
+		}
+		for (; i < toIndex; i++) {
+			byte b = buffer.get(i);
+			for (byte value : values) {
+				if (b == value) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfAnyInTable(ByteBuffer buffer, byte[] values, int fromIndex,
+			int toIndex) {
+		boolean[] table = new boolean[256];
+		for (byte value : values) {
+			table[value & 0xFF] = true;
+		}
+		for (int i = fromIndex; i < toIndex; i++) {
+			if (table[buffer.get(i) & 0xFF]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns a word with the high bit set in every byte of {@code word} that is zero,
+	 * and all other bits cleared. Unlike the common {@code (x - 0x01..) & ~x & 0x80..}
+	 * formulation, this one is exact for every byte, as no carry crosses byte borders.
+	 */
+	private static long zeroBytes(long word) {
+		return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+	}
+
+	/**
+	 * Returns the offset of the first byte in memory order that has its high bit set in
+	 * the given (non-zero) word.
+	 */
+	private static int firstByte(long matches, boolean bigEndian) {
+		int bits = (bigEndian ? Long.numberOfLeadingZeros(matches) :
+				Long.numberOfTrailingZeros(matches));
+		return bits >>> 3;
+	}
+
+}
@@ -0,0 +1,697 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Implementation of the {@link DataBuffer} interface that is composed of other data
+ * buffers, without copying their contents. Typically used to aggregate a stream of
+ * buffers, see
+ * {@link org.springframework.core.io.buffer.support.DataBufferUtils#join(org.reactivestreams.Publisher)
+ * DataBufferUtils.join}.
+ *
+ * <p>Buffers passed to {@link #write(DataBuffer...)} are added as components by
+ * reference, and become owned by this buffer: they are released when this buffer is
+ * {@linkplain #release() released}, and should not be released separately. All other
+ * {@code write} methods copy the given data into buffers allocated from the
+ * {@linkplain #factory() factory}.
+ *
+ * <p>Indexes are relative to the start of the first component. Slices share both
+ * data and the reference count with the buffer they were created from.
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int DEFAULT_TAIL_CAPACITY = 256;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<Component> components;
+
+	private final ReferenceCount referenceCount;
+
+	private final boolean sliced;
+
+	private int readPosition;
+
+	private int writePosition;
+
+	private int lastComponentIndex;
+
+	private DataBuffer tail;
+
+	private int tailCapacity;
+
+
+	/**
+	 * Creates a new, empty {@code CompositeDataBuffer}.
+	 * @param dataBufferFactory the factory used to allocate buffers for written data
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory) {
+		this(dataBufferFactory, new ArrayList<>(), new ReferenceCount(), false);
+	}
+
+	/**
+	 * Creates a new {@code CompositeDataBuffer} that is composed of the given buffers.
+	 * The buffers become owned by the created composite.
+	 * @param dataBufferFactory the factory used to allocate buffers for written data
+	 * @param buffers the buffers to compose
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory,
+			List<? extends DataBuffer> buffers) {
+		this(dataBufferFactory);
+		Assert.notNull(buffers, "'buffers' must not be null");
+		buffers.forEach(this::addComponent);
+	}
+
+	private CompositeDataBuffer(DataBufferFactory dataBufferFactory,
+			List<Component> components, ReferenceCount referenceCount, boolean sliced) {
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = components;
+		this.referenceCount = referenceCount;
+		this.sliced = sliced;
+		if (!components.isEmpty()) {
+			Component last = components.get(components.size() - 1);
+			this.writePosition = last.offset + last.length();
+		}
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	/**
+	 * Returns the number of components in this buffer.
+	 * @return the component count
+	 */
+	public int componentCount() {
+		return this.components.size();
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			ByteBuffer buffer = component.buffer;
+			int start = Math.max(fromIndex - component.offset, 0);
+			for (int j = start; j < buffer.limit(); j++) {
+				if (predicate.test(buffer.get(j))) {
+					return component.offset + j;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		fromIndex = Math.min(fromIndex, this.writePosition - 1);
+		if (fromIndex < 0) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i >= 0; i--) {
+			Component component = this.components.get(i);
+			ByteBuffer buffer = component.buffer;
+			int start = Math.min(fromIndex - component.offset, buffer.limit() - 1);
+			for (int j = start; j >= 0; j--) {
+				if (predicate.test(buffer.get(j))) {
+					return component.offset + j;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int indexOf(byte value, int fromIndex) {
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			ByteBuffer buffer = component.buffer;
+			int start = Math.max(fromIndex - component.offset, 0);
+			int index = ByteSearchUtils.indexOf(buffer, value, start, buffer.limit());
+			if (index != -1) {
+				return component.offset + index;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int indexOfAny(byte[] values, int fromIndex) {
+		Assert.notNull(values, "'values' must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			ByteBuffer buffer = component.buffer;
+			int start = Math.max(fromIndex - component.offset, 0);
+			int index = ByteSearchUtils.indexOfAny(buffer, values, start, buffer.limit());
+			if (index != -1) {
+				return component.offset + index;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>For a composite buffer, this is the write position plus the space left in the
+	 * buffer that is currently written to.
+	 */
+	@Override
+	public int capacity() {
+		return this.writePosition + (this.tail != null ? tailRemaining() : 0);
+	}
+
+	@Override
+	public byte getByte(int index) {
+		if (index < 0 || index >= this.writePosition) {
+			throw new IndexOutOfBoundsException("index: " + index +
+					" (expected: range(0, " + this.writePosition + "))");
+		}
+		Component component = this.components.get(componentIndex(index));
+		return component.buffer.get(index - component.offset);
+	}
+
+	@Override
+	public byte read() {
+		if (this.readPosition >= this.writePosition) {
+			throw new IndexOutOfBoundsException("No readable bytes left in " + this);
+		}
+		Component component = this.components.get(componentIndex(this.readPosition));
+		byte b = component.buffer.get(this.readPosition - component.offset);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public int readInt() {
+		checkReadable(4);
+		Component component = this.components.get(componentIndex(this.readPosition));
+		int componentOffset = this.readPosition - component.offset;
+		if (component.length() - componentOffset >= 4) {
+			this.readPosition += 4;
+			return component.buffer.getInt(componentOffset);
+		}
+		// spans components
+		int i = 0;
+		for (int j = 0; j < 4; j++) {
+			i = (i << 8) | (read() & 0xFF);
+		}
+		return i;
+	}
+
+	@Override
+	public long readLong() {
+		checkReadable(8);
+		Component component = this.components.get(componentIndex(this.readPosition));
+		int componentOffset = this.readPosition - component.offset;
+		if (component.length() - componentOffset >= 8) {
+			this.readPosition += 8;
+			return component.buffer.getLong(componentOffset);
+		}
+		// spans components
+		long l = 0;
+		for (int j = 0; j < 8; j++) {
+			l = (l << 8) | (read() & 0xFF);
+		}
+		return l;
+	}
+
+	private void checkReadable(int length) {
+		if (readableByteCount() < length) {
+			throw new IndexOutOfBoundsException("Cannot read " + length +
+					" byte(s) from " + this + " (readable: " + readableByteCount() + ")");
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "'destination' must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "'destination' must not be null");
+		if (length > readableByteCount()) {
+			throw new IndexOutOfBoundsException("Cannot read " + length + " bytes from " +
+					this);
+		}
+		while (length > 0) {
+			Component component = this.components.get(componentIndex(this.readPosition));
+			int componentOffset = this.readPosition - component.offset;
+			int count = Math.min(length, component.length() - componentOffset);
+			ByteBuffer source = component.buffer.duplicate();
+			source.position(componentOffset);
+			source.get(destination, offset, count);
+			this.readPosition += count;
+			offset += count;
+			length -= count;
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		prepareTail(1).write(b);
+		tailWritten();
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer writeInt(int i) {
+		DataBuffer tail = prepareTail(4);
+		if (tailRemaining() >= 4) {
+			tail.writeInt(i);
+			tailWritten();
+		}
+		else {
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				write((byte) (i >>> shift));
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer writeLong(long l) {
+		DataBuffer tail = prepareTail(8);
+		if (tailRemaining() >= 8) {
+			tail.writeLong(l);
+			tailWritten();
+		}
+		else {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				write((byte) (l >>> shift));
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "'source' must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "'source' must not be null");
+		while (length > 0) {
+			DataBuffer tail = prepareTail(length);
+			int count = Math.min(length, tailRemaining());
+			tail.write(source, offset, count);
+			tailWritten();
+			offset += count;
+			length -= count;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the given buffers as components to this buffer, without copying their
+	 * contents. The given buffers become owned by this buffer, and are released when
+	 * this buffer is released.
+	 * @param buffers the buffers to add to this buffer
+	 * @return this buffer
+	 */
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			for (DataBuffer buffer : buffers) {
+				addComponent(buffer);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... buffers) {
+		Assert.notNull(buffers, "'buffers' must not be null");
+		for (ByteBuffer buffer : buffers) {
+			ByteBuffer source = buffer.duplicate();
+			while (source.hasRemaining()) {
+				DataBuffer tail = prepareTail(source.remaining());
+				int count = Math.min(source.remaining(), tailRemaining());
+				ByteBuffer chunk = source.duplicate();
+				chunk.limit(chunk.position() + count);
+				tail.write(chunk);
+				tailWritten();
+				source.position(source.position() + count);
+			}
+		}
+		return this;
+	}
+
+	private void addComponent(DataBuffer buffer) {
+		assertNotSliced();
+		Assert.notNull(buffer, "'buffer' must not be null");
+		this.referenceCount.buffers.add(buffer);
+		this.tail = null;
+		if (buffer instanceof CompositeDataBuffer) {
+			for (ByteBuffer byteBuffer : ((CompositeDataBuffer) buffer).asByteBuffers()) {
+				addComponent(byteBuffer.slice());
+			}
+		}
+		else {
+			addComponent(buffer.asByteBuffer().slice());
+		}
+	}
+
+	private void addComponent(ByteBuffer byteBuffer) {
+		if (byteBuffer.hasRemaining()) {
+			this.components.add(new Component(byteBuffer, this.writePosition));
+			this.writePosition += byteBuffer.remaining();
+		}
+	}
+
+	/**
+	 * Returns a tail buffer to write at least one, and at most {@code length} bytes into,
+	 * allocating a new one if necessary. Tails never grow beyond their initial capacity,
+	 * so that views on their contents remain valid.
+	 */
+	private DataBuffer prepareTail(int length) {
+		assertNotSliced();
+		if (this.tail == null || tailRemaining() == 0) {
+			this.tailCapacity = Math.max(length, DEFAULT_TAIL_CAPACITY);
+			this.tail = this.dataBufferFactory.allocateBuffer(this.tailCapacity);
+			this.referenceCount.buffers.add(this.tail);
+			this.components.add(new Component(ByteBuffer.allocate(0), this.writePosition));
+		}
+		return this.tail;
+	}
+
+	private int tailRemaining() {
+		return this.tailCapacity - this.tail.readableByteCount();
+	}
+
+	/**
+	 * Updates the last component to reflect the contents of the tail.
+	 */
+	private void tailWritten() {
+		int lastIndex = this.components.size() - 1;
+		Component last = this.components.get(lastIndex);
+		ByteBuffer contents = this.tail.asByteBuffer().slice();
+		this.components.set(lastIndex, new Component(contents, last.offset));
+		this.writePosition = last.offset + contents.remaining();
+	}
+
+	private void assertNotSliced() {
+		if (this.sliced) {
+			throw new UnsupportedOperationException(
+					"Writing to a sliced composite buffer is not supported");
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		if (index < 0 || length < 0 || index + length > this.writePosition) {
+			throw new IndexOutOfBoundsException("index: " + index + ", length: " +
+					length + " (expected: range(0, " + this.writePosition + "))");
+		}
+		List<Component> sliceComponents = new ArrayList<>();
+		if (length > 0) {
+			int end = index + length;
+			for (int i = componentIndex(index); i < this.components.size(); i++) {
+				Component component = this.components.get(i);
+				if (component.offset >= end) {
+					break;
+				}
+				ByteBuffer buffer = component.buffer.duplicate();
+				buffer.limit(Math.min(end - component.offset, component.length()));
+				buffer.position(Math.max(index - component.offset, 0));
+				sliceComponents.add(new Component(buffer.slice(),
+						component.offset + buffer.position() - index));
+			}
+		}
+		return new CompositeDataBuffer(this.dataBufferFactory, sliceComponents,
+				this.referenceCount, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>If the readable bytes of this buffer span more than one component, they are
+	 * copied into a new byte buffer. Use {@link #asByteBuffers()} to avoid this copy.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer() {
+		ByteBuffer[] byteBuffers = asByteBuffers();
+		if (byteBuffers.length == 1) {
+			return byteBuffers[0];
+		}
+		int length = readableByteCount();
+		boolean direct = (byteBuffers.length > 0 && byteBuffers[0].isDirect());
+		ByteBuffer result =
+				(direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length));
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			result.put(byteBuffer);
+		}
+		result.flip();
+		return result;
+	}
+
+	/**
+	 * Exposes the readable bytes of this buffer as an array of {@link ByteBuffer}s, one
+	 * per component, without copying. Suitable for gathering writes, such as
+	 * {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[])}. Data is shared
+	 * between this buffer and the returned byte buffers; though changes in their
+	 * positions will not be reflected in the reading position of this buffer.
+	 * @return the readable bytes of this buffer as byte buffers
+	 */
+	public ByteBuffer[] asByteBuffers() {
+		if (readableByteCount() == 0) {
+			return new ByteBuffer[0];
+		}
+		int first = componentIndex(this.readPosition);
+		ByteBuffer[] result = new ByteBuffer[this.components.size() - first];
+		for (int i = first; i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			ByteBuffer duplicate = component.buffer.duplicate();
+			duplicate.position(Math.max(this.readPosition - component.offset, 0));
+			result[i - first] = duplicate;
+		}
+		return result;
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream();
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		this.referenceCount.retain();
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		return this.referenceCount.release();
+	}
+
+	/**
+	 * Returns the index of the component that contains the given index.
+	 */
+	private int componentIndex(int index) {
+		if (this.lastComponentIndex < this.components.size()) {
+			Component last = this.components.get(this.lastComponentIndex);
+			if (index >= last.offset && index < last.offset + last.length()) {
+				return this.lastComponentIndex;
+			}
+		}
+		int low = 0;
+		int high = this.components.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Component component = this.components.get(mid);
+			if (index < component.offset) {
+				high = mid - 1;
+			}
+			else if (index >= component.offset + component.length()) {
+				low = mid + 1;
+			}
+			else {
+				this.lastComponentIndex = mid;
+				return mid;
+			}
+		}
+		throw new IndexOutOfBoundsException("index: " + index + " (expected: range(0, " +
+				this.writePosition + "))");
+	}
+
+	@Override
+	public String toString() {
+		return "CompositeDataBuffer (r: " + this.readPosition + ", w: " +
+				this.writePosition + ", components: " + this.components.size() + ")";
+	}
+
+
+	private static class Component {
+
+		private final ByteBuffer buffer;
+
+		private final int offset;
+
+		public Component(ByteBuffer buffer, int offset) {
+			this.buffer = buffer;
+			this.offset = offset;
+		}
+
+		public int length() {
+			return this.buffer.limit();
+		}
+	}
+
+
+	/**
+	 * Reference count and owned buffers, shared between a composite and its slices.
+	 */
+	private static class ReferenceCount {
+
+		private final List<DataBuffer> buffers = new ArrayList<>();
+
+		private final AtomicInteger count = new AtomicInteger(1);
+
+		public void retain() {
+			while (true) {
+				int current = this.count.get();
+				if (current <= 0) {
+					throw new IllegalStateException("Buffer has already been released");
+				}
+				if (this.count.compareAndSet(current, current + 1)) {
+					return;
+				}
+			}
+		}
+
+		public boolean release() {
+			while (true) {
+				int current = this.count.get();
+				if (current <= 0) {
+					throw new IllegalStateException("Buffer has already been released");
+				}
+				if (this.count.compareAndSet(current, current - 1)) {
+					if (current == 1) {
+						for (DataBuffer buffer : this.buffers) {
+							if (buffer instanceof PooledDataBuffer) {
+								((PooledDataBuffer) buffer).release();
+							}
+						}
+						this.buffers.clear();
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		@Override
+		public int available() throws IOException {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (readableByteCount() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int count = readableByteCount();
+			if (count > 0) {
+				int minLen = Math.min(len, count);
+				CompositeDataBuffer.this.read(bytes, off, minLen);
+				return minLen;
+			}
+			else {
+				return -1;
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
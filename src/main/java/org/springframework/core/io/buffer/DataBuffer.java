@@ -54,18 +54,83 @@ public interface DataBuffer {
 	 */
 	int lastIndexOf(IntPredicate predicate, int fromIndex);
 
+	/**
+	 * Returns the index of the first byte in this buffer that is equal to the given
+	 * value. Unlike {@link #indexOf(IntPredicate, int)}, implementations can search
+	 * multiple bytes at a time, making this the preferred way of finding delimiters.
+	 * @param value the value to search for
+	 * @param fromIndex the index to start the search from
+	 * @return the index of the first byte equal to {@code value}; or {@code -1} if none
+	 * is found
+	 */
+	int indexOf(byte value, int fromIndex);
+
+	/**
+	 * Returns the index of the first byte in this buffer that is equal to any of the
+	 * given values.
+	 * @param values the values to search for
+	 * @param fromIndex the index to start the search from
+	 * @return the index of the first byte equal to any of {@code values}; or {@code -1}
+	 * if none is found
+	 * @see #indexOf(byte, int)
+	 */
+	int indexOfAny(byte[] values, int fromIndex);
+
 	/**
 	 * Returns the number of bytes that can be read from this data buffer.
 	 * @return the readable byte count
 	 */
 	int readableByteCount();
 
+	/**
+	 * Returns the index from which this buffer will read.
+	 * @return the read position
+	 */
+	int readPosition();
+
+	/**
+	 * Returns the index at which this buffer will write.
+	 * @return the write position
+	 */
+	int writePosition();
+
+	/**
+	 * Returns the number of bytes that this buffer can contain without having to grow.
+	 * @return the capacity
+	 */
+	int capacity();
+
+	/**
+	 * Returns the byte at the given index, without changing the reading position.
+	 * @param index the index of the byte to return
+	 * @return the byte at {@code index}
+	 * @throws IndexOutOfBoundsException if {@code index} is negative, or not smaller
+	 * than the {@linkplain #writePosition() write position}
+	 */
+	byte getByte(int index);
+
 	/**
 	 * Reads a single byte from the current reading position of this data buffer.
 	 * @return the byte at this buffer's current reading position
 	 */
 	byte read();
 
+	/**
+	 * Reads a big-endian 32-bit integer from the current reading position of this
+	 * data buffer, and increases the reading position by 4.
+	 * @return the integer at this buffer's current reading position
+	 * @throws IndexOutOfBoundsException if less than 4 bytes are readable
+	 */
+	int readInt();
+
+	/**
+	 * Reads a big-endian 64-bit long from the current reading position of this data
+	 * buffer, and increases the reading position by 8.
+	 * @return the long at this buffer's current reading position
+	 * @throws IndexOutOfBoundsException if less than 8 bytes are readable
+	 */
+	long readLong();
+
 	/**
 	 * Reads this buffer's data into the specified destination, starting at the current
 	 * reading position of this buffer.
@@ -92,6 +157,21 @@ public interface DataBuffer {
 	 */
 	DataBuffer write(byte b);
 
+	/**
+	 * Write a big-endian 32-bit integer into this buffer at the current writing
+	 * position.
+	 * @param i the integer to be written
+	 * @return this buffer
+	 */
+	DataBuffer writeInt(int i);
+
+	/**
+	 * Write a big-endian 64-bit long into this buffer at the current writing position.
+	 * @param l the long to be written
+	 * @return this buffer
+	 */
+	DataBuffer writeLong(long l);
+
 	/**
 	 * Writes the given source into this buffer, startin at the current writing position
 	 * of this buffer.
@@ -112,7 +192,9 @@ public interface DataBuffer {
 
 	/**
 	 * Writes one or more {@code DataBuffer}s to this buffer, starting at the current
-	 * writing position.
+	 * writing position. Ownership of the given buffers is transferred to this buffer:
+	 * they are either composed into it, or copied and then
+	 * {@linkplain PooledDataBuffer#release() released}.
 	 * @param buffers the byte buffers to write into this buffer
 	 * @return this buffer
 	 */
@@ -126,6 +208,36 @@ public interface DataBuffer {
 	 */
 	DataBuffer write(ByteBuffer... buffers);
 
+	/**
+	 * Exposes {@code length} bytes of writable space of this buffer, starting at the
+	 * current writing position, as a {@link ByteBuffer} with position 0 and limit
+	 * {@code length}. This allows bytes to be put directly into this buffer, for instance
+	 * by reading from a channel or by encoding characters, without an intermediate copy.
+	 * <p>The bytes put into the returned buffer only become part of this buffer once it
+	 * is passed to {@link #commitWritableByteBuffer(ByteBuffer)}; no other write methods
+	 * should be called in the meantime.
+	 * <p>The default implementation returns a separate heap buffer, which is copied when
+	 * committed. Implementations override this method to expose their own memory.
+	 * @param length the number of bytes to expose; this buffer grows if needed
+	 * @return a byte buffer into which up to {@code length} bytes can be put
+	 */
+	default ByteBuffer asWritableByteBuffer(int length) {
+		return ByteBuffer.allocate(length);
+	}
+
+	/**
+	 * Writes the bytes that were put into a buffer obtained from
+	 * {@link #asWritableByteBuffer(int)}, i.e. all bytes up to its
+	 * {@linkplain ByteBuffer#position() position}, and increases the writing position
+	 * of this buffer accordingly.
+	 * @param byteBuffer the buffer returned by {@link #asWritableByteBuffer(int)}
+	 * @return this buffer
+	 */
+	default DataBuffer commitWritableByteBuffer(ByteBuffer byteBuffer) {
+		byteBuffer.flip();
+		return write(byteBuffer);
+	}
+
 	/**
 	 * Creates a new {@code DataBuffer} whose contents is a shared subsequence of this
 	 * data buffer's content.  Data between this data buffer and the returned buffer is
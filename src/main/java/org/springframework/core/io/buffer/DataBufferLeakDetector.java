@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * Detects {@link PooledDataBuffer}s that are garbage collected without having been
+ * released. Used by the {@link NettyDataBufferFactory} and the
+ * {@link PoolingDataBufferFactory}, when {@linkplain
+ * NettyDataBufferFactory#setLeakDetector(DataBufferLeakDetector) configured}.
+ *
+ * <p>Depending on the {@link Level}, either a sample of the allocated buffers, or all of
+ * them are tracked. For tracked buffers, the stack trace of the allocation and of the
+ * most recent {@code retain} and {@code release} calls are recorded, and logged as an
+ * error when the buffer turns out to have leaked. The number of tracked buffers that
+ * have not been released yet is available through {@link #getOutstandingCount()},
+ * which makes this class useful in tests as well.
+ */
+public class DataBufferLeakDetector {
+
+	/**
+	 * The default interval at which buffers are sampled in the {@link Level#SAMPLED}
+	 * level.
+	 */
+	public static final int DEFAULT_SAMPLING_INTERVAL = 128;
+
+	private static final int MAX_RECORDS = 8;
+
+	private static final Log logger = LogFactory.getLog(DataBufferLeakDetector.class);
+
+
+	/**
+	 * Enumeration of leak detection levels.
+	 */
+	public enum Level {
+
+		/**
+		 * No buffers are tracked.
+		 */
+		DISABLED,
+
+		/**
+		 * One in every sampling interval allocations is tracked.
+		 */
+		SAMPLED,
+
+		/**
+		 * All buffers are tracked. Useful in tests, but too expensive for production.
+		 */
+		PARANOID
+	}
+
+
+	private final Level level;
+
+	private final int samplingInterval;
+
+	private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+
+	private final Set<Tracker> trackers = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong allocationCount = new AtomicLong();
+
+	private final AtomicInteger leakCount = new AtomicInteger();
+
+
+	/**
+	 * Creates a new {@code DataBufferLeakDetector} with the given level, and the
+	 * {@linkplain #DEFAULT_SAMPLING_INTERVAL default sampling interval}.
+	 * @param level the detection level
+	 */
+	public DataBufferLeakDetector(Level level) {
+		this(level, DEFAULT_SAMPLING_INTERVAL);
+	}
+
+	/**
+	 * Creates a new {@code DataBufferLeakDetector} with the given level and sampling
+	 * interval.
+	 * @param level the detection level
+	 * @param samplingInterval the interval at which buffers are tracked, in the
+	 * {@link Level#SAMPLED} level
+	 */
+	public DataBufferLeakDetector(Level level, int samplingInterval) {
+		Assert.notNull(level, "'level' must not be null");
+		Assert.isTrue(samplingInterval > 0, "'samplingInterval' must be larger than 0");
+		this.level = level;
+		this.samplingInterval = samplingInterval;
+	}
+
+
+	/**
+	 * Returns the detection level.
+	 */
+	public Level getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Starts tracking the given resource, if it is sampled. The resource should be the
+	 * object that is reachable for as long as the buffer is in use, including any of its
+	 * slices.
+	 * @param resource the resource to track
+	 * @return the tracker; or {@code null} if the resource is not tracked
+	 */
+	Tracker track(Object resource) {
+		if (this.level == Level.DISABLED) {
+			return null;
+		}
+		if (this.level == Level.SAMPLED &&
+				this.allocationCount.getAndIncrement() % this.samplingInterval != 0) {
+			return null;
+		}
+		reportLeaks();
+		Tracker tracker = new Tracker(resource);
+		this.trackers.add(tracker);
+		return tracker;
+	}
+
+	/**
+	 * Returns the number of tracked buffers that have not been released.
+	 */
+	public int getOutstandingCount() {
+		reportLeaks();
+		return this.trackers.size();
+	}
+
+	/**
+	 * Returns descriptions of the tracked buffers that have not been released, including
+	 * their allocation and access records.
+	 */
+	public List<String> getOutstandingRecords() {
+		List<String> result = new ArrayList<>();
+		for (Tracker tracker : this.trackers) {
+			result.add(tracker.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of tracked buffers that have been garbage collected without
+	 * having been released.
+	 */
+	public int getLeakCount() {
+		reportLeaks();
+		return this.leakCount.get();
+	}
+
+	private void reportLeaks() {
+		Tracker tracker;
+		while ((tracker = (Tracker) this.referenceQueue.poll()) != null) {
+			if (this.trackers.remove(tracker)) {
+				this.leakCount.incrementAndGet();
+				if (logger.isErrorEnabled()) {
+					logger.error("LEAK: DataBuffer was garbage collected without being " +
+							"released. " + tracker);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DataBufferLeakDetector - level: " + this.level + ", samplingInterval: " +
+				this.samplingInterval;
+	}
+
+
+	/**
+	 * Tracks a single buffer, and records where it was allocated and accessed.
+	 */
+	class Tracker extends PhantomReference<Object> {
+
+		private final Record allocation = new Record("Allocated");
+
+		private final Deque<Record> records = new ArrayDeque<>(MAX_RECORDS);
+
+		private Tracker(Object resource) {
+			super(resource, referenceQueue);
+		}
+
+		/**
+		 * Records an access of the tracked buffer, such as a {@code retain} call.
+		 */
+		public void record(String hint) {
+			synchronized (this.records) {
+				if (this.records.size() == MAX_RECORDS) {
+					this.records.removeFirst();
+				}
+				this.records.addLast(new Record(hint));
+			}
+		}
+
+		/**
+		 * Stops tracking, as the buffer has been released.
+		 */
+		public void close() {
+			trackers.remove(this);
+			clear();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			synchronized (this.records) {
+				builder.append("Recent access records: ").append(this.records.size());
+				for (Record record : this.records) {
+					builder.append('\n').append(record);
+				}
+			}
+			builder.append('\n').append(this.allocation);
+			return builder.toString();
+		}
+	}
+
+
+	/**
+	 * Captures the stack trace of an allocation or access.
+	 */
+	@SuppressWarnings("serial")
+	private static class Record extends Throwable {
+
+		public Record(String hint) {
+			super(hint);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder(getMessage()).append(':');
+			String detectorClassName = DataBufferLeakDetector.class.getName();
+			for (StackTraceElement element : getStackTrace()) {
+				// skip the frames of the detector itself
+				String className = element.getClassName();
+				if (className.equals(detectorClassName) ||
+						className.startsWith(detectorClassName + "$")) {
+					continue;
+				}
+				builder.append("\n\t").append(element);
+			}
+			return builder.toString();
+		}
+	}
+
+}
@@ -45,6 +45,8 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	private int writePosition;
 
+	private ByteBuffer writableByteBuffer;
+
 	/**
 	 * Creates a new {@code DefaultDataBuffer} based on the given {@code ByteBuffer}. Both
 	 * reading and writing position of this buffer are based on the current {@linkplain
@@ -115,14 +117,91 @@ public class DefaultDataBuffer implements DataBuffer {
 		return -1;
 	}
 
+	@Override
+	public int indexOf(byte value, int fromIndex) {
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		return ByteSearchUtils.indexOf(this.byteBuffer, value, fromIndex,
+				this.writePosition);
+	}
+
+	@Override
+	public int indexOfAny(byte[] values, int fromIndex) {
+		Assert.notNull(values, "'values' must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		return ByteSearchUtils.indexOfAny(this.byteBuffer, values, fromIndex,
+				this.writePosition);
+	}
+
 	@Override
 	public int readableByteCount() {
 		return this.writePosition - this.readPosition;
 	}
 
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public int capacity() {
+		return this.byteBuffer.capacity();
+	}
+
+	@Override
+	public byte getByte(int index) {
+		if (index < 0 || index >= this.writePosition) {
+			throw new IndexOutOfBoundsException("index: " + index +
+					" (expected: range(0, " + this.writePosition + "))");
+		}
+		return this.byteBuffer.get(index);
+	}
+
 	@Override
 	public byte read() {
-		return readInternal(ByteBuffer::get);
+		checkReadable(1);
+		return this.byteBuffer.get(this.readPosition++);
+	}
+
+	@Override
+	public int readInt() {
+		checkReadable(4);
+		int i = this.byteBuffer.getInt(this.readPosition);
+		this.readPosition += 4;
+		return i;
+	}
+
+	@Override
+	public long readLong() {
+		checkReadable(8);
+		long l = this.byteBuffer.getLong(this.readPosition);
+		this.readPosition += 8;
+		return l;
+	}
+
+	/**
+	 * Checks that at least the given number of bytes is readable. The absolute
+	 * {@code ByteBuffer} methods used by the primitive reads only check the limit.
+	 */
+	private void checkReadable(int length) {
+		if (readableByteCount() < length) {
+			throw new IndexOutOfBoundsException("Cannot read " + length +
+					" byte(s) from " + this + " (readable: " + readableByteCount() + ")");
+		}
 	}
 
 	@Override
@@ -160,8 +239,23 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public DefaultDataBuffer write(byte b) {
 		ensureExtraCapacity(1);
-		writeInternal(buffer -> buffer.put(b));
+		this.byteBuffer.put(this.writePosition++, b);
+		return this;
+	}
+
+	@Override
+	public DefaultDataBuffer writeInt(int i) {
+		ensureExtraCapacity(4);
+		this.byteBuffer.putInt(this.writePosition, i);
+		this.writePosition += 4;
+		return this;
+	}
 
+	@Override
+	public DefaultDataBuffer writeLong(long l) {
+		ensureExtraCapacity(8);
+		this.byteBuffer.putLong(this.writePosition, l);
+		this.writePosition += 8;
 		return this;
 	}
 
@@ -190,6 +284,12 @@ public class DefaultDataBuffer implements DataBuffer {
 					Arrays.stream(buffers).map(DataBuffer::asByteBuffer)
 							.toArray(ByteBuffer[]::new);
 			write(byteBuffers);
+			// the contents have been copied, so the given buffers are no longer needed
+			for (DataBuffer buffer : buffers) {
+				if (buffer instanceof PooledDataBuffer) {
+					((PooledDataBuffer) buffer).release();
+				}
+			}
 		}
 		return this;
 	}
@@ -223,6 +323,32 @@ public class DefaultDataBuffer implements DataBuffer {
 		}
 	}
 
+	@Override
+	public ByteBuffer asWritableByteBuffer(int length) {
+		Assert.isTrue(length >= 0, "'length' must not be negative");
+		ensureExtraCapacity(length);
+		ByteBuffer duplicate = this.byteBuffer.duplicate();
+		duplicate.position(this.writePosition);
+		duplicate.limit(this.writePosition + length);
+		this.writableByteBuffer = duplicate.slice();
+		return this.writableByteBuffer;
+	}
+
+	@Override
+	public DefaultDataBuffer commitWritableByteBuffer(ByteBuffer byteBuffer) {
+		Assert.notNull(byteBuffer, "'byteBuffer' must not be null");
+		if (byteBuffer == this.writableByteBuffer) {
+			// the bytes were put into this buffer's memory already
+			this.writePosition += byteBuffer.position();
+			this.writableByteBuffer = null;
+		}
+		else {
+			byteBuffer.flip();
+			write(byteBuffer);
+		}
+		return this;
+	}
+
 	@Override
 	public DataBuffer slice(int index, int length) {
 		int oldPosition = this.byteBuffer.position();
@@ -258,22 +384,27 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	private void ensureExtraCapacity(int extraCapacity) {
 		int neededCapacity = this.writePosition + extraCapacity;
-		if (neededCapacity > this.byteBuffer.capacity()) {
-			grow(neededCapacity);
+		int capacity = this.byteBuffer.capacity();
+		if (neededCapacity > capacity) {
+			// at least double the capacity, so that repeated writes cost amortized O(n)
+			int doubledCapacity =
+					(capacity < Integer.MAX_VALUE / 2 ? capacity * 2 : Integer.MAX_VALUE);
+			grow(Math.max(neededCapacity, doubledCapacity));
 		}
 	}
 
 	void grow(int minCapacity) {
 		ByteBuffer oldBuffer = this.byteBuffer;
 		ByteBuffer newBuffer =
-				(oldBuffer.isDirect() ? ByteBuffer.allocateDirect(minCapacity) :
-						ByteBuffer.allocate(minCapacity));
+				this.dataBufferFactory.allocateByteBuffer(minCapacity, oldBuffer.isDirect());
 
-		oldBuffer.position(this.readPosition);
-		newBuffer.put(oldBuffer);
+		// copy everything up to the write position, so that both positions remain valid
+		ByteBuffer source = oldBuffer.duplicate();
+		source.limit(this.writePosition);
+		source.position(0);
+		newBuffer.put(source);
 
 		this.byteBuffer = newBuffer;
-		oldBuffer.clear();
 	}
 
 
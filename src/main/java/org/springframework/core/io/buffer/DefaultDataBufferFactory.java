@@ -79,9 +79,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 
 	@Override
 	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
-		return this.preferDirect ?
-				new DefaultDataBuffer(ByteBuffer.allocateDirect(initialCapacity), this) :
-				new DefaultDataBuffer(ByteBuffer.allocate(initialCapacity), this);
+		return new DefaultDataBuffer(allocateByteBuffer(initialCapacity), this);
 	}
 
 	@Override
@@ -90,6 +88,29 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 		return new DefaultDataBuffer(sliced, 0, byteBuffer.remaining(), this);
 	}
 
+	/**
+	 * Allocates a {@code ByteBuffer} of the given capacity, heap-based or direct
+	 * depending on the configuration of this factory.
+	 */
+	ByteBuffer allocateByteBuffer(int capacity) {
+		return allocateByteBuffer(capacity, this.preferDirect);
+	}
+
+	/**
+	 * Allocates a {@code ByteBuffer} of at least the given capacity. Used both for new
+	 * buffers, and for growing existing buffers created by this factory.
+	 */
+	ByteBuffer allocateByteBuffer(int capacity, boolean direct) {
+		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Indicates whether this factory prefers direct buffers over heap-based ones.
+	 */
+	boolean isPreferDirect() {
+		return this.preferDirect;
+	}
+
 	@Override
 	public String toString() {
 		return "DefaultDataBufferFactory - preferDirect: " + this.preferDirect;
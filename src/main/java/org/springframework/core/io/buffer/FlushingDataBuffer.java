@@ -0,0 +1,39 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Empty {@link DataBuffer} that indicates to the writer of a stream, such as a server
+ * response, that the data written so far should be flushed, rather than held back
+ * until more data arrives or the stream completes.
+ */
+public class FlushingDataBuffer extends DefaultDataBuffer {
+
+	/**
+	 * The shared instance. As the marker is only ever tested with {@code instanceof},
+	 * there is no need for more than one; it must not be written to.
+	 */
+	public static final FlushingDataBuffer INSTANCE = new FlushingDataBuffer();
+
+
+	private FlushingDataBuffer() {
+		super(ByteBuffer.allocate(0), new DefaultDataBufferFactory());
+	}
+
+}
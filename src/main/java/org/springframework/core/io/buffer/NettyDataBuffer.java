@@ -43,16 +43,32 @@ public class NettyDataBuffer implements PooledDataBuffer {
 
 	private ByteBuf byteBuf;
 
+	private final DataBufferLeakDetector.Tracker tracker;
+
+	private ByteBuffer writableByteBuffer;
+
 	/**
 	 * Creates a new {@code NettyDataBuffer} based on the given {@code ByteBuff}.
 	 * @param byteBuf the buffer to base this buffer on
 	 */
 	NettyDataBuffer(ByteBuf byteBuf, NettyDataBufferFactory dataBufferFactory) {
+		this(byteBuf, dataBufferFactory, null);
+	}
+
+	/**
+	 * Creates a new {@code NettyDataBuffer} based on the given {@code ByteBuff}, with the
+	 * given leak tracker.
+	 * @param byteBuf the buffer to base this buffer on
+	 * @param tracker the tracker of the given buffer; may be {@code null}
+	 */
+	NettyDataBuffer(ByteBuf byteBuf, NettyDataBufferFactory dataBufferFactory,
+			DataBufferLeakDetector.Tracker tracker) {
 		Assert.notNull(byteBuf, "'byteBuf' must not be null");
 		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
 
 		this.byteBuf = byteBuf;
 		this.dataBufferFactory = dataBufferFactory;
+		this.tracker = tracker;
 	}
 
 	@Override
@@ -93,16 +109,85 @@ public class NettyDataBuffer implements PooledDataBuffer {
 		return this.byteBuf.forEachByteDesc(0, fromIndex, predicate.negate()::test);
 	}
 
+	@Override
+	public int indexOf(byte value, int fromIndex) {
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.byteBuf.writerIndex()) {
+			return -1;
+		}
+		return this.byteBuf.indexOf(fromIndex, this.byteBuf.writerIndex(), value);
+	}
+
+	@Override
+	public int indexOfAny(byte[] values, int fromIndex) {
+		Assert.notNull(values, "'values' must not be null");
+		if (values.length == 1) {
+			return indexOf(values[0], fromIndex);
+		}
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.byteBuf.writerIndex()) {
+			return -1;
+		}
+		int length = this.byteBuf.writerIndex() - fromIndex;
+
+		return this.byteBuf.forEachByte(fromIndex, length, b -> {
+			for (byte value : values) {
+				if (b == value) {
+					return false;
+				}
+			}
+			return true;
+		});
+	}
+
 	@Override
 	public int readableByteCount() {
 		return this.byteBuf.readableBytes();
 	}
 
+	@Override
+	public int readPosition() {
+		return this.byteBuf.readerIndex();
+	}
+
+	@Override
+	public int writePosition() {
+		return this.byteBuf.writerIndex();
+	}
+
+	@Override
+	public int capacity() {
+		return this.byteBuf.capacity();
+	}
+
+	@Override
+	public byte getByte(int index) {
+		if (index < 0 || index >= this.byteBuf.writerIndex()) {
+			throw new IndexOutOfBoundsException("index: " + index +
+					" (expected: range(0, " + this.byteBuf.writerIndex() + "))");
+		}
+		return this.byteBuf.getByte(index);
+	}
+
 	@Override
 	public byte read() {
 		return this.byteBuf.readByte();
 	}
 
+	@Override
+	public int readInt() {
+		return this.byteBuf.readInt();
+	}
+
+	@Override
+	public long readLong() {
+		return this.byteBuf.readLong();
+	}
+
 	@Override
 	public NettyDataBuffer read(byte[] destination) {
 		this.byteBuf.readBytes(destination);
@@ -121,6 +206,18 @@ public class NettyDataBuffer implements PooledDataBuffer {
 		return this;
 	}
 
+	@Override
+	public NettyDataBuffer writeInt(int i) {
+		this.byteBuf.writeInt(i);
+		return this;
+	}
+
+	@Override
+	public NettyDataBuffer writeLong(long l) {
+		this.byteBuf.writeLong(l);
+		return this;
+	}
+
 	@Override
 	public NettyDataBuffer write(byte[] source) {
 		this.byteBuf.writeBytes(source);
@@ -136,19 +233,13 @@ public class NettyDataBuffer implements PooledDataBuffer {
 	@Override
 	public NettyDataBuffer write(DataBuffer... buffers) {
 		if (!ObjectUtils.isEmpty(buffers)) {
-			if (buffers[0] instanceof NettyDataBuffer) {
-				ByteBuf[] nativeBuffers = Arrays.stream(buffers)
-						.map(b -> ((NettyDataBuffer) b).getNativeBuffer())
-						.toArray(ByteBuf[]::new);
+			// the composite takes over the native buffers, including their release;
+			// other pooled buffers are copied and released
+			ByteBuf[] nativeBuffers = Arrays.stream(buffers)
+					.map(NettyDataBufferFactory::toByteBuf)
+					.toArray(ByteBuf[]::new);
 
-				write(nativeBuffers);
-			}
-			else {
-				ByteBuffer[] byteBuffers =
-						Arrays.stream(buffers).map(DataBuffer::asByteBuffer)
-								.toArray(ByteBuffer[]::new);
-				write(byteBuffers);
-			}
+			write(nativeBuffers);
 		}
 		return this;
 	}
@@ -187,10 +278,37 @@ public class NettyDataBuffer implements PooledDataBuffer {
 		return this;
 	}
 
+	@Override
+	public ByteBuffer asWritableByteBuffer(int length) {
+		Assert.isTrue(length >= 0, "'length' must not be negative");
+		this.byteBuf.ensureWritable(length);
+		if (this.byteBuf.nioBufferCount() != 1) {
+			// a composite buffer cannot expose its writable bytes as a single view
+			return ByteBuffer.allocate(length);
+		}
+		this.writableByteBuffer = this.byteBuf.nioBuffer(this.byteBuf.writerIndex(), length);
+		return this.writableByteBuffer;
+	}
+
+	@Override
+	public NettyDataBuffer commitWritableByteBuffer(ByteBuffer byteBuffer) {
+		Assert.notNull(byteBuffer, "'byteBuffer' must not be null");
+		if (byteBuffer == this.writableByteBuffer) {
+			// the bytes were put into the native buffer's memory already
+			this.byteBuf.writerIndex(this.byteBuf.writerIndex() + byteBuffer.position());
+			this.writableByteBuffer = null;
+		}
+		else {
+			byteBuffer.flip();
+			this.byteBuf.writeBytes(byteBuffer);
+		}
+		return this;
+	}
+
 	@Override
 	public DataBuffer slice(int index, int length) {
 		ByteBuf slice = this.byteBuf.slice(index, length);
-		return new NettyDataBuffer(slice, this.dataBufferFactory);
+		return new NettyDataBuffer(slice, this.dataBufferFactory, this.tracker);
 	}
 
 	@Override
@@ -210,12 +328,34 @@ public class NettyDataBuffer implements PooledDataBuffer {
 
 	@Override
 	public PooledDataBuffer retain() {
-		return new NettyDataBuffer(this.byteBuf.retain(), dataBufferFactory);
+		if (this.tracker != null) {
+			this.tracker.record("Retained");
+		}
+		return new NettyDataBuffer(this.byteBuf.retain(), dataBufferFactory, this.tracker);
 	}
 
 	@Override
 	public boolean release() {
-		return this.byteBuf.release();
+		boolean released = this.byteBuf.release();
+		if (this.tracker != null) {
+			if (released) {
+				this.tracker.close();
+			}
+			else {
+				this.tracker.record("Released");
+			}
+		}
+		return released;
+	}
+
+	/**
+	 * Stops leak tracking for this buffer, as ownership of the native buffer is
+	 * transferred to Netty, which will release it.
+	 */
+	void untrack() {
+		if (this.tracker != null) {
+			this.tracker.close();
+		}
 	}
 
 	@Override
@@ -36,6 +36,8 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 
 	private final ByteBufAllocator byteBufAllocator;
 
+	private volatile DataBufferLeakDetector leakDetector;
+
 	/**
 	 * Creates a new {@code NettyDataBufferFactory} based on the given factory.
 	 * @param byteBufAllocator the factory to use
@@ -48,22 +50,39 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 		this.byteBufAllocator = byteBufAllocator;
 	}
 
+	/**
+	 * Sets the leak detector used to track the buffers created by this factory. Buffers
+	 * are not tracked by default.
+	 * @param leakDetector the leak detector; may be {@code null}
+	 */
+	public void setLeakDetector(DataBufferLeakDetector leakDetector) {
+		this.leakDetector = leakDetector;
+	}
+
+	/**
+	 * Returns the leak detector used to track the buffers created by this factory.
+	 * @return the leak detector; or {@code null} if buffers are not tracked
+	 */
+	public DataBufferLeakDetector getLeakDetector() {
+		return this.leakDetector;
+	}
+
 	@Override
 	public NettyDataBuffer allocateBuffer() {
 		ByteBuf byteBuf = this.byteBufAllocator.buffer();
-		return new NettyDataBuffer(byteBuf, this);
+		return new NettyDataBuffer(byteBuf, this, track(byteBuf));
 	}
 
 	@Override
 	public NettyDataBuffer allocateBuffer(int initialCapacity) {
 		ByteBuf byteBuf = this.byteBufAllocator.buffer(initialCapacity);
-		return new NettyDataBuffer(byteBuf, this);
+		return new NettyDataBuffer(byteBuf, this, track(byteBuf));
 	}
 
 	@Override
 	public NettyDataBuffer wrap(ByteBuffer byteBuffer) {
 		ByteBuf byteBuf = Unpooled.wrappedBuffer(byteBuffer);
-		return new NettyDataBuffer(byteBuf, this);
+		return new NettyDataBuffer(byteBuf, this, track(byteBuf));
 	}
 
 	/**
@@ -72,7 +91,38 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 	 * @return the wrapped buffer
 	 */
 	public NettyDataBuffer wrap(ByteBuf byteBuf) {
-		return new NettyDataBuffer(byteBuf, this);
+		return new NettyDataBuffer(byteBuf, this, track(byteBuf));
+	}
+
+	private DataBufferLeakDetector.Tracker track(ByteBuf byteBuf) {
+		DataBufferLeakDetector leakDetector = this.leakDetector;
+		// slices and retained duplicates refer to the byte buf, so it remains reachable
+		return (leakDetector != null ? leakDetector.track(byteBuf) : null);
+	}
+
+	/**
+	 * Returns the given data buffer as a Netty {@link ByteBuf}, for writing to a Netty
+	 * channel, which takes over the responsibility of releasing it. If the given buffer
+	 * is a {@link NettyDataBuffer}, its native buffer is returned, and leak tracking is
+	 * stopped. Other {@link PooledDataBuffer}s are copied and released right away, as
+	 * Netty cannot release them; the contents of any other buffer are wrapped.
+	 * @param buffer the buffer to convert
+	 * @return the Netty byte buffer
+	 */
+	public static ByteBuf toByteBuf(DataBuffer buffer) {
+		if (buffer instanceof NettyDataBuffer) {
+			NettyDataBuffer nettyDataBuffer = (NettyDataBuffer) buffer;
+			nettyDataBuffer.untrack();
+			return nettyDataBuffer.getNativeBuffer();
+		}
+		else if (buffer instanceof PooledDataBuffer) {
+			ByteBuf copy = Unpooled.copiedBuffer(buffer.asByteBuffer());
+			((PooledDataBuffer) buffer).release();
+			return copy;
+		}
+		else {
+			return Unpooled.wrappedBuffer(buffer.asByteBuffer());
+		}
 	}
 
 	@Override
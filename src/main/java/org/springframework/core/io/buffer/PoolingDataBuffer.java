@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extension of {@link DefaultDataBuffer} whose underlying {@link ByteBuffer} is
+ * returned to the {@link PoolingDataBufferFactory} it came from, once the reference
+ * count drops to zero. Constructed using the {@link PoolingDataBufferFactory}.
+ *
+ * <p>Slices share the reference count of the buffer they were created from.
+ *
+ * @see PoolingDataBufferFactory
+ */
+public class PoolingDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	private volatile boolean sliced;
+
+	private DataBufferLeakDetector.Tracker tracker;
+
+
+	PoolingDataBuffer(ByteBuffer byteBuffer, PoolingDataBufferFactory dataBufferFactory) {
+		super(byteBuffer, dataBufferFactory);
+	}
+
+
+	/**
+	 * Sets the leak tracker of this buffer. Slices refer to this buffer, so it remains
+	 * reachable while any of them is.
+	 */
+	void setTracker(DataBufferLeakDetector.Tracker tracker) {
+		this.tracker = tracker;
+	}
+
+
+	@Override
+	public PoolingDataBufferFactory factory() {
+		return (PoolingDataBufferFactory) super.factory();
+	}
+
+	@Override
+	public PoolingDataBuffer retain() {
+		while (true) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released");
+			}
+			if (this.refCount.compareAndSet(count, count + 1)) {
+				if (this.tracker != null) {
+					this.tracker.record("Retained");
+				}
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public boolean release() {
+		while (true) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released");
+			}
+			if (this.refCount.compareAndSet(count, count - 1)) {
+				if (count == 1) {
+					if (this.tracker != null) {
+						this.tracker.close();
+					}
+					// slices share our reference count, so none of them are in use
+					factory().recycle(getNativeBuffer());
+					return true;
+				}
+				if (this.tracker != null) {
+					this.tracker.record("Released");
+				}
+				return false;
+			}
+		}
+	}
+
+	@Override
+	void grow(int minCapacity) {
+		ByteBuffer oldBuffer = getNativeBuffer();
+		super.grow(minCapacity);
+		if (!this.sliced) {
+			factory().recycle(oldBuffer);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned slice is a {@link PooledDataBuffer} that shares its reference
+	 * count with this buffer.
+	 */
+	@Override
+	public PooledDataBuffer slice(int index, int length) {
+		// memory shared with a slice cannot be recycled when this buffer grows
+		this.sliced = true;
+		ByteBuffer slice = getNativeBuffer().duplicate();
+		slice.limit(index + length);
+		slice.position(index);
+		return new SlicedPoolingDataBuffer(slice.slice(), this);
+	}
+
+
+	private static class SlicedPoolingDataBuffer extends DefaultDataBuffer
+			implements PooledDataBuffer {
+
+		private final PoolingDataBuffer parent;
+
+		SlicedPoolingDataBuffer(ByteBuffer byteBuffer, PoolingDataBuffer parent) {
+			super(byteBuffer, 0, byteBuffer.remaining(), parent.factory());
+			this.parent = parent;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		void grow(int minCapacity) {
+			throw new UnsupportedOperationException(
+					"Growing the capacity of a sliced buffer is not supported");
+		}
+	}
+
+}
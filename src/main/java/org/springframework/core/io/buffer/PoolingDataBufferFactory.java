@@ -0,0 +1,321 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * Implementation of the {@code DataBufferFactory} interface that pools the
+ * {@link ByteBuffer}s backing the buffers it allocates.
+ *
+ * <p>Requested capacities are rounded up to a power-of-two size class. Buffers that
+ * are released are first kept in a small per-thread cache, and overflow into one of a
+ * number of shared arenas, from which later allocations of the same size class are
+ * served. Capacities larger than the maximum pooled capacity are allocated without
+ * pooling.
+ *
+ * <p>Buffers allocated by this factory are {@link PooledDataBuffer}s, and need to be
+ * {@linkplain PooledDataBuffer#release() released} for their memory to return to the
+ * pool. Buffers that are never released are garbage collected as usual.
+ *
+ * @see PoolingDataBuffer
+ */
+public class PoolingDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity that is pooled.
+	 * @see #PoolingDataBufferFactory(boolean, int, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The capacity of the smallest size class.
+	 */
+	static final int MIN_POOLED_CAPACITY = 64;
+
+	/**
+	 * The amount of memory that each arena retains per size class.
+	 */
+	private static final int ARENA_CAPACITY = 1024 * 1024;
+
+	/**
+	 * The amount of memory that each thread cache retains per size class.
+	 */
+	private static final int THREAD_CACHE_CAPACITY = 64 * 1024;
+
+	private static final int DEFAULT_ARENA_COUNT =
+			Runtime.getRuntime().availableProcessors() * 2;
+
+
+	private final int maxPooledCapacity;
+
+	private final Arena[] arenas;
+
+	private final AtomicInteger arenaIndex = new AtomicInteger();
+
+	private final ThreadLocal<ThreadCache> threadCache =
+			ThreadLocal.withInitial(this::createThreadCache);
+
+	private volatile DataBufferLeakDetector leakDetector;
+
+
+	/**
+	 * Creates a new {@code PoolingDataBufferFactory} with default settings.
+	 */
+	public PoolingDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new {@code PoolingDataBufferFactory}, indicating whether direct buffers
+	 * should be created by {@link #allocateBuffer()} and {@link #allocateBuffer(int)}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred; {@code
+	 * false} otherwise
+	 */
+	public PoolingDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_POOLED_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@code PoolingDataBufferFactory}, indicating whether direct buffers
+	 * should be created by {@link #allocateBuffer()} and {@link #allocateBuffer(int)},
+	 * what the capacity is to be used for {@link #allocateBuffer()}, and what the
+	 * largest capacity is that will be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred; {@code
+	 * false} otherwise
+	 * @param defaultInitialCapacity the capacity used by {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the largest capacity to pool; rounded up to the next
+	 * power of two
+	 */
+	public PoolingDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int maxPooledCapacity) {
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(maxPooledCapacity >= MIN_POOLED_CAPACITY,
+				"'maxPooledCapacity' should be at least " + MIN_POOLED_CAPACITY);
+		Assert.isTrue(maxPooledCapacity <= (1 << 30),
+				"'maxPooledCapacity' should not be larger than 2^30");
+
+		this.maxPooledCapacity = sizeClassCapacity(maxPooledCapacity);
+		int sizeClassCount = sizeClassIndex(this.maxPooledCapacity) + 1;
+		this.arenas = new Arena[DEFAULT_ARENA_COUNT];
+		for (int i = 0; i < this.arenas.length; i++) {
+			this.arenas[i] = new Arena(sizeClassCount);
+		}
+	}
+
+
+	/**
+	 * Sets the leak detector used to track the buffers allocated by this factory.
+	 * Buffers are not tracked by default. Note that leaked buffers are reported, but
+	 * their memory is not returned to the pool.
+	 * @param leakDetector the leak detector; may be {@code null}
+	 */
+	public void setLeakDetector(DataBufferLeakDetector leakDetector) {
+		this.leakDetector = leakDetector;
+	}
+
+	/**
+	 * Returns the leak detector used to track the buffers allocated by this factory.
+	 * @return the leak detector; or {@code null} if buffers are not tracked
+	 */
+	public DataBufferLeakDetector getLeakDetector() {
+		return this.leakDetector;
+	}
+
+	@Override
+	public PoolingDataBuffer allocateBuffer() {
+		return (PoolingDataBuffer) super.allocateBuffer();
+	}
+
+	@Override
+	public PoolingDataBuffer allocateBuffer(int initialCapacity) {
+		PoolingDataBuffer buffer =
+				new PoolingDataBuffer(allocateByteBuffer(initialCapacity), this);
+		DataBufferLeakDetector leakDetector = this.leakDetector;
+		if (leakDetector != null) {
+			buffer.setTracker(leakDetector.track(buffer));
+		}
+		return buffer;
+	}
+
+	@Override
+	ByteBuffer allocateByteBuffer(int capacity, boolean direct) {
+		if (capacity > this.maxPooledCapacity || direct != isPreferDirect()) {
+			return super.allocateByteBuffer(capacity, direct);
+		}
+		int sizeClass = sizeClassIndex(capacity);
+		ByteBuffer byteBuffer = this.threadCache.get().poll(sizeClass);
+		if (byteBuffer == null) {
+			byteBuffer = super.allocateByteBuffer(sizeClassCapacity(capacity), direct);
+		}
+		return byteBuffer;
+	}
+
+	/**
+	 * Returns the given {@code ByteBuffer} to the pool, if it was allocated from it.
+	 * @param byteBuffer the buffer to return
+	 */
+	void recycle(ByteBuffer byteBuffer) {
+		int capacity = byteBuffer.capacity();
+		if (capacity > this.maxPooledCapacity || capacity < MIN_POOLED_CAPACITY ||
+				Integer.bitCount(capacity) != 1 || byteBuffer.isDirect() != isPreferDirect()) {
+			return;
+		}
+		byteBuffer.clear();
+		this.threadCache.get().offer(sizeClassIndex(capacity), byteBuffer);
+	}
+
+	private ThreadCache createThreadCache() {
+		int index = (this.arenaIndex.getAndIncrement() & Integer.MAX_VALUE) % this.arenas.length;
+		return new ThreadCache(this.arenas[index]);
+	}
+
+	/**
+	 * Returns the capacity of the size class that fits the given capacity.
+	 */
+	static int sizeClassCapacity(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return MIN_POOLED_CAPACITY;
+		}
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+	/**
+	 * Returns the index of the size class that fits the given capacity.
+	 */
+	static int sizeClassIndex(int capacity) {
+		return Integer.numberOfTrailingZeros(sizeClassCapacity(capacity)) -
+				Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+	}
+
+	private static int sizeClassCapacityForIndex(int sizeClass) {
+		return MIN_POOLED_CAPACITY << sizeClass;
+	}
+
+	@Override
+	public String toString() {
+		return "PoolingDataBufferFactory - preferDirect: " + isPreferDirect() +
+				", maxPooledCapacity: " + this.maxPooledCapacity;
+	}
+
+
+	/**
+	 * Shared pool of free buffers, with a bounded free list per size class.
+	 */
+	private static class Arena {
+
+		private final FreeList[] freeLists;
+
+		public Arena(int sizeClassCount) {
+			this.freeLists = new FreeList[sizeClassCount];
+			for (int i = 0; i < sizeClassCount; i++) {
+				int maxSize = Math.max(1, ARENA_CAPACITY / sizeClassCapacityForIndex(i));
+				this.freeLists[i] = new FreeList(maxSize);
+			}
+		}
+
+		public ByteBuffer poll(int sizeClass) {
+			return this.freeLists[sizeClass].poll();
+		}
+
+		public void offer(int sizeClass, ByteBuffer byteBuffer) {
+			this.freeLists[sizeClass].offer(byteBuffer);
+		}
+	}
+
+
+	private static class FreeList {
+
+		private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		private final int maxSize;
+
+		public FreeList(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public ByteBuffer poll() {
+			ByteBuffer byteBuffer = this.buffers.poll();
+			if (byteBuffer != null) {
+				this.size.decrementAndGet();
+			}
+			return byteBuffer;
+		}
+
+		public void offer(ByteBuffer byteBuffer) {
+			if (this.size.incrementAndGet() <= this.maxSize) {
+				this.buffers.offer(byteBuffer);
+			}
+			else {
+				// pool is full: leave the buffer to the garbage collector
+				this.size.decrementAndGet();
+			}
+		}
+	}
+
+
+	/**
+	 * Per-thread cache of free buffers in front of an {@link Arena}. Only ever accessed
+	 * by its owning thread, so no synchronization is needed.
+	 */
+	private static class ThreadCache {
+
+		private final Arena arena;
+
+		private final List<Deque<ByteBuffer>> caches;
+
+		private final int[] maxSizes;
+
+		public ThreadCache(Arena arena) {
+			this.arena = arena;
+			int sizeClassCount = arena.freeLists.length;
+			this.caches = new ArrayList<>(sizeClassCount);
+			this.maxSizes = new int[sizeClassCount];
+			for (int i = 0; i < sizeClassCount; i++) {
+				this.caches.add(new ArrayDeque<>());
+				this.maxSizes[i] = Math.max(1, THREAD_CACHE_CAPACITY / sizeClassCapacityForIndex(i));
+			}
+		}
+
+		public ByteBuffer poll(int sizeClass) {
+			ByteBuffer byteBuffer = this.caches.get(sizeClass).pollFirst();
+			return (byteBuffer != null ? byteBuffer : this.arena.poll(sizeClass));
+		}
+
+		public void offer(int sizeClass, ByteBuffer byteBuffer) {
+			Deque<ByteBuffer> cache = this.caches.get(sizeClass);
+			if (cache.size() < this.maxSizes[sizeClass]) {
+				cache.offerFirst(byteBuffer);
+			}
+			else {
+				this.arena.offer(sizeClass, byteBuffer);
+			}
+		}
+	}
+
+}
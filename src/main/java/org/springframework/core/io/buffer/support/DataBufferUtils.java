@@ -19,16 +19,36 @@ package org.springframework.core.io.buffer.support;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channel;
 import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoEmitter;
+import reactor.core.scheduler.Schedulers;
 import reactor.core.subscriber.SignalEmitter;
+import reactor.core.util.BackpressureUtils;
 
+import org.springframework.core.io.buffer.CompositeDataBuffer;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.PooledDataBuffer;
@@ -41,7 +61,27 @@ import org.springframework.util.Assert;
  */
 public abstract class DataBufferUtils {
 
-	private static final Consumer<ReadableByteChannel> CLOSE_CONSUMER = channel -> {
+	/**
+	 * The number of buffers requested ahead when writing to a channel.
+	 */
+	static final int WRITE_PREFETCH = 16;
+
+	/**
+	 * The delay in milliseconds before retrying a write to a non-blocking channel
+	 * that did not accept any bytes.
+	 */
+	private static final long WRITE_RETRY_DELAY = 50;
+
+	private static final Subscription EMPTY_SUBSCRIPTION = new Subscription() {
+		@Override
+		public void request(long n) {
+		}
+		@Override
+		public void cancel() {
+		}
+	};
+
+	private static final Consumer<Channel> CLOSE_CONSUMER = channel -> {
 		try {
 			if (channel != null) {
 				channel.close();
@@ -86,6 +126,104 @@ public abstract class DataBufferUtils {
 				CLOSE_CONSUMER);
 	}
 
+	/**
+	 * Reads the given {@code AsynchronousFileChannel} into a {@code Flux} of
+	 * {@code DataBuffer}s, starting at the given position. Reads are only issued when
+	 * there is demand, and do not block the calling thread. Closes the channel when
+	 * the flux is terminated or cancelled.
+	 * @param channel the channel to read from
+	 * @param position the position in the file to start reading from
+	 * @param dataBufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers read from the given channel
+	 */
+	public static Flux<DataBuffer> read(AsynchronousFileChannel channel, long position,
+			DataBufferFactory dataBufferFactory, int bufferSize) {
+		Assert.notNull(channel, "'channel' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be larger than 0");
+
+		return Flux.from(new AsynchronousFileChannelPublisher(channel, position,
+				dataBufferFactory, bufferSize));
+	}
+
+	/**
+	 * Maps the given {@code FileChannel} into memory, and returns its contents as a
+	 * {@code Flux} of read-only {@code DataBuffer}s, starting at the given position.
+	 * Each buffer wraps a {@link java.nio.MappedByteBuffer} of at most
+	 * {@code bufferSize} bytes, so that the file contents are not copied onto the heap.
+	 * Mainly useful for large files; note that the mapped memory is only reclaimed
+	 * when the buffers are garbage collected. Closes the channel when the flux is
+	 * terminated.
+	 * @param channel the channel to map
+	 * @param position the position in the file to start mapping from
+	 * @param dataBufferFactory the factory to wrap the mapped buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers mapped from the given channel
+	 */
+	public static Flux<DataBuffer> readMapped(FileChannel channel, long position,
+			DataBufferFactory dataBufferFactory, int bufferSize) {
+		Assert.notNull(channel, "'channel' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be larger than 0");
+
+		return Flux.generate(() -> channel,
+				new FileChannelMappingGenerator(dataBufferFactory, position, bufferSize),
+				CLOSE_CONSUMER);
+	}
+
+	/**
+	 * Writes the buffers emitted by the given {@link Publisher} to the given
+	 * {@code WritableByteChannel}. Up to {@value #WRITE_PREFETCH} buffers are requested
+	 * ahead; the queued buffers are written together, with a single gathering write if
+	 * the channel is a {@link GatheringByteChannel}, and released once written. Does
+	 * not close the channel.
+	 * @param publisher the publisher whose buffers are to be written
+	 * @param channel the channel to write to
+	 * @return a mono that completes when all buffers have been written, or fails when
+	 * writing fails
+	 */
+	public static Mono<Void> write(Publisher<DataBuffer> publisher,
+			WritableByteChannel channel) {
+		Assert.notNull(publisher, "'publisher' must not be null");
+		Assert.notNull(channel, "'channel' must not be null");
+
+		return Mono.create(emitter -> {
+			WritableByteChannelSubscriber subscriber =
+					new WritableByteChannelSubscriber(channel, emitter);
+			emitter.setCancellation(subscriber::cancel);
+			publisher.subscribe(subscriber);
+		});
+	}
+
+	/**
+	 * Writes the buffers emitted by the given {@link Publisher} to the given
+	 * {@code AsynchronousFileChannel}, starting at the given position. Up to
+	 * {@value #WRITE_PREFETCH} buffers are requested ahead, and written one after the
+	 * other without blocking the calling thread. Buffers are released once written.
+	 * Does not close the channel.
+	 * @param publisher the publisher whose buffers are to be written
+	 * @param channel the channel to write to
+	 * @param position the position in the file to start writing at
+	 * @return a mono that completes when all buffers have been written, or fails when
+	 * writing fails
+	 */
+	public static Mono<Void> write(Publisher<DataBuffer> publisher,
+			AsynchronousFileChannel channel, long position) {
+		Assert.notNull(publisher, "'publisher' must not be null");
+		Assert.notNull(channel, "'channel' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+
+		return Mono.create(emitter -> {
+			AsynchronousFileChannelSubscriber subscriber =
+					new AsynchronousFileChannelSubscriber(channel, position, emitter);
+			emitter.setCancellation(subscriber::cancel);
+			publisher.subscribe(subscriber);
+		});
+	}
+
 	/**
 	 * Relays buffers from the given {@link Publisher} until the total
 	 * {@linkplain DataBuffer#readableByteCount() byte count} reaches the given maximum
@@ -120,6 +258,112 @@ public abstract class DataBufferUtils {
 				});
 	}
 
+	/**
+	 * Joins all the buffers from the given {@link Publisher} into a single buffer,
+	 * without copying their contents. If the publisher emits a single buffer, that
+	 * buffer is returned as is; otherwise, the buffers are composed into a
+	 * {@link CompositeDataBuffer}, which takes ownership of them.
+	 * @param publisher the publisher whose buffers are to be joined
+	 * @return a mono with the joined buffer; or an empty mono if the publisher did not
+	 * emit any buffers
+	 */
+	public static Mono<DataBuffer> join(Publisher<DataBuffer> publisher) {
+		Assert.notNull(publisher, "'publisher' must not be null");
+
+		return Flux.from(publisher).
+				collectList().
+				filter(dataBuffers -> !dataBuffers.isEmpty()).
+				map(dataBuffers -> {
+					if (dataBuffers.size() == 1) {
+						return dataBuffers.get(0);
+					}
+					DataBufferFactory dataBufferFactory = dataBuffers.get(0).factory();
+					return new CompositeDataBuffer(dataBufferFactory, dataBuffers);
+				});
+	}
+
+	/**
+	 * Reads an unsigned variable-length integer, as used by Protocol Buffers, from the
+	 * current reading position of the given buffer. Each byte contributes its lower 7
+	 * bits, least significant group first; the high bit indicates that more bytes follow.
+	 * @param dataBuffer the buffer to read from
+	 * @return the decoded integer
+	 * @throws IndexOutOfBoundsException if the buffer ends before the integer does
+	 * @throws IllegalStateException if the encoded integer is longer than 5 bytes
+	 */
+	public static int readVarInt(DataBuffer dataBuffer) {
+		Assert.notNull(dataBuffer, "'dataBuffer' must not be null");
+
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = dataBuffer.read();
+			result |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return result;
+			}
+		}
+		throw new IllegalStateException("Malformed variable-length integer");
+	}
+
+	/**
+	 * Reads an unsigned variable-length long, as used by Protocol Buffers, from the
+	 * current reading position of the given buffer.
+	 * @param dataBuffer the buffer to read from
+	 * @return the decoded long
+	 * @throws IndexOutOfBoundsException if the buffer ends before the long does
+	 * @throws IllegalStateException if the encoded long is longer than 10 bytes
+	 * @see #readVarInt(DataBuffer)
+	 */
+	public static long readVarLong(DataBuffer dataBuffer) {
+		Assert.notNull(dataBuffer, "'dataBuffer' must not be null");
+
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = dataBuffer.read();
+			result |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return result;
+			}
+		}
+		throw new IllegalStateException("Malformed variable-length long");
+	}
+
+	/**
+	 * Writes the given integer as an unsigned variable-length integer into the given
+	 * buffer, using between 1 and 5 bytes.
+	 * @param dataBuffer the buffer to write to
+	 * @param value the integer to write
+	 * @return the given buffer
+	 * @see #readVarInt(DataBuffer)
+	 */
+	public static DataBuffer writeVarInt(DataBuffer dataBuffer, int value) {
+		Assert.notNull(dataBuffer, "'dataBuffer' must not be null");
+
+		while ((value & ~0x7F) != 0) {
+			dataBuffer.write((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		return dataBuffer.write((byte) value);
+	}
+
+	/**
+	 * Writes the given long as an unsigned variable-length long into the given buffer,
+	 * using between 1 and 10 bytes.
+	 * @param dataBuffer the buffer to write to
+	 * @param value the long to write
+	 * @return the given buffer
+	 * @see #readVarLong(DataBuffer)
+	 */
+	public static DataBuffer writeVarLong(DataBuffer dataBuffer, long value) {
+		Assert.notNull(dataBuffer, "'dataBuffer' must not be null");
+
+		while ((value & ~0x7FL) != 0) {
+			dataBuffer.write((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		return dataBuffer.write((byte) value);
+	}
+
 	/**
 	 * Retains the given data buffer, it it is a {@link PooledDataBuffer}.
 	 * @param dataBuffer the data buffer to retain
@@ -147,6 +391,41 @@ public abstract class DataBufferUtils {
 		return false;
 	}
 
+	private static void closeChannel(Channel channel) {
+		CLOSE_CONSUMER.accept(channel);
+	}
+
+	/**
+	 * Returns the readable bytes of the given buffer as byte buffers, using the
+	 * components of a {@link CompositeDataBuffer} so that they can be gathered.
+	 */
+	private static ByteBuffer[] toByteBuffers(DataBuffer dataBuffer) {
+		if (dataBuffer instanceof CompositeDataBuffer) {
+			return ((CompositeDataBuffer) dataBuffer).asByteBuffers();
+		}
+		return new ByteBuffer[]{dataBuffer.asByteBuffer()};
+	}
+
+
+	/**
+	 * Returns the given buffer, or an exact-size copy of it if it holds less than half of
+	 * the given capacity, so that short reads do not keep large buffers alive.
+	 */
+	private static DataBuffer trimShortRead(DataBuffer dataBuffer, int capacity) {
+		int readableByteCount = dataBuffer.readableByteCount();
+		if (readableByteCount >= capacity / 2) {
+			return dataBuffer;
+		}
+		DataBuffer copy = dataBuffer.factory().allocateBuffer(readableByteCount);
+		// copy through a writable view, as write(ByteBuffer) may merely wrap the source
+		ByteBuffer byteBuffer = copy.asWritableByteBuffer(readableByteCount);
+		byteBuffer.put(dataBuffer.asByteBuffer());
+		copy.commitWritableByteBuffer(byteBuffer);
+		release(dataBuffer);
+		return copy;
+	}
+
+
 	private static class ReadableByteChannelGenerator
 			implements BiFunction<ReadableByteChannel, SignalEmitter<DataBuffer>,
 						ReadableByteChannel> {
@@ -164,23 +443,53 @@ public abstract class DataBufferUtils {
 		@Override
 		public ReadableByteChannel apply(ReadableByteChannel
 				channel, SignalEmitter<DataBuffer>	sub) {
+			DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(this.chunkSize);
 			try {
-				ByteBuffer byteBuffer = ByteBuffer.allocate(chunkSize);
-				int read;
-				if ((read = channel.read(byteBuffer)) > 0) {
-					byteBuffer.flip();
-					boolean release = true;
-					DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(read);
-					try {
-						dataBuffer.write(byteBuffer);
-						release = false;
-						sub.next(dataBuffer);
-					}
-					finally {
-						if (release) {
-							release(dataBuffer);
-						}
-					}
+				// read straight into the factory buffer
+				ByteBuffer byteBuffer = dataBuffer.asWritableByteBuffer(this.chunkSize);
+				if (channel.read(byteBuffer) > 0) {
+					dataBuffer.commitWritableByteBuffer(byteBuffer);
+					sub.next(trimShortRead(dataBuffer, this.chunkSize));
+				}
+				else {
+					release(dataBuffer);
+					sub.complete();
+				}
+			}
+			catch (IOException ex) {
+				release(dataBuffer);
+				sub.fail(ex);
+			}
+			return channel;
+		}
+	}
+
+
+	private static class FileChannelMappingGenerator
+			implements BiFunction<FileChannel, SignalEmitter<DataBuffer>, FileChannel> {
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int chunkSize;
+
+		private long position;
+
+		public FileChannelMappingGenerator(DataBufferFactory dataBufferFactory,
+				long position, int chunkSize) {
+			this.dataBufferFactory = dataBufferFactory;
+			this.position = position;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public FileChannel apply(FileChannel channel, SignalEmitter<DataBuffer> sub) {
+			try {
+				long size = Math.min(channel.size() - this.position, this.chunkSize);
+				if (size > 0) {
+					ByteBuffer byteBuffer =
+							channel.map(FileChannel.MapMode.READ_ONLY, this.position, size);
+					this.position += size;
+					sub.next(this.dataBufferFactory.wrap(byteBuffer));
 				}
 				else {
 					sub.complete();
@@ -193,4 +502,489 @@ public abstract class DataBufferUtils {
 		}
 	}
 
+
+	private static class AsynchronousFileChannelPublisher implements Publisher<DataBuffer> {
+
+		private final AsynchronousFileChannel channel;
+
+		private final long position;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int chunkSize;
+
+		private final AtomicBoolean subscribed = new AtomicBoolean();
+
+		public AsynchronousFileChannelPublisher(AsynchronousFileChannel channel,
+				long position, DataBufferFactory dataBufferFactory, int chunkSize) {
+			this.channel = channel;
+			this.position = position;
+			this.dataBufferFactory = dataBufferFactory;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public void subscribe(Subscriber<? super DataBuffer> subscriber) {
+			Assert.notNull(subscriber, "'subscriber' must not be null");
+			if (this.subscribed.compareAndSet(false, true)) {
+				subscriber.onSubscribe(new ReadSubscription(subscriber));
+			}
+			else {
+				subscriber.onSubscribe(EMPTY_SUBSCRIPTION);
+				subscriber.onError(new IllegalStateException(
+						"Only one subscriber allowed, since the channel is closed on completion"));
+			}
+		}
+
+
+		/**
+		 * Issues a single read at a time, and only when there is demand. A read is
+		 * started either from {@link #request(long)}, or from the completion handler of
+		 * the previous read.
+		 */
+		private class ReadSubscription implements Subscription,
+				CompletionHandler<Integer, ByteBuffer> {
+
+			private final Subscriber<? super DataBuffer> subscriber;
+
+			private final AtomicLong demand = new AtomicLong();
+
+			private final AtomicBoolean reading = new AtomicBoolean();
+
+			private volatile boolean cancelled;
+
+			private long position = AsynchronousFileChannelPublisher.this.position;
+
+			private DataBuffer dataBuffer;
+
+			public ReadSubscription(Subscriber<? super DataBuffer> subscriber) {
+				this.subscriber = subscriber;
+			}
+
+			@Override
+			public void request(long n) {
+				if (!this.cancelled && BackpressureUtils.checkRequest(n, this.subscriber)) {
+					BackpressureUtils.addAndGet(this.demand, n);
+					tryRead();
+				}
+			}
+
+			@Override
+			public void cancel() {
+				this.cancelled = true;
+				// fails a pending read with an AsynchronousCloseException
+				closeChannel(channel);
+			}
+
+			private void tryRead() {
+				if (this.demand.get() > 0 && !this.cancelled &&
+						this.reading.compareAndSet(false, true)) {
+					// read straight into the factory buffer
+					this.dataBuffer = dataBufferFactory.allocateBuffer(chunkSize);
+					ByteBuffer byteBuffer = this.dataBuffer.asWritableByteBuffer(chunkSize);
+					channel.read(byteBuffer, this.position, byteBuffer, this);
+				}
+			}
+
+			@Override
+			public void completed(Integer read, ByteBuffer byteBuffer) {
+				DataBuffer dataBuffer = this.dataBuffer;
+				this.dataBuffer = null;
+				if (this.cancelled) {
+					release(dataBuffer);
+					return;
+				}
+				if (read == -1) {
+					release(dataBuffer);
+					closeChannel(channel);
+					this.subscriber.onComplete();
+					return;
+				}
+				this.position += read;
+				dataBuffer.commitWritableByteBuffer(byteBuffer);
+				BackpressureUtils.getAndSub(this.demand, 1L);
+				this.subscriber.onNext(trimShortRead(dataBuffer, chunkSize));
+				// only allow the next read once onNext has returned, to keep signals serial
+				this.reading.set(false);
+				tryRead();
+			}
+
+			@Override
+			public void failed(Throwable ex, ByteBuffer byteBuffer) {
+				release(this.dataBuffer);
+				this.dataBuffer = null;
+				if (this.cancelled) {
+					return;
+				}
+				closeChannel(channel);
+				this.subscriber.onError(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Writes the queued buffers with a single gathering write, while up to
+	 * {@link #WRITE_PREFETCH} buffers are requested ahead. Writes are started from
+	 * {@link #onNext(DataBuffer)}; if a non-blocking channel does not accept any
+	 * bytes, writing is retried from the timer, rather than spinning.
+	 */
+	private static class WritableByteChannelSubscriber implements Subscriber<DataBuffer> {
+
+		private final WritableByteChannel channel;
+
+		private final MonoEmitter<Void> emitter;
+
+		private final Queue<PendingBuffer> pendingBuffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private final List<ByteBuffer> byteBuffers = new ArrayList<>();
+
+		private volatile boolean completed;
+
+		private volatile boolean cancelled;
+
+		private volatile Throwable error;
+
+		private boolean done;
+
+		private Subscription subscription;
+
+		public WritableByteChannelSubscriber(WritableByteChannel channel,
+				MonoEmitter<Void> emitter) {
+			this.channel = channel;
+			this.emitter = emitter;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			if (BackpressureUtils.validate(this.subscription, subscription)) {
+				this.subscription = subscription;
+				// hold off writing until the buffers emitted right away have been queued,
+				// so that they are written together
+				this.wip.getAndIncrement();
+				subscription.request(WRITE_PREFETCH);
+				drainLoop();
+			}
+		}
+
+		@Override
+		public void onNext(DataBuffer dataBuffer) {
+			this.pendingBuffers.add(new PendingBuffer(dataBuffer));
+			drain();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.error = throwable;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+			drain();
+		}
+
+		public void cancel() {
+			this.cancelled = true;
+			Subscription subscription = this.subscription;
+			if (subscription != null) {
+				subscription.cancel();
+			}
+			drain();
+		}
+
+		/**
+		 * Writes queued buffers for as long as the channel accepts them. Only one
+		 * thread writes at any time; others merely signal that there is more work.
+		 */
+		private void drain() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			drainLoop();
+		}
+
+		private void drainLoop() {
+			int missed = 1;
+			do {
+				if (this.done || this.cancelled || this.error != null) {
+					releaseBuffers();
+					if (!this.done && this.error != null) {
+						this.done = true;
+						this.emitter.fail(this.error);
+					}
+				}
+				else {
+					try {
+						writeBuffers();
+					}
+					catch (IOException | RuntimeException ex) {
+						this.subscription.cancel();
+						this.error = ex;
+						this.done = true;
+						releaseBuffers();
+						this.emitter.fail(ex);
+					}
+				}
+				missed = this.wip.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+
+		private void writeBuffers() throws IOException {
+			while (true) {
+				int writtenCount = 0;
+				PendingBuffer pendingBuffer;
+				while ((pendingBuffer = this.pendingBuffers.peek()) != null &&
+						!pendingBuffer.hasRemaining()) {
+					this.pendingBuffers.poll();
+					release(pendingBuffer.dataBuffer);
+					writtenCount++;
+				}
+				if (writtenCount > 0 && !this.completed) {
+					this.subscription.request(writtenCount);
+					// buffers might have been queued while requesting
+					continue;
+				}
+				if (pendingBuffer == null) {
+					if (this.completed) {
+						this.done = true;
+						this.emitter.complete();
+					}
+					return;
+				}
+
+				int count = 0;
+				for (PendingBuffer queued : this.pendingBuffers) {
+					if (count++ == WRITE_PREFETCH) {
+						break;
+					}
+					for (ByteBuffer byteBuffer : queued.byteBuffers) {
+						if (byteBuffer.hasRemaining()) {
+							this.byteBuffers.add(byteBuffer);
+						}
+					}
+				}
+				long written = write(this.byteBuffers);
+				this.byteBuffers.clear();
+				if (written == 0) {
+					// the (non-blocking) channel is not ready; try again later
+					Schedulers.timer().schedule(this::drain, WRITE_RETRY_DELAY,
+							TimeUnit.MILLISECONDS);
+					return;
+				}
+			}
+		}
+
+		private long write(List<ByteBuffer> byteBuffers) throws IOException {
+			if (this.channel instanceof GatheringByteChannel) {
+				ByteBuffer[] array = byteBuffers.toArray(new ByteBuffer[byteBuffers.size()]);
+				return ((GatheringByteChannel) this.channel).write(array);
+			}
+			long written = 0;
+			for (ByteBuffer byteBuffer : byteBuffers) {
+				int result = this.channel.write(byteBuffer);
+				written += result;
+				if (byteBuffer.hasRemaining()) {
+					break;
+				}
+			}
+			return written;
+		}
+
+		private void releaseBuffers() {
+			PendingBuffer pendingBuffer;
+			while ((pendingBuffer = this.pendingBuffers.poll()) != null) {
+				release(pendingBuffer.dataBuffer);
+			}
+		}
+
+
+		/**
+		 * A buffer to be written, together with the views on its readable bytes that
+		 * track how much of it has been written.
+		 */
+		private static class PendingBuffer {
+
+			private final DataBuffer dataBuffer;
+
+			private final ByteBuffer[] byteBuffers;
+
+			public PendingBuffer(DataBuffer dataBuffer) {
+				this.dataBuffer = dataBuffer;
+				this.byteBuffers = toByteBuffers(dataBuffer);
+			}
+
+			public boolean hasRemaining() {
+				for (ByteBuffer byteBuffer : this.byteBuffers) {
+					if (byteBuffer.hasRemaining()) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+	}
+
+
+	/**
+	 * Writes one buffer at a time, while up to {@link #WRITE_PREFETCH} buffers are
+	 * queued. The next write is started either from {@link #onNext(DataBuffer)}, or
+	 * from the completion handler of the previous write.
+	 */
+	private static class AsynchronousFileChannelSubscriber
+			implements Subscriber<DataBuffer>, CompletionHandler<Integer, ByteBuffer> {
+
+		private final AsynchronousFileChannel channel;
+
+		private final MonoEmitter<Void> emitter;
+
+		private final Queue<DataBuffer> queue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean writing = new AtomicBoolean();
+
+		private final AtomicBoolean terminated = new AtomicBoolean();
+
+		private volatile boolean completed;
+
+		private volatile Subscription subscription;
+
+		private long position;
+
+		private DataBuffer current;
+
+		private ByteBuffer[] currentByteBuffers;
+
+		private int currentIndex;
+
+		public AsynchronousFileChannelSubscriber(AsynchronousFileChannel channel,
+				long position, MonoEmitter<Void> emitter) {
+			this.channel = channel;
+			this.position = position;
+			this.emitter = emitter;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			if (BackpressureUtils.validate(this.subscription, subscription)) {
+				this.subscription = subscription;
+				subscription.request(WRITE_PREFETCH);
+			}
+		}
+
+		@Override
+		public void onNext(DataBuffer dataBuffer) {
+			if (this.terminated.get()) {
+				release(dataBuffer);
+				return;
+			}
+			this.queue.offer(dataBuffer);
+			tryWrite();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			fail(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+			tryWrite();
+		}
+
+		private void tryWrite() {
+			if (!this.writing.compareAndSet(false, true)) {
+				return;
+			}
+			DataBuffer dataBuffer = this.queue.poll();
+			if (dataBuffer == null) {
+				this.writing.set(false);
+				if (!this.queue.isEmpty()) {
+					// offered after our poll, but rejected by our write flag
+					tryWrite();
+				}
+				else if (this.completed && this.terminated.compareAndSet(false, true)) {
+					this.emitter.complete();
+				}
+				return;
+			}
+			if (this.terminated.get()) {
+				release(dataBuffer);
+				this.writing.set(false);
+				return;
+			}
+			this.current = dataBuffer;
+			this.currentByteBuffers = toByteBuffers(dataBuffer);
+			this.currentIndex = 0;
+			writeCurrent();
+		}
+
+		private void writeCurrent() {
+			while (this.currentIndex < this.currentByteBuffers.length) {
+				ByteBuffer byteBuffer = this.currentByteBuffers[this.currentIndex];
+				if (byteBuffer.hasRemaining()) {
+					this.channel.write(byteBuffer, this.position, byteBuffer, this);
+					return;
+				}
+				this.currentIndex++;
+			}
+			release(this.current);
+			this.current = null;
+			this.currentByteBuffers = null;
+			this.writing.set(false);
+			this.subscription.request(1);
+			tryWrite();
+		}
+
+		@Override
+		public void completed(Integer written, ByteBuffer byteBuffer) {
+			this.position += written;
+			if (this.terminated.get()) {
+				release(this.current);
+				this.current = null;
+				return;
+			}
+			writeCurrent();
+		}
+
+		@Override
+		public void failed(Throwable ex, ByteBuffer byteBuffer) {
+			release(this.current);
+			this.current = null;
+			Subscription subscription = this.subscription;
+			if (subscription != null) {
+				subscription.cancel();
+			}
+			fail(ex);
+		}
+
+		private void fail(Throwable ex) {
+			if (this.terminated.compareAndSet(false, true)) {
+				releaseQueued();
+				this.emitter.fail(ex);
+			}
+		}
+
+		public void cancel() {
+			if (this.terminated.compareAndSet(false, true)) {
+				Subscription subscription = this.subscription;
+				if (subscription != null) {
+					subscription.cancel();
+				}
+				releaseQueued();
+			}
+		}
+
+		private void releaseQueued() {
+			DataBuffer dataBuffer;
+			while ((dataBuffer = this.queue.poll()) != null) {
+				release(dataBuffer);
+			}
+		}
+	}
+
 }
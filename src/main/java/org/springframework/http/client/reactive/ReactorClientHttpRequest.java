@@ -20,7 +20,6 @@ import java.net.URI;
 import java.util.Collection;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -30,7 +29,7 @@ import reactor.io.netty.http.HttpClient;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
-import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 
@@ -91,7 +90,7 @@ public class ReactorClientHttpRequest extends AbstractClientHttpRequest {
 	@Override
 	public Mono<Void> writeWith(Publisher<DataBuffer> body) {
 
-		this.body = Flux.from(body).map(this::toByteBuf);
+		this.body = Flux.from(body).map(NettyDataBufferFactory::toByteBuf);
 		return Mono.empty();
 	}
 
@@ -124,14 +123,5 @@ public class ReactorClientHttpRequest extends AbstractClientHttpRequest {
 				dataBufferFactory));
 	}
 
-	private ByteBuf toByteBuf(DataBuffer buffer) {
-		if (buffer instanceof NettyDataBuffer) {
-			return ((NettyDataBuffer) buffer).getNativeBuffer();
-		}
-		else {
-			return Unpooled.wrappedBuffer(buffer.asByteBuffer());
-		}
-	}
-
 }
 
@@ -123,6 +123,21 @@ public class CodecHttpMessageConverter<T> implements HttpMessageConverter<T> {
 		return this.decoder.decode(body, type, contentType);
 	}
 
+	@Override
+	public Mono<T> readMono(ResolvableType type, ReactiveHttpInputMessage inputMessage) {
+		if (this.decoder == null) {
+			return Mono.error(new IllegalStateException("No decoder set"));
+		}
+		MediaType contentType = inputMessage.getHeaders().getContentType();
+		if (contentType == null) {
+			contentType = MediaType.APPLICATION_OCTET_STREAM;
+		}
+
+		Flux<DataBuffer> body = inputMessage.getBody();
+
+		return this.decoder.decodeToMono(body, type, contentType);
+	}
+
 	@Override
 	public Mono<Void> write(Publisher<? extends T> inputStream, ResolvableType type,
 			MediaType contentType,
@@ -60,6 +60,23 @@ public interface HttpMessageConverter<T> {
 	 */
 	Flux<T> read(ResolvableType type, ReactiveHttpInputMessage inputMessage);
 
+	/**
+	 * Read a single object of the given type form the given input message, and returns
+	 * it. Used when only one value is expected, so that the message body can be
+	 * converted as a whole.
+	 * <p>The default implementation returns the first object {@linkplain #read read}
+	 * from the input message.
+	 * @param type the type of object to return. This type must have previously been
+	 * passed to the
+	 * {@link #canRead canRead} method of this interface, which must have returned {@code
+	 * true}.
+	 * @param inputMessage the HTTP input message to read from
+	 * @return the converted object
+	 */
+	default Mono<T> readMono(ResolvableType type, ReactiveHttpInputMessage inputMessage) {
+		return read(type, inputMessage).next();
+	}
+
 	/**
 	 * Indicates whether the given class can be written by this converter.
 	 * @param type the class to test for writability
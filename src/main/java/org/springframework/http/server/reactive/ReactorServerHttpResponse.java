@@ -18,8 +18,6 @@ package org.springframework.http.server.reactive;
 
 import java.io.File;
 
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
@@ -30,7 +28,7 @@ import reactor.io.netty.http.HttpChannel;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
@@ -66,7 +64,7 @@ public class ReactorServerHttpResponse extends AbstractServerHttpResponse
 
 	@Override
 	protected Mono<Void> writeWithInternal(Publisher<DataBuffer> publisher) {
-		return this.channel.send(Flux.from(publisher).map(this::toByteBuf));
+		return this.channel.send(Flux.from(publisher).map(NettyDataBufferFactory::toByteBuf));
 	}
 
 	@Override
@@ -95,15 +93,6 @@ public class ReactorServerHttpResponse extends AbstractServerHttpResponse
 		}
 	}
 
-	private ByteBuf toByteBuf(DataBuffer buffer) {
-		if (buffer instanceof NettyDataBuffer) {
-			return ((NettyDataBuffer) buffer).getNativeBuffer();
-		}
-		else {
-			return Unpooled.wrappedBuffer(buffer.asByteBuffer());
-		}
-	}
-
 	@Override
 	public Mono<Void> writeWith(File file, long position, long count) {
 		return applyBeforeCommit().then(() -> {
@@ -18,6 +18,8 @@ package org.springframework.http.server.reactive;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
@@ -28,13 +30,15 @@ import reactor.core.publisher.Mono;
 import rx.Observable;
 
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.FlushingDataBuffer;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.util.Assert;
 import rx.functions.Func1;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -45,7 +49,11 @@ import java.util.Map;
  * @author Rossen Stoyanchev
  * @author Stephane Maldini
  */
-public class RxNettyServerHttpResponse extends AbstractServerHttpResponse {
+public class RxNettyServerHttpResponse extends AbstractServerHttpResponse
+		implements ZeroCopyHttpOutputMessage {
+
+	/** Written in place of a {@link FlushingDataBuffer}; releasing it is a no-op. */
+	private static final ByteBuf FLUSH = Unpooled.EMPTY_BUFFER;
 
 	private final HttpServerResponse<ByteBuf> response;
 
@@ -69,26 +77,27 @@ public class RxNettyServerHttpResponse extends AbstractServerHttpResponse {
 
 	@Override
 	protected Mono<Void> writeWithInternal(Publisher<DataBuffer> publisher) {
+		Observable<ByteBuf> content = toObservableByteBuf(publisher);
 		return RxJava1ObservableConverter
-				.from(response.write(toObservableByteBuf(publisher)))
+				.from(this.response.write(content, byteBuf -> byteBuf == FLUSH))
 				.then();
 	}
 
 	private static Observable<ByteBuf> toObservableByteBuf(Publisher<DataBuffer> publisher) {
 		return RxJava1ObservableConverter
 				.from(publisher)
-				.map(buffer -> buffer instanceof NettyDataBuffer ?
-								((NettyDataBuffer) buffer).getNativeBuffer()
-								: Unpooled.wrappedBuffer(buffer.asByteBuffer())
-				);
+				.map(dataBuffer -> dataBuffer instanceof FlushingDataBuffer ? FLUSH :
+						NettyDataBufferFactory.toByteBuf(dataBuffer));
 	}
 
 	@Override
 	protected void writeHeaders() {
-		getHeaders()
-				.entrySet()
-				.stream()
-				.forEach(e -> response.addHeader(e.getKey(), e.getValue()));
+		for (Map.Entry<String, List<String>> entry : getHeaders().entrySet()) {
+			String headerName = entry.getKey();
+			for (String headerValue : entry.getValue()) {
+				this.response.addHeader(headerName, headerValue);
+			}
+		}
 	}
 
 	@Override
@@ -116,35 +125,20 @@ public class RxNettyServerHttpResponse extends AbstractServerHttpResponse {
 
 	}
 
-/*
-	While the underlying implementation of {@link ZeroCopyHttpOutputMessage} seems to
-	work; it does bypass {@link #applyBeforeCommit} and more importantly it doesn't change
-	its {@linkplain #state()). Therefore it's commented out, for now.
-
-	We should revisit this code once
-	https://github.com/ReactiveX/RxNetty/issues/194 has been fixed.
-	
-
+	/**
+	 * {@inheritDoc}
+	 * <p>Commits the response, and then writes the file as a {@link FileRegion}
+	 * through RxNetty, which writes the headers in front of it as usual.
+	 */
 	@Override
+	@SuppressWarnings({"rawtypes", "unchecked"})
 	public Mono<Void> writeWith(File file, long position, long count) {
-		Channel channel = this.response.unsafeNettyChannel();
-
-		HttpResponse httpResponse =
-				new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
-		io.netty.handler.codec.http.HttpHeaders headers = httpResponse.headers();
-
-		for (Map.Entry<String, List<String>> header : getHeaders().entrySet()) {
-			String headerName = header.getKey();
-			for (String headerValue : header.getValue()) {
-				headers.add(headerName, headerValue);
-			}
-		}
-		Mono<Void> responseWrite = MonoChannelFuture.from(channel.write(httpResponse));
-
-		FileRegion fileRegion = new DefaultFileRegion(file, position, count);
-		Mono<Void> fileWrite = MonoChannelFuture.from(channel.writeAndFlush(fileRegion));
-
-		return Flux.concat(applyBeforeCommit(), responseWrite, fileWrite).then();
+		return applyBeforeCommit().then(() -> {
+			FileRegion fileRegion = new DefaultFileRegion(file, position, count);
+			// the HTTP encoder passes file regions on to the transport as they are
+			Observable<ByteBuf> content = (Observable) Observable.just(fileRegion);
+			return RxJava1ObservableConverter.from(this.response.write(content)).then();
+		});
 	}
-*/
-}
\ No newline at end of file
+
+}
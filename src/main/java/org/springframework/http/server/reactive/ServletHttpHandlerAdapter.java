@@ -17,7 +17,10 @@
 package org.springframework.http.server.reactive;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.AsyncContext;
 import javax.servlet.ReadListener;
 import javax.servlet.ServletException;
@@ -31,6 +34,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.eclipse.jetty.server.HttpOutput;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import reactor.core.publisher.Mono;
@@ -39,9 +43,11 @@ import reactor.core.util.BackpressureUtils;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.FlushingDataBuffer;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * @author Arjen Poutsma
@@ -52,6 +58,12 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 
 	private static final int DEFAULT_BUFFER_SIZE = 8192;
 
+	private static final int DEFAULT_RESPONSE_BODY_PREFETCH = 4;
+
+	private static final boolean jettyPresent =
+			ClassUtils.isPresent("org.eclipse.jetty.server.HttpOutput",
+					ServletHttpHandlerAdapter.class.getClassLoader());
+
 	private static Log logger = LogFactory.getLog(ServletHttpHandlerAdapter.class);
 
 
@@ -63,6 +75,8 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 
 	private int bufferSize = DEFAULT_BUFFER_SIZE;
 
+	private int responseBodyPrefetch = DEFAULT_RESPONSE_BODY_PREFETCH;
+
 
 	public void setHandler(HttpHandler handler) {
 		Assert.notNull(handler, "'handler' must not be null");
@@ -79,6 +93,16 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Set the number of response body buffers that are requested ahead of being
+	 * written, so that the next buffer is usually available as soon as the output
+	 * stream is ready again. Defaults to 4.
+	 */
+	public void setResponseBodyPrefetch(int responseBodyPrefetch) {
+		Assert.isTrue(responseBodyPrefetch > 0);
+		this.responseBodyPrefetch = responseBodyPrefetch;
+	}
+
 	@Override
 	protected void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
 			throws ServletException, IOException {
@@ -93,7 +117,7 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 				new ServletServerHttpRequest(servletRequest, requestBody);
 
 		ResponseBodySubscriber responseBody =
-				new ResponseBodySubscriber(synchronizer, bufferSize);
+				new ResponseBodySubscriber(synchronizer, bufferSize, responseBodyPrefetch);
 		responseBody.registerListener();
 		ServletServerHttpResponse response =
 				new ServletServerHttpResponse(servletResponse, dataBufferFactory,
@@ -151,13 +175,16 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 
 		private final DataBufferFactory dataBufferFactory;
 
-		private final byte[] buffer;
+		private final ReadSizePredictor readSizePredictor;
+
+		private byte[] scratch;
 
 		public RequestBodyPublisher(ServletAsyncContextSynchronizer synchronizer,
 				DataBufferFactory dataBufferFactory, int bufferSize) {
 			this.synchronizer = synchronizer;
 			this.dataBufferFactory = dataBufferFactory;
-			this.buffer = new byte[bufferSize];
+			long contentLength = synchronizer.getRequest().getContentLengthLong();
+			this.readSizePredictor = new ReadSizePredictor(bufferSize, contentLength);
 		}
 
 		public void registerListener() throws IOException {
@@ -197,19 +224,81 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 						break;
 					}
 
-					int read = input.read(buffer);
-					logger.trace("Input read:" + read);
-
-					if (read == -1) {
+					DataBuffer dataBuffer = read(input, readSizePredictor.nextReadSize());
+					if (dataBuffer == null) {
 						break;
 					}
-					else if (read > 0) {
-						DataBuffer dataBuffer = dataBufferFactory.allocateBuffer(read);
-						dataBuffer.write(buffer, 0, read);
+					int read = dataBuffer.readableByteCount();
+					logger.trace("Input read:" + read);
+					readSizePredictor.record(read);
 
+					if (read > 0) {
 						publishOnNext(dataBuffer);
 					}
+					else {
+						DataBufferUtils.release(dataBuffer);
+					}
+				}
+			}
+
+			/**
+			 * Reads at most {@code readSize} bytes into a buffer obtained from the data
+			 * buffer factory. Heap buffers are read into directly; other buffers through
+			 * a reused scratch array. Reads that fill less than half of the buffer are
+			 * copied into an exact-size buffer, so that they do not keep large buffers
+			 * alive.
+			 * @return the read buffer, or {@code null} if the end of the stream was
+			 * reached
+			 */
+			private DataBuffer read(ServletInputStream input, int readSize)
+					throws IOException {
+				DataBuffer dataBuffer = dataBufferFactory.allocateBuffer(readSize);
+				boolean release = true;
+				try {
+					ByteBuffer byteBuffer = dataBuffer.asWritableByteBuffer(readSize);
+					int read;
+					if (byteBuffer.hasArray()) {
+						read = input.read(byteBuffer.array(),
+								byteBuffer.arrayOffset() + byteBuffer.position(), readSize);
+						if (read > 0) {
+							byteBuffer.position(byteBuffer.position() + read);
+						}
+					}
+					else {
+						byte[] scratch = getScratch(readSize);
+						read = input.read(scratch, 0, readSize);
+						if (read > 0) {
+							byteBuffer.put(scratch, 0, read);
+						}
+					}
+					if (read == -1) {
+						return null;
+					}
+					dataBuffer.commitWritableByteBuffer(byteBuffer);
+					release = false;
+				}
+				finally {
+					if (release) {
+						DataBufferUtils.release(dataBuffer);
+					}
+				}
+				int readableByteCount = dataBuffer.readableByteCount();
+				if (readableByteCount == 0 || readableByteCount >= readSize / 2) {
+					return dataBuffer;
+				}
+				DataBuffer copy = dataBufferFactory.allocateBuffer(readableByteCount);
+				ByteBuffer byteBuffer = copy.asWritableByteBuffer(readableByteCount);
+				byteBuffer.put(dataBuffer.asByteBuffer());
+				copy.commitWritableByteBuffer(byteBuffer);
+				DataBufferUtils.release(dataBuffer);
+				return copy;
+			}
+
+			private byte[] getScratch(int size) {
+				if (scratch == null || scratch.length < size) {
+					scratch = new byte[size];
 				}
+				return scratch;
 			}
 
 			@Override
@@ -231,6 +320,72 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 
 	}
 
+
+	/**
+	 * Determines the size of the next request body read. If the request has a
+	 * {@code Content-Length}, reads are sized to the remaining body (up to
+	 * {@link #MAX_READ_SIZE}), so that a small body fits in a single buffer.
+	 * Otherwise, the size adapts to the amount of data actually read: it doubles
+	 * whenever a read fills the buffer, and halves after two consecutive reads
+	 * that would have fit in half of it.
+	 */
+	static class ReadSizePredictor {
+
+		static final int MIN_READ_SIZE = 64;
+
+		static final int MAX_READ_SIZE = 65536;
+
+		private long remaining;
+
+		private int readSize;
+
+		private boolean decreaseNow;
+
+		/**
+		 * Create a new predictor.
+		 * @param initialReadSize the read size to start with if the content length
+		 * is unknown
+		 * @param contentLength the content length of the request, or -1 if unknown
+		 */
+		public ReadSizePredictor(int initialReadSize, long contentLength) {
+			this.remaining = contentLength;
+			this.readSize = Math.min(Math.max(initialReadSize, MIN_READ_SIZE), MAX_READ_SIZE);
+		}
+
+		public int nextReadSize() {
+			if (this.remaining > 0) {
+				return (int) Math.min(this.remaining, MAX_READ_SIZE);
+			}
+			else if (this.remaining == 0) {
+				// only the end of the stream is left to be read
+				return 1;
+			}
+			return this.readSize;
+		}
+
+		public void record(int read) {
+			if (this.remaining >= 0) {
+				this.remaining = Math.max(this.remaining - read, 0);
+			}
+			else if (read >= this.readSize) {
+				this.readSize = Math.min(this.readSize << 1, MAX_READ_SIZE);
+				this.decreaseNow = false;
+			}
+			else if (read <= this.readSize >> 1) {
+				if (this.decreaseNow) {
+					this.readSize = Math.max(this.readSize >> 1, MIN_READ_SIZE);
+					this.decreaseNow = false;
+				}
+				else {
+					this.decreaseNow = true;
+				}
+			}
+			else {
+				this.decreaseNow = false;
+			}
+		}
+	}
+
 	private static class ResponseBodySubscriber implements Subscriber<DataBuffer> {
 
 		private static final Log logger = LogFactory.getLog(ResponseBodySubscriber.class);
@@ -242,16 +397,29 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 
 		private final int bufferSize;
 
-		private volatile DataBuffer dataBuffer;
+		private final int prefetch;
+
+		private final Queue<DataBuffer> dataBuffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger wip = new AtomicInteger();
 
 		private volatile boolean completed = false;
 
+		private volatile boolean cancelled = false;
+
+		private boolean writeCompleted = false;
+
+		private DataBuffer writtenBuffer;
+
+		private byte[] scratch;
+
 		private Subscription subscription;
 
 		public ResponseBodySubscriber(ServletAsyncContextSynchronizer synchronizer,
-				int bufferSize) {
+				int bufferSize, int prefetch) {
 			this.synchronizer = synchronizer;
 			this.bufferSize = bufferSize;
+			this.prefetch = prefetch;
 		}
 
 		public void registerListener() throws IOException {
@@ -263,113 +431,188 @@ public class ServletHttpHandlerAdapter extends HttpServlet {
 			logger.trace("onSubscribe. Subscription: " + subscription);
 			if (BackpressureUtils.validate(this.subscription, subscription)) {
 				this.subscription = subscription;
-				this.subscription.request(1);
+				this.subscription.request(this.prefetch);
 			}
 		}
 
 		@Override
 		public void onNext(DataBuffer dataBuffer) {
-			Assert.state(this.dataBuffer == null);
-
 			logger.trace("onNext. buffer: " + dataBuffer);
 
-			this.dataBuffer = dataBuffer;
-			try {
-				this.writeListener.onWritePossible();
-			}
-			catch (IOException e) {
-				onError(e);
-			}
+			this.dataBuffers.add(dataBuffer);
+			drain();
 		}
 
 		@Override
 		public void onError(Throwable t) {
 			logger.error("onError", t);
+			this.cancelled = true;
 			HttpServletResponse response =
 					(HttpServletResponse) this.synchronizer.getResponse();
 			response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
 			this.synchronizer.complete();
-
+			drain();
 		}
 
 		@Override
 		public void onComplete() {
-			logger.trace("onComplete. buffer: " + this.dataBuffer);
+			logger.trace("onComplete. buffers: " + this.dataBuffers.size());
 
 			this.completed = true;
+			drain();
+		}
 
-			if (this.dataBuffer != null) {
-				try {
-					this.writeListener.onWritePossible();
+		/**
+		 * Writes queued buffers for as long as the output stream is ready. Called from
+		 * both the publishing thread and the container thread; only one of these writes
+		 * at any time, the other one merely signals that there is more work.
+		 */
+		private void drain() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				if (this.cancelled) {
+					releaseBuffers();
 				}
-				catch (IOException ex) {
-					onError(ex);
+				else {
+					try {
+						writeBuffers();
+					}
+					catch (IOException ex) {
+						this.cancelled = true;
+						this.subscription.cancel();
+						releaseBuffers();
+						onError(ex);
+					}
 				}
+				missed = this.wip.addAndGet(-missed);
 			}
-
-			if (this.dataBuffer == null) {
-				this.synchronizer.writeComplete();
-			}
+			while (missed != 0);
 		}
 
-		private class ResponseBodyWriteListener implements WriteListener {
-
-			@Override
-			public void onWritePossible() throws IOException {
-				logger.trace("onWritePossible");
-				ServletOutputStream output = synchronizer.getResponse().getOutputStream();
-
-				boolean ready = output.isReady();
-				logger.trace("ready: " + ready + " buffer: " + dataBuffer);
-
-				if (ready) {
-					if (dataBuffer != null) {
-
-						int total = dataBuffer.readableByteCount();
-						int written = writeDataBuffer();
-
-						logger.trace("written: " + written + " total: " + total);
-						if (written == total) {
-							releaseBuffer();
-							if (!completed) {
-								subscription.request(1);
-							}
-							else {
-								synchronizer.writeComplete();
-							}
+		private void writeBuffers() throws IOException {
+			ServletOutputStream output = synchronizer.getResponse().getOutputStream();
+			while (true) {
+				DataBuffer dataBuffer = this.dataBuffers.peek();
+				if (dataBuffer == null) {
+					if (this.completed && !this.writeCompleted) {
+						if (this.writtenBuffer != null && !output.isReady()) {
+							return;
 						}
+						releaseWrittenBuffer();
+						this.writeCompleted = true;
+						this.synchronizer.writeComplete();
 					}
-					else if (subscription != null) {
-						subscription.request(1);
-					}
+					return;
+				}
+				boolean ready = output.isReady();
+				logger.trace("ready: " + ready + " buffer: " + dataBuffer);
+				if (!ready) {
+					// the container calls onWritePossible once it is ready again
+					return;
+				}
+				// the output stream is ready, so the container is done with the
+				// previously written buffer
+				releaseWrittenBuffer();
+				if (!writeDataBuffer(output, dataBuffer)) {
+					return;
+				}
+				if (dataBuffer instanceof FlushingDataBuffer) {
+					output.flush();
+				}
+				this.dataBuffers.poll();
+				this.writtenBuffer = dataBuffer;
+				if (!this.completed) {
+					this.subscription.request(1);
 				}
 			}
+		}
 
-			private int writeDataBuffer() throws IOException {
-				InputStream input = dataBuffer.asInputStream();
-				ServletOutputStream output = synchronizer.getResponse().getOutputStream();
-
-				int bytesWritten = 0;
-				byte[] buffer = new byte[bufferSize];
-				int bytesRead = -1;
-
-				while (output.isReady() && (bytesRead = input.read(buffer)) != -1) {
-					output.write(buffer, 0, bytesRead);
-					bytesWritten += bytesRead;
+		/**
+		 * Writes the given buffer to the output stream, and returns whether it was
+		 * written completely. The backing array of heap buffers is written as is, and
+		 * so are direct buffers on Jetty; other buffers are copied through a scratch
+		 * array that is reused for the whole response.
+		 */
+		private boolean writeDataBuffer(ServletOutputStream output, DataBuffer dataBuffer)
+				throws IOException {
+			ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+			if (byteBuffer.hasArray()) {
+				output.write(byteBuffer.array(),
+						byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+				return true;
+			}
+			if (jettyPresent && JettyOutputWriter.write(output, byteBuffer)) {
+				return true;
+			}
+			if (this.scratch == null) {
+				this.scratch = new byte[this.bufferSize];
+			}
+			int remaining = dataBuffer.readableByteCount();
+			while (remaining > 0) {
+				int length = Math.min(remaining, this.scratch.length);
+				dataBuffer.read(this.scratch, 0, length);
+				output.write(this.scratch, 0, length);
+				remaining -= length;
+				if (remaining > 0 && !output.isReady()) {
+					return false;
 				}
+			}
+			return true;
+		}
 
-				return bytesWritten;
+		private void releaseWrittenBuffer() {
+			if (this.writtenBuffer != null) {
+				DataBufferUtils.release(this.writtenBuffer);
+				this.writtenBuffer = null;
 			}
+		}
 
-			private void releaseBuffer() {
+		private void releaseBuffers() {
+			releaseWrittenBuffer();
+			DataBuffer dataBuffer;
+			while ((dataBuffer = this.dataBuffers.poll()) != null) {
 				DataBufferUtils.release(dataBuffer);
-				dataBuffer = null;
+			}
+		}
+
+		private class ResponseBodyWriteListener implements WriteListener {
+
+			@Override
+			public void onWritePossible() throws IOException {
+				logger.trace("onWritePossible");
+				drain();
 			}
 
 			@Override
 			public void onError(Throwable ex) {
 				logger.error("ResponseBodyWriteListener error", ex);
+				cancelled = true;
+				if (subscription != null) {
+					subscription.cancel();
+				}
+				drain();
+			}
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Jetty. Jetty's output stream can write
+	 * a {@code ByteBuffer} as is, so that direct buffers (such as mapped file regions)
+	 * do not have to be copied onto the heap first.
+	 */
+	private static class JettyOutputWriter {
+
+		public static boolean write(ServletOutputStream output, ByteBuffer byteBuffer)
+				throws IOException {
+			if (output instanceof HttpOutput) {
+				((HttpOutput) output).write(byteBuffer);
+				return true;
 			}
+			return false;
 		}
 	}
 
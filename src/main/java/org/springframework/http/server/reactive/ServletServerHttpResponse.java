@@ -16,7 +16,11 @@
 
 package org.springframework.http.server.reactive;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -26,21 +30,31 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseCookie;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.util.Assert;
 
 /**
  * Adapt {@link ServerHttpResponse} to the Servlet {@link HttpServletResponse}.
  *
+ * <p>Files are written as regions mapped into memory, which Jetty writes to the
+ * network as they are, without copying them onto the heap. Tomcat's sendfile support
+ * is not used, as Tomcat ignores it for requests in asynchronous mode.
+ *
  * @author Rossen Stoyanchev
  */
-public class ServletServerHttpResponse extends AbstractServerHttpResponse {
+public class ServletServerHttpResponse extends AbstractServerHttpResponse
+		implements ZeroCopyHttpOutputMessage {
+
+	private static final int FILE_REGION_SIZE = 1024 * 1024;
 
 	private static final Log logger = LogFactory.getLog(ServletServerHttpResponse.class);
 
@@ -72,6 +86,21 @@ public class ServletServerHttpResponse extends AbstractServerHttpResponse {
 		return this.responseBodyWriter.apply(publisher);
 	}
 
+	@Override
+	public Mono<Void> writeWith(File file, long position, long count) {
+		return applyBeforeCommit().then(() -> {
+			try {
+				FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				Flux<DataBuffer> body = DataBufferUtils.readMapped(channel, position,
+						bufferFactory(), FILE_REGION_SIZE);
+				return writeWithInternal(DataBufferUtils.takeUntilByteCount(body, count));
+			}
+			catch (IOException ex) {
+				return Mono.error(ex);
+			}
+		});
+	}
+
 	@Override
 	protected void writeHeaders() {
 		for (Map.Entry<String, List<String>> entry : getHeaders().entrySet()) {
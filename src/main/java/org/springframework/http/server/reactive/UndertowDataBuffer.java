@@ -0,0 +1,279 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import io.undertow.connector.PooledByteBuffer;
+import org.xnio.IoUtils;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.util.Assert;
+
+/**
+ * Implementation of the {@code PooledDataBuffer} interface that is backed by an
+ * Undertow {@link PooledByteBuffer}. The pooled buffer is returned to the
+ * {@link io.undertow.connector.ByteBufferPool ByteBufferPool} it came from, once
+ * the reference count drops to zero.
+ *
+ * <p>Slices share the reference count of the buffer they were created from.
+ *
+ * @see UndertowHttpHandlerAdapter
+ */
+class UndertowDataBuffer implements PooledDataBuffer {
+
+	private final DataBuffer dataBuffer;
+
+	private final PooledByteBuffer pooledByteBuffer;
+
+	private final AtomicInteger refCount;
+
+	private final UndertowDataBuffer parent;
+
+
+	/**
+	 * Creates a new {@code UndertowDataBuffer} that exposes the readable bytes of the
+	 * given pooled buffer, by wrapping them with the given factory.
+	 * @param pooledByteBuffer the pooled buffer, flipped for reading
+	 * @param dataBufferFactory the factory used to wrap the pooled buffer
+	 */
+	UndertowDataBuffer(PooledByteBuffer pooledByteBuffer,
+			DataBufferFactory dataBufferFactory) {
+		Assert.notNull(pooledByteBuffer, "'pooledByteBuffer' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+
+		this.dataBuffer = dataBufferFactory.wrap(pooledByteBuffer.getBuffer());
+		this.pooledByteBuffer = pooledByteBuffer;
+		this.refCount = new AtomicInteger(1);
+		this.parent = null;
+	}
+
+	private UndertowDataBuffer(DataBuffer dataBuffer, UndertowDataBuffer parent) {
+		this.dataBuffer = dataBuffer;
+		this.pooledByteBuffer = null;
+		this.refCount = null;
+		this.parent = parent;
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBuffer.factory();
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		return this.dataBuffer.indexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		return this.dataBuffer.lastIndexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int indexOf(byte value, int fromIndex) {
+		return this.dataBuffer.indexOf(value, fromIndex);
+	}
+
+	@Override
+	public int indexOfAny(byte[] values, int fromIndex) {
+		return this.dataBuffer.indexOfAny(values, fromIndex);
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.dataBuffer.readableByteCount();
+	}
+
+	@Override
+	public int readPosition() {
+		return this.dataBuffer.readPosition();
+	}
+
+	@Override
+	public int writePosition() {
+		return this.dataBuffer.writePosition();
+	}
+
+	@Override
+	public int capacity() {
+		return this.dataBuffer.capacity();
+	}
+
+	@Override
+	public byte getByte(int index) {
+		return this.dataBuffer.getByte(index);
+	}
+
+	@Override
+	public byte read() {
+		return this.dataBuffer.read();
+	}
+
+	@Override
+	public int readInt() {
+		return this.dataBuffer.readInt();
+	}
+
+	@Override
+	public long readLong() {
+		return this.dataBuffer.readLong();
+	}
+
+	@Override
+	public UndertowDataBuffer read(byte[] destination) {
+		this.dataBuffer.read(destination);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer read(byte[] destination, int offset, int length) {
+		this.dataBuffer.read(destination, offset, length);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer write(byte b) {
+		this.dataBuffer.write(b);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer writeInt(int i) {
+		this.dataBuffer.writeInt(i);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer writeLong(long l) {
+		this.dataBuffer.writeLong(l);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer write(byte[] source) {
+		this.dataBuffer.write(source);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer write(byte[] source, int offset, int length) {
+		this.dataBuffer.write(source, offset, length);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer write(DataBuffer... buffers) {
+		this.dataBuffer.write(buffers);
+		return this;
+	}
+
+	@Override
+	public UndertowDataBuffer write(ByteBuffer... buffers) {
+		this.dataBuffer.write(buffers);
+		return this;
+	}
+
+	@Override
+	public ByteBuffer asWritableByteBuffer(int length) {
+		return this.dataBuffer.asWritableByteBuffer(length);
+	}
+
+	@Override
+	public UndertowDataBuffer commitWritableByteBuffer(ByteBuffer byteBuffer) {
+		this.dataBuffer.commitWritableByteBuffer(byteBuffer);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned slice is a {@link PooledDataBuffer} that shares its reference
+	 * count with this buffer.
+	 */
+	@Override
+	public UndertowDataBuffer slice(int index, int length) {
+		UndertowDataBuffer parent = (this.parent != null ? this.parent : this);
+		return new UndertowDataBuffer(this.dataBuffer.slice(index, length), parent);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return this.dataBuffer.asByteBuffer();
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return this.dataBuffer.asInputStream();
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return this.dataBuffer.asOutputStream();
+	}
+
+	@Override
+	public UndertowDataBuffer retain() {
+		if (this.parent != null) {
+			this.parent.retain();
+			return this;
+		}
+		while (true) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released");
+			}
+			if (this.refCount.compareAndSet(count, count + 1)) {
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public boolean release() {
+		if (this.parent != null) {
+			return this.parent.release();
+		}
+		while (true) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released");
+			}
+			if (this.refCount.compareAndSet(count, count - 1)) {
+				if (count == 1) {
+					DataBufferUtils.release(this.dataBuffer);
+					IoUtils.safeClose(this.pooledByteBuffer);
+					return true;
+				}
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "UndertowDataBuffer (" + this.dataBuffer + ")";
+	}
+
+}
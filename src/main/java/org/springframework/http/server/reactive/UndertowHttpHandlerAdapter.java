@@ -18,7 +18,12 @@ package org.springframework.http.server.reactive;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.undertow.connector.ByteBufferPool;
 import io.undertow.connector.PooledByteBuffer;
 import io.undertow.server.HttpServerExchange;
 import org.apache.commons.logging.Log;
@@ -35,6 +40,8 @@ import reactor.core.util.BackpressureUtils;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.FlushingDataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.util.Assert;
 
 /**
@@ -43,6 +50,8 @@ import org.springframework.util.Assert;
  */
 public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandler {
 
+	private static final int DEFAULT_RESPONSE_BODY_PREFETCH = 8;
+
 	private static Log logger = LogFactory.getLog(UndertowHttpHandlerAdapter.class);
 
 
@@ -50,6 +59,8 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 
 	private final DataBufferFactory dataBufferFactory;
 
+	private int responseBodyPrefetch = DEFAULT_RESPONSE_BODY_PREFETCH;
+
 	public UndertowHttpHandlerAdapter(HttpHandler delegate,
 			DataBufferFactory dataBufferFactory) {
 		Assert.notNull(delegate, "'delegate' is required");
@@ -58,6 +69,16 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 		this.dataBufferFactory = dataBufferFactory;
 	}
 
+	/**
+	 * Set the number of response body buffers that are requested ahead of being
+	 * written. Up to this many buffers are written to the channel at once, using a
+	 * gathering write. Defaults to 8.
+	 */
+	public void setResponseBodyPrefetch(int responseBodyPrefetch) {
+		Assert.isTrue(responseBodyPrefetch > 0);
+		this.responseBodyPrefetch = responseBodyPrefetch;
+	}
+
 
 	@Override
 	public void handleRequest(HttpServerExchange exchange) throws Exception {
@@ -69,7 +90,7 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 
 		StreamSinkChannel responseChannel = exchange.getResponseChannel();
 		ResponseBodySubscriber responseBody =
-				new ResponseBodySubscriber(exchange, responseChannel);
+				new ResponseBodySubscriber(exchange, responseChannel, responseBodyPrefetch);
 		responseBody.registerListener();
 		ServerHttpResponse response =
 				new UndertowServerHttpResponse(exchange, responseChannel,
@@ -115,15 +136,16 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 
 		private final StreamSourceChannel requestChannel;
 
+		private final ByteBufferPool byteBufferPool;
+
 		private final DataBufferFactory dataBufferFactory;
 
-		private final PooledByteBuffer pooledByteBuffer;
+		private PooledByteBuffer pooledByteBuffer;
 
 		public RequestBodyPublisher(HttpServerExchange exchange,
 				DataBufferFactory dataBufferFactory) {
 			this.requestChannel = exchange.getRequestChannel();
-			this.pooledByteBuffer =
-					exchange.getConnection().getByteBufferPool().allocate();
+			this.byteBufferPool = exchange.getConnection().getByteBufferPool();
 			this.dataBufferFactory = dataBufferFactory;
 		}
 
@@ -133,10 +155,17 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 		}
 
 		private void close() {
-			IoUtils.safeClose(this.pooledByteBuffer);
+			releasePooledByteBuffer();
 			IoUtils.safeClose(this.requestChannel);
 		}
 
+		private void releasePooledByteBuffer() {
+			if (this.pooledByteBuffer != null) {
+				IoUtils.safeClose(this.pooledByteBuffer);
+				this.pooledByteBuffer = null;
+			}
+		}
+
 		@Override
 		protected void noLongerStalled() {
 			listener.handleEvent(requestChannel);
@@ -152,15 +181,22 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 				}
 				logger.trace("handleEvent");
 				try {
-					final ByteBuffer byteBuffer = pooledByteBuffer.getBuffer();
 					while (checkSubscriptionForDemand()) {
+						// each chunk gets its own pooled buffer, returned to the pool
+						// when the published data buffer is released
+						if (pooledByteBuffer == null) {
+							pooledByteBuffer = byteBufferPool.allocate();
+						}
+						ByteBuffer byteBuffer = pooledByteBuffer.getBuffer();
 
 						final int read = channel.read(byteBuffer);
 						logger.trace("Input read:" + read);
 
 						if(read > 0) { //input ready to transmit
 							byteBuffer.flip();
-							DataBuffer dataBuffer = dataBufferFactory.wrap(byteBuffer);
+							DataBuffer dataBuffer =
+									new UndertowDataBuffer(pooledByteBuffer, dataBufferFactory);
+							pooledByteBuffer = null;
 							publishOnNext(dataBuffer);
 						} else {
 							if(read == -1) {
@@ -175,6 +211,7 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 					}
 				}
 				catch (IOException ex) {
+					releasePooledByteBuffer();
 					publishOnError(ex);
 				}
 			}
@@ -193,21 +230,32 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 
 		private final StreamSinkChannel responseChannel;
 
-		private volatile ByteBuffer byteBuffer;
+		private final int prefetch;
+
+		private final Queue<PendingBuffer> pendingBuffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private final ByteBuffer[] byteBuffers;
 
 		private volatile boolean completed = false;
 
+		private volatile boolean cancelled = false;
+
+		private boolean closed = false;
+
 		private Subscription subscription;
 
 		public ResponseBodySubscriber(HttpServerExchange exchange,
-				StreamSinkChannel responseChannel) {
+				StreamSinkChannel responseChannel, int prefetch) {
 			this.exchange = exchange;
 			this.responseChannel = responseChannel;
+			this.prefetch = prefetch;
+			this.byteBuffers = new ByteBuffer[prefetch];
 		}
 
 		public void registerListener() {
 			this.responseChannel.getWriteSetter().set(listener);
-			this.responseChannel.resumeWrites();
 		}
 
 
@@ -216,16 +264,16 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 			logger.trace("onSubscribe. Subscription: " + subscription);
 			if (BackpressureUtils.validate(this.subscription, subscription)) {
 				this.subscription = subscription;
-				this.subscription.request(1);
+				this.subscription.request(this.prefetch);
 			}
 		}
 
 		@Override
 		public void onNext(DataBuffer dataBuffer) {
-			Assert.state(this.byteBuffer == null);
 			logger.trace("onNext. buffer: " + dataBuffer);
 
-			this.byteBuffer = dataBuffer.asByteBuffer();
+			this.pendingBuffers.add(new PendingBuffer(dataBuffer));
+			drain();
 		}
 
 		@Override
@@ -234,17 +282,108 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 			if (!exchange.isResponseStarted() && exchange.getStatusCode() < 500) {
 				exchange.setStatusCode(500);
 			}
-			closeChannel(responseChannel);
+			this.cancelled = true;
+			drain();
 		}
 
 		@Override
 		public void onComplete() {
-			logger.trace("onComplete. buffer: " + this.byteBuffer);
+			logger.trace("onComplete. buffers: " + this.pendingBuffers.size());
 
 			this.completed = true;
+			drain();
+		}
+
+		/**
+		 * Writes queued buffers for as long as the channel accepts them. Called from
+		 * both the publishing thread and the I/O thread; only one of these writes at
+		 * any time, the other one merely signals that there is more work.
+		 */
+		private void drain() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				if (this.cancelled) {
+					releaseBuffers();
+					close();
+				}
+				else {
+					try {
+						writeBuffers();
+					}
+					catch (IOException ex) {
+						this.subscription.cancel();
+						onError(ex);
+					}
+				}
+				missed = this.wip.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+
+		/**
+		 * Writes up to {@code prefetch} queued buffers at a time, using a gathering
+		 * write. Written buffers are released, and replaced by requesting more.
+		 */
+		private void writeBuffers() throws IOException {
+			while (true) {
+				int count = 0;
+				for (PendingBuffer pendingBuffer : this.pendingBuffers) {
+					if (count == this.byteBuffers.length) {
+						break;
+					}
+					this.byteBuffers[count++] = pendingBuffer.byteBuffer;
+				}
+				if (count == 0) {
+					this.responseChannel.suspendWrites();
+					if (this.completed) {
+						close();
+					}
+					return;
+				}
 
-			if (this.byteBuffer == null) {
-				closeChannel(responseChannel);
+				long written = this.responseChannel.write(this.byteBuffers, 0, count);
+				logger.trace("written: " + written + " buffers: " + count);
+				Arrays.fill(this.byteBuffers, 0, count, null);
+
+				boolean flush = false;
+				int writtenCount = 0;
+				PendingBuffer pendingBuffer;
+				while (writtenCount < count &&
+						(pendingBuffer = this.pendingBuffers.peek()) != null &&
+						!pendingBuffer.byteBuffer.hasRemaining()) {
+					this.pendingBuffers.poll();
+					writtenCount++;
+					flush |= pendingBuffer.dataBuffer instanceof FlushingDataBuffer;
+					DataBufferUtils.release(pendingBuffer.dataBuffer);
+				}
+				if (flush) {
+					this.responseChannel.flush();
+				}
+				if (writtenCount > 0 && !this.completed) {
+					this.subscription.request(writtenCount);
+				}
+				if (writtenCount < count) {
+					// the channel invokes the listener once it is writable again
+					this.responseChannel.resumeWrites();
+					return;
+				}
+			}
+		}
+
+		private void releaseBuffers() {
+			PendingBuffer pendingBuffer;
+			while ((pendingBuffer = this.pendingBuffers.poll()) != null) {
+				DataBufferUtils.release(pendingBuffer.dataBuffer);
+			}
+		}
+
+		private void close() {
+			if (!this.closed) {
+				this.closed = true;
+				closeChannel(this.responseChannel);
 			}
 		}
 
@@ -265,53 +404,31 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 			}
 		}
 
-		private class ResponseBodyListener implements ChannelListener<StreamSinkChannel> {
 
-			@Override
-			public void handleEvent(StreamSinkChannel channel) {
-				if (byteBuffer != null) {
-					try {
-						int total = byteBuffer.remaining();
-						int written = writeByteBuffer(channel);
+		/**
+		 * A buffer to be written, together with the view on its readable bytes that
+		 * tracks how much of it has been written.
+		 */
+		private static class PendingBuffer {
 
-						logger.trace("written: " + written + " total: " + total);
+			private final DataBuffer dataBuffer;
 
-						if (written == total) {
-							releaseBuffer();
-							if (!completed) {
-								subscription.request(1);
-							}
-							else {
-								closeChannel(channel);
-							}
-						}
-					}
-					catch (IOException ex) {
-						onError(ex);
-					}
-				}
-				else if (subscription != null) {
-					subscription.request(1);
-				}
+			private final ByteBuffer byteBuffer;
 
+			public PendingBuffer(DataBuffer dataBuffer) {
+				this.dataBuffer = dataBuffer;
+				this.byteBuffer = dataBuffer.asByteBuffer();
 			}
+		}
 
-			private void releaseBuffer() {
-				byteBuffer = null;
 
-			}
+		private class ResponseBodyListener implements ChannelListener<StreamSinkChannel> {
 
-			private int writeByteBuffer(StreamSinkChannel channel) throws IOException {
-				int written;
-				int totalWritten = 0;
-				do {
-					written = channel.write(byteBuffer);
-					totalWritten += written;
-				}
-				while (byteBuffer.hasRemaining() && written > 0);
-				return totalWritten;
+			@Override
+			public void handleEvent(StreamSinkChannel channel) {
+				logger.trace("handleEvent");
+				drain();
 			}
-
 		}
 
 	}
@@ -54,8 +54,7 @@ public class RxJava1WebResponseExtractors {
 		ResolvableType resolvableType = ResolvableType.forClass(sourceClass);
 		//noinspection unchecked
 		return webResponse -> (Single<T>) RxJava1SingleConverter.from(webResponse.getClientResponse()
-				.flatMap(resp -> decodeResponseBody(resp, resolvableType, webResponse.getMessageDecoders()))
-				.next());
+				.then(resp -> decodeResponseBodyToMono(resp, resolvableType, webResponse.getMessageDecoders())));
 	}
 
 	/**
@@ -79,7 +78,7 @@ public class RxJava1WebResponseExtractors {
 				RxJava1SingleConverter.from(webResponse.getClientResponse()
 						.then(response ->
 								Mono.when(
-										decodeResponseBody(response, resolvableType, webResponse.getMessageDecoders()).next(),
+										decodeResponseBodyToMono(response, resolvableType, webResponse.getMessageDecoders()),
 										Mono.just(response.getHeaders()),
 										Mono.just(response.getStatusCode())))
 						.map(tuple -> {
@@ -124,6 +123,19 @@ public class RxJava1WebResponseExtractors {
 	}
 
 
+	@SuppressWarnings("unchecked")
+	protected static <T> Mono<T> decodeResponseBodyToMono(ClientHttpResponse response,
+			ResolvableType responseType, List<Decoder<?>> messageDecoders) {
+
+		MediaType contentType = response.getHeaders().getContentType();
+		Optional<Decoder<?>> decoder = resolveDecoder(messageDecoders, responseType, contentType);
+		if (!decoder.isPresent()) {
+			return Mono.error(new IllegalStateException("Could not decode response body of type '" + contentType +
+					"' with target type '" + responseType.toString() + "'"));
+		}
+		return (Mono<T>) decoder.get().decodeToMono(response.getBody(), responseType, contentType, HINTS);
+	}
+
 	protected static Optional<Decoder<?>> resolveDecoder(List<Decoder<?>> messageDecoders, ResolvableType type,
 			MediaType mediaType) {
 		return messageDecoders.stream().filter(e -> e.canDecode(type, mediaType)).findFirst();
@@ -17,6 +17,7 @@
 package org.springframework.web.client.reactive;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -28,6 +29,8 @@ import org.springframework.core.codec.support.ByteBufferDecoder;
 import org.springframework.core.codec.support.ByteBufferEncoder;
 import org.springframework.core.codec.support.JacksonJsonDecoder;
 import org.springframework.core.codec.support.JacksonJsonEncoder;
+import org.springframework.core.codec.support.JacksonNdJsonDecoder;
+import org.springframework.core.codec.support.JacksonNdJsonEncoder;
 import org.springframework.core.codec.support.JsonObjectDecoder;
 import org.springframework.core.codec.support.StringDecoder;
 import org.springframework.core.codec.support.StringEncoder;
@@ -35,6 +38,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.http.client.reactive.ClientHttpRequestFactory;
 import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.web.reactive.sse.SseEventDecoder;
 
 /**
  * Reactive Web client supporting the HTTP/1.1 protocol
@@ -77,6 +81,8 @@ public final class WebClient {
 	 *     <li>{@link ByteBufferEncoder} / {@link ByteBufferDecoder}</li>
 	 *     <li>{@link StringEncoder} / {@link StringDecoder}</li>
 	 *     <li>{@link JacksonJsonEncoder} / {@link JacksonJsonDecoder}</li>
+	 *     <li>{@link JacksonNdJsonEncoder} / {@link JacksonNdJsonDecoder}</li>
+	 *     <li>{@link SseEventDecoder}</li>
 	 * </ul>
 	 *
 	 * @param requestFactory the {@code ClientHttpRequestFactory} to use
@@ -84,9 +90,12 @@ public final class WebClient {
 	public WebClient(ClientHttpRequestFactory requestFactory) {
 		this.requestFactory = requestFactory;
 		this.messageEncoders = Arrays.asList(new ByteBufferEncoder(), new StringEncoder(),
-				new JacksonJsonEncoder());
-		this.messageDecoders = Arrays.asList(new ByteBufferDecoder(), new StringDecoder(),
-				new JacksonJsonDecoder(new JsonObjectDecoder()));
+				new JacksonJsonEncoder(), new JacksonNdJsonEncoder());
+		JacksonJsonDecoder jsonDecoder = new JacksonJsonDecoder(new JsonObjectDecoder());
+		// the event stream decoder comes before the string decoder, which accepts text/*
+		this.messageDecoders = Arrays.asList(new ByteBufferDecoder(),
+				new SseEventDecoder(Collections.singletonList(jsonDecoder)),
+				new StringDecoder(), jsonDecoder, new JacksonNdJsonDecoder());
 	}
 
 	/**
@@ -52,8 +52,7 @@ public class WebResponseExtractors {
 	public static <T> WebResponseExtractor<Mono<T>> body(ResolvableType bodyType) {
 		//noinspection unchecked
 		return webResponse -> (Mono<T>) webResponse.getClientResponse()
-				.flatMap(resp -> decodeResponseBody(resp, bodyType, webResponse.getMessageDecoders()))
-				.next();
+				.then(resp -> decodeResponseBodyToMono(resp, bodyType, webResponse.getMessageDecoders()));
 	}
 
 	/**
@@ -92,7 +91,7 @@ public class WebResponseExtractors {
 				.then(response -> {
 					List<Decoder<?>> decoders = webResponse.getMessageDecoders();
 					return Mono.when(
-							decodeResponseBody(response, bodyType, decoders).next().defaultIfEmpty(EMPTY_BODY),
+							decodeResponseBodyToMono(response, bodyType, decoders).defaultIfEmpty(EMPTY_BODY),
 							Mono.just(response.getHeaders()),
 							Mono.just(response.getStatusCode()));
 				})
@@ -154,6 +153,19 @@ public class WebResponseExtractors {
 	}
 
 
+	@SuppressWarnings("unchecked")
+	protected static <T> Mono<T> decodeResponseBodyToMono(ClientHttpResponse response,
+			ResolvableType responseType, List<Decoder<?>> messageDecoders) {
+
+		MediaType contentType = response.getHeaders().getContentType();
+		Optional<Decoder<?>> decoder = resolveDecoder(messageDecoders, responseType, contentType);
+		if (!decoder.isPresent()) {
+			return Mono.error(new IllegalStateException("Could not decode response body of type '" + contentType +
+					"' with target type '" + responseType.toString() + "'"));
+		}
+		return (Mono<T>) decoder.get().decodeToMono(response.getBody(), responseType, contentType, HINTS);
+	}
+
 	protected static Optional<Decoder<?>> resolveDecoder(List<Decoder<?>> messageDecoders, ResolvableType type,
 			MediaType mediaType) {
 		return messageDecoders.stream().filter(e -> e.canDecode(type, mediaType)).findFirst();
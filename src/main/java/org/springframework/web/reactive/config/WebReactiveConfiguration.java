@@ -34,6 +34,8 @@ import org.springframework.core.codec.support.ByteBufferDecoder;
 import org.springframework.core.codec.support.ByteBufferEncoder;
 import org.springframework.core.codec.support.JacksonJsonDecoder;
 import org.springframework.core.codec.support.JacksonJsonEncoder;
+import org.springframework.core.codec.support.JacksonNdJsonDecoder;
+import org.springframework.core.codec.support.JacksonNdJsonEncoder;
 import org.springframework.core.codec.support.Jaxb2Decoder;
 import org.springframework.core.codec.support.Jaxb2Encoder;
 import org.springframework.core.codec.support.JsonObjectDecoder;
@@ -62,6 +64,8 @@ import org.springframework.web.reactive.result.method.annotation.RequestMappingH
 import org.springframework.web.reactive.result.method.annotation.ResponseBodyResultHandler;
 import org.springframework.web.reactive.result.view.ViewResolutionResultHandler;
 import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.reactive.sse.SseEventDecoder;
+import org.springframework.web.reactive.sse.SseEventEncoder;
 
 /**
  * The main class for Spring Web Reactive configuration.
@@ -243,13 +247,21 @@ public class WebReactiveConfiguration implements ApplicationContextAware {
 		converters.add(converter(new ByteBufferEncoder(), new ByteBufferDecoder()));
 		converters.add(converter(new StringEncoder(), new StringDecoder()));
 		converters.add(new ResourceHttpMessageConverter());
+		List<Encoder<?>> sseDataEncoders = new ArrayList<>();
+		List<Decoder<?>> sseDataDecoders = new ArrayList<>();
 		if (jaxb2Present) {
 			converters.add(converter(new Jaxb2Encoder(), new Jaxb2Decoder()));
 		}
 		if (jackson2Present) {
-			JsonObjectDecoder objectDecoder = new JsonObjectDecoder();
-			converters.add(converter(new JacksonJsonEncoder(), new JacksonJsonDecoder(objectDecoder)));
+			JacksonJsonEncoder jsonEncoder = new JacksonJsonEncoder();
+			JacksonJsonDecoder jsonDecoder = new JacksonJsonDecoder(new JsonObjectDecoder());
+			converters.add(converter(jsonEncoder, jsonDecoder));
+			converters.add(converter(new JacksonNdJsonEncoder(), new JacksonNdJsonDecoder()));
+			sseDataEncoders.add(jsonEncoder);
+			sseDataDecoders.add(jsonDecoder);
 		}
+		converters.add(converter(new SseEventEncoder(sseDataEncoders),
+				new SseEventDecoder(sseDataDecoders)));
 	}
 
 	private static <T> HttpMessageConverter<T> converter(Encoder<T> encoder, Decoder<T> decoder) {
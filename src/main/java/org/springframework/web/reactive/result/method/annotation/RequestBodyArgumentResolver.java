@@ -131,23 +131,26 @@ public class RequestBodyArgumentResolver implements HandlerMethodArgumentResolve
 
 		for (HttpMessageConverter<?> converter : getMessageConverters()) {
 			if (converter.canRead(elementType, mediaType)) {
+				if (Mono.class.equals(type.getRawClass()) || !isAsyncType) {
+					// single value: let the converter read the body as a whole
+					Mono<?> elementMono = converter.readMono(elementType, exchange.getRequest());
+					if (this.validator != null) {
+						elementMono = Mono.from(applyValidationIfApplicable(Flux.from(elementMono), parameter));
+					}
+					return (isAsyncType ? Mono.just(elementMono) : elementMono.map(o -> o));
+				}
+
 				Flux<?> elementFlux = converter.read(elementType, exchange.getRequest());
 
 				if (this.validator != null) {
 					elementFlux= applyValidationIfApplicable(elementFlux, parameter);
 				}
 
-				if (Mono.class.equals(type.getRawClass())) {
-					return Mono.just(Mono.from(elementFlux));
-				}
-				else if (Flux.class.equals(type.getRawClass())) {
+				if (Flux.class.equals(type.getRawClass())) {
 					return Mono.just(elementFlux);
 				}
-				else if (isAsyncType) {
-					return Mono.just(getConversionService().convert(elementFlux, type.getRawClass()));
-				}
 				else {
-					return elementFlux.next().map(o -> o);
+					return Mono.just(getConversionService().convert(elementFlux, type.getRawClass()));
 				}
 			}
 		}
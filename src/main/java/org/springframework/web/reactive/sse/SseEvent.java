@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.sse;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Representation of a Server-Sent Event, as written by {@link SseEventEncoder} and read
+ * by {@link SseEventDecoder}. Elements of a stream that are not {@code SseEvent}s are
+ * written as events that only have {@linkplain #setData data}.
+ *
+ * @see <a href="https://www.w3.org/TR/eventsource/">Server-Sent Events W3C recommendation</a>
+ */
+public class SseEvent {
+
+	private String id;
+
+	private String name;
+
+	private Object data;
+
+	private MediaType mediaType;
+
+	private Long reconnectTime;
+
+	private String comment;
+
+
+	/**
+	 * Create an empty instance.
+	 */
+	public SseEvent() {
+	}
+
+	/**
+	 * Create an instance with the provided {@code data}.
+	 */
+	public SseEvent(Object data) {
+		this.data = data;
+	}
+
+	/**
+	 * Create an instance with the provided {@code data} and {@code mediaType}.
+	 */
+	public SseEvent(Object data, MediaType mediaType) {
+		this.data = data;
+		this.mediaType = mediaType;
+	}
+
+
+	/**
+	 * Set the {@code id} SSE field.
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see #setId(String)
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Set the {@code event} SSE field.
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @see #setName(String)
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Set the {@code data} SSE field. A {@code String} is written as is, other objects
+	 * are serialized by the first data encoder that supports them and the
+	 * {@linkplain #setMediaType media type}. Multi-line data is written as one
+	 * {@code data} field per line.
+	 */
+	public void setData(Object data) {
+		this.data = data;
+	}
+
+	/**
+	 * @see #setData(Object)
+	 */
+	public Object getData() {
+		return this.data;
+	}
+
+	/**
+	 * Set the media type used to serialize the {@linkplain #setData data}. When not
+	 * set, {@code application/json} is used for objects other than strings.
+	 */
+	public void setMediaType(MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * @see #setMediaType(MediaType)
+	 */
+	public MediaType getMediaType() {
+		return this.mediaType;
+	}
+
+	/**
+	 * Set the {@code retry} SSE field: the time in milliseconds the client should wait
+	 * before reconnecting, when the connection is lost.
+	 */
+	public void setReconnectTime(Long reconnectTime) {
+		this.reconnectTime = reconnectTime;
+	}
+
+	/**
+	 * @see #setReconnectTime(Long)
+	 */
+	public Long getReconnectTime() {
+		return this.reconnectTime;
+	}
+
+	/**
+	 * Set an SSE comment, which is ignored by clients. Multi-line comments are written
+	 * as one comment line per line.
+	 */
+	public void setComment(String comment) {
+		this.comment = comment;
+	}
+
+	/**
+	 * @see #setComment(String)
+	 */
+	public String getComment() {
+		return this.comment;
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof SseEvent)) {
+			return false;
+		}
+		SseEvent otherEvent = (SseEvent) other;
+		return ObjectUtils.nullSafeEquals(this.id, otherEvent.id) &&
+				ObjectUtils.nullSafeEquals(this.name, otherEvent.name) &&
+				ObjectUtils.nullSafeEquals(this.data, otherEvent.data) &&
+				ObjectUtils.nullSafeEquals(this.mediaType, otherEvent.mediaType) &&
+				ObjectUtils.nullSafeEquals(this.reconnectTime, otherEvent.reconnectTime) &&
+				ObjectUtils.nullSafeEquals(this.comment, otherEvent.comment);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = ObjectUtils.nullSafeHashCode(this.id);
+		result = 31 * result + ObjectUtils.nullSafeHashCode(this.name);
+		result = 31 * result + ObjectUtils.nullSafeHashCode(this.data);
+		result = 31 * result + ObjectUtils.nullSafeHashCode(this.mediaType);
+		result = 31 * result + ObjectUtils.nullSafeHashCode(this.reconnectTime);
+		result = 31 * result + ObjectUtils.nullSafeHashCode(this.comment);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "SseEvent [id=" + this.id + ", name=" + this.name + ", data=" + this.data +
+				", mediaType=" + this.mediaType + ", reconnectTime=" + this.reconnectTime +
+				", comment=" + this.comment + "]";
+	}
+
+}
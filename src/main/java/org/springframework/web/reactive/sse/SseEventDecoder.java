@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.sse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.support.AbstractDecoder;
+import org.springframework.core.codec.support.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * Decode from a byte stream of Server-Sent Events ({@code text/event-stream}) to a
+ * stream of {@code Object}s.
+ *
+ * <p>When decoding to {@link SseEvent}, the events are emitted with their data as a
+ * {@code String}. When decoding to {@code String}, the data of each event is emitted.
+ * Other types are deserialized from the data of each event by the first of the data
+ * decoders that supports them and {@code application/json}. Comments, such as the
+ * heartbeats written by {@link SseEventEncoder}, and events without data are skipped.
+ *
+ * <p>Unlike other decoders, this decoder does not accept a {@code null} mime type, so
+ * that it is only used for streams that are known to be event streams.
+ *
+ * @see SseEventEncoder
+ */
+public class SseEventDecoder extends AbstractDecoder<Object> {
+
+	private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+	private final StringDecoder lineDecoder = new StringDecoder();
+
+	private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private final List<Decoder<?>> dataDecoders;
+
+
+	/**
+	 * Create a new decoder.
+	 * @param dataDecoders the decoders used to deserialize the data of events
+	 */
+	public SseEventDecoder(List<Decoder<?>> dataDecoders) {
+		super(new MimeType("text", "event-stream", StandardCharsets.UTF_8));
+		Assert.notNull(dataDecoders, "'dataDecoders' must not be null");
+		this.dataDecoders = dataDecoders;
+	}
+
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, MimeType mimeType, Object... hints) {
+		return mimeType != null && super.canDecode(elementType, mimeType, hints);
+	}
+
+	@Override
+	public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			MimeType mimeType, Object... hints) {
+
+		Flux<SseEvent> events = Flux.defer(() -> {
+			EventParser parser = new EventParser();
+			return this.lineDecoder.decode(inputStream, STRING_TYPE, mimeType)
+					.concatMapIterable(parser::parseLine);
+		});
+		Class<?> elementClass = (elementType != null ? elementType.getRawClass() : null);
+		if (SseEvent.class.equals(elementClass)) {
+			return events.map(event -> event);
+		}
+		else if (String.class.equals(elementClass)) {
+			return events.map(SseEvent::getData);
+		}
+		return events.concatMap(event -> decodeData((String) event.getData(), elementType));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Flux<Object> decodeData(String data, ResolvableType elementType) {
+		Optional<Decoder<?>> decoder = this.dataDecoders.stream()
+				.filter(d -> d.canDecode(elementType, MediaType.APPLICATION_JSON))
+				.findFirst();
+		if (!decoder.isPresent()) {
+			return Flux.error(new CodecException("No suitable decoder found for data " +
+					"of type " + elementType));
+		}
+		DataBuffer dataBuffer =
+				this.bufferFactory.wrap(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8)));
+		return ((Decoder<Object>) decoder.get())
+				.decode(Flux.just(dataBuffer), elementType, MediaType.APPLICATION_JSON);
+	}
+
+
+	/**
+	 * Per-subscription parser of event stream lines, as emitted by {@link StringDecoder}.
+	 * Collects the fields of the current event until a blank line dispatches it.
+	 */
+	private static class EventParser {
+
+		private final StringBuilder data = new StringBuilder();
+
+		private SseEvent event = new SseEvent();
+
+		private boolean hasData;
+
+		private boolean previousEndedWithCr;
+
+		public List<SseEvent> parseLine(String line) {
+			// a CRLF split between lines results in a line with only the LF
+			boolean skip = this.previousEndedWithCr && line.equals("\n");
+			this.previousEndedWithCr = line.endsWith("\r");
+			if (skip) {
+				return Collections.emptyList();
+			}
+			line = stripLineSeparator(line);
+			if (line.isEmpty()) {
+				return dispatch();
+			}
+			if (line.charAt(0) == ':') {
+				return Collections.emptyList();
+			}
+			int colon = line.indexOf(':');
+			String field = (colon != -1 ? line.substring(0, colon) : line);
+			String value = "";
+			if (colon != -1) {
+				int start = colon + 1;
+				if (start < line.length() && line.charAt(start) == ' ') {
+					start++;
+				}
+				value = line.substring(start);
+			}
+			switch (field) {
+				case "data":
+					this.data.append(value).append('\n');
+					this.hasData = true;
+					break;
+				case "id":
+					this.event.setId(value);
+					break;
+				case "event":
+					this.event.setName(value);
+					break;
+				case "retry":
+					try {
+						this.event.setReconnectTime(Long.valueOf(value));
+					}
+					catch (NumberFormatException ex) {
+						// ignored, as required by the specification
+					}
+					break;
+				default:
+					// unknown fields are ignored
+			}
+			return Collections.emptyList();
+		}
+
+		private static String stripLineSeparator(String line) {
+			int end = line.length();
+			while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) {
+				end--;
+			}
+			return line.substring(0, end);
+		}
+
+		private List<SseEvent> dispatch() {
+			List<SseEvent> result = Collections.emptyList();
+			if (this.hasData) {
+				// the last line feed is not part of the data
+				this.data.setLength(this.data.length() - 1);
+				this.event.setData(this.data.toString());
+				result = Collections.singletonList(this.event);
+			}
+			this.event = new SseEvent();
+			this.data.setLength(0);
+			this.hasData = false;
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.sse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.codec.support.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.FlushingDataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * Encode from an {@code Object} stream to a byte stream of Server-Sent Events
+ * ({@code text/event-stream}).
+ *
+ * <p>Elements can be {@link SseEvent}s, or plain objects that are written as the data
+ * of an event. String data is written as is; other data is serialized by the first of
+ * the data encoders that supports it, using {@code application/json} unless the event
+ * specifies another {@linkplain SseEvent#setMediaType media type}.
+ *
+ * <p>Every event is followed by a {@link FlushingDataBuffer}, so that it reaches the
+ * client right away. While the stream is open, a comment line is written every
+ * {@linkplain #setHeartbeatInterval heartbeat interval}, to keep idle connections from
+ * being closed by proxies.
+ *
+ * @see SseEventDecoder
+ */
+public class SseEventEncoder extends AbstractEncoder<Object> {
+
+	/**
+	 * The default interval between heartbeat comments.
+	 */
+	public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+	private static final byte[] ID_FIELD = "id:".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] EVENT_FIELD = "event:".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] RETRY_FIELD = "retry:".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] DATA_FIELD = "data:".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] COMMENT = ":".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte NEWLINE = '\n';
+
+	private static final byte[] HEARTBEAT = ":\n".getBytes(StandardCharsets.UTF_8);
+
+	private static final DataBufferFactory HEARTBEAT_BUFFER_FACTORY =
+			new DefaultDataBufferFactory();
+
+	// distinct from FlushingDataBuffer.INSTANCE, which follows every event
+	private static final DataBuffer END_OF_STREAM = HEARTBEAT_BUFFER_FACTORY.allocateBuffer(0);
+
+
+	private final List<Encoder<?>> dataEncoders;
+
+	private Duration heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
+
+
+	/**
+	 * Create a new encoder.
+	 * @param dataEncoders the encoders used to serialize the data of events
+	 */
+	public SseEventEncoder(List<Encoder<?>> dataEncoders) {
+		super(new MimeType("text", "event-stream", StandardCharsets.UTF_8));
+		Assert.notNull(dataEncoders, "'dataEncoders' must not be null");
+		this.dataEncoders = dataEncoders;
+	}
+
+
+	/**
+	 * Set the interval between the heartbeat comments written while the stream is open,
+	 * or {@code null} to write no heartbeats.
+	 * <p>By default this is set to {@link #DEFAULT_HEARTBEAT_INTERVAL}.
+	 */
+	public void setHeartbeatInterval(Duration heartbeatInterval) {
+		this.heartbeatInterval = heartbeatInterval;
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, MimeType mimeType, Object... hints) {
+
+		Flux<DataBuffer> events = Flux.from(inputStream)
+				.concatMap(value -> encodeEvent(value, bufferFactory, elementType));
+		if (this.heartbeatInterval == null) {
+			return events;
+		}
+		Flux<DataBuffer> heartbeats = Flux.interval(this.heartbeatInterval)
+				.onBackpressureDrop()
+				.concatMapIterable(tick -> Arrays.asList(heartbeat(), FlushingDataBuffer.INSTANCE));
+		// the end marker stops the heartbeats once all events have been written
+		return Flux.merge(events.concatWith(Mono.just(END_OF_STREAM)), heartbeats)
+				.takeWhile(dataBuffer -> dataBuffer != END_OF_STREAM);
+	}
+
+	private Flux<DataBuffer> encodeEvent(Object value, DataBufferFactory bufferFactory,
+			ResolvableType elementType) {
+
+		SseEvent event;
+		ResolvableType dataType;
+		if (value instanceof SseEvent) {
+			event = (SseEvent) value;
+			dataType = (event.getData() != null ?
+					ResolvableType.forClass(event.getData().getClass()) : null);
+		}
+		else {
+			event = new SseEvent(value);
+			dataType = elementType;
+		}
+
+		Object data = event.getData();
+		Mono<byte[]> dataBytes;
+		if (data == null) {
+			dataBytes = Mono.empty();
+		}
+		else if (data instanceof String) {
+			dataBytes = Mono.just(((String) data).getBytes(StandardCharsets.UTF_8));
+		}
+		else {
+			dataBytes = serializeData(data, dataType, event.getMediaType(), bufferFactory);
+		}
+
+		return dataBytes
+				.map(bytes -> writeEvent(event, bytes, bufferFactory))
+				.otherwiseIfEmpty(Mono.fromCallable(() -> writeEvent(event, null, bufferFactory)))
+				.flux()
+				.concatWith(Mono.just(FlushingDataBuffer.INSTANCE));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Mono<byte[]> serializeData(Object data, ResolvableType dataType,
+			MediaType mediaType, DataBufferFactory bufferFactory) {
+
+		MediaType dataMediaType = (mediaType != null ? mediaType : MediaType.APPLICATION_JSON);
+		Optional<Encoder<?>> encoder = this.dataEncoders.stream()
+				.filter(e -> e.canEncode(dataType, dataMediaType))
+				.findFirst();
+		if (!encoder.isPresent()) {
+			return Mono.error(new CodecException("No suitable encoder found for data " +
+					"of type " + dataType + " and media type " + dataMediaType));
+		}
+		Flux<DataBuffer> dataBuffers = ((Encoder<Object>) encoder.get())
+				.encode(Mono.just(data), bufferFactory, dataType, dataMediaType);
+		return DataBufferUtils.join(dataBuffers).map(dataBuffer -> {
+			byte[] bytes = new byte[dataBuffer.readableByteCount()];
+			dataBuffer.read(bytes);
+			DataBufferUtils.release(dataBuffer);
+			return bytes;
+		});
+	}
+
+	private DataBuffer writeEvent(SseEvent event, byte[] data, DataBufferFactory bufferFactory) {
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		if (event.getId() != null) {
+			writeField(buffer, ID_FIELD, event.getId().getBytes(StandardCharsets.UTF_8));
+		}
+		if (event.getName() != null) {
+			writeField(buffer, EVENT_FIELD, event.getName().getBytes(StandardCharsets.UTF_8));
+		}
+		if (event.getReconnectTime() != null) {
+			writeField(buffer, RETRY_FIELD,
+					event.getReconnectTime().toString().getBytes(StandardCharsets.UTF_8));
+		}
+		if (event.getComment() != null) {
+			writeField(buffer, COMMENT, event.getComment().getBytes(StandardCharsets.UTF_8));
+		}
+		if (data != null) {
+			writeField(buffer, DATA_FIELD, data);
+		}
+		return buffer.write(NEWLINE);
+	}
+
+	/**
+	 * Write the given value as one field line per line in the value, as the line
+	 * separators CR, LF and CRLF cannot be part of a field.
+	 */
+	private static void writeField(DataBuffer buffer, byte[] field, byte[] value) {
+		int start = 0;
+		for (int i = 0; i <= value.length; i++) {
+			if (i == value.length || value[i] == '\n' || value[i] == '\r') {
+				buffer.write(field);
+				buffer.write(value, start, i - start);
+				buffer.write(NEWLINE);
+				if (i + 1 < value.length && value[i] == '\r' && value[i + 1] == '\n') {
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+	}
+
+	/**
+	 * Return a heartbeat comment. It wraps a constant, rather than being allocated by
+	 * the buffer factory, so heartbeats that are dropped on cancellation do not leak.
+	 */
+	private static DataBuffer heartbeat() {
+		return HEARTBEAT_BUFFER_FACTORY.wrap(ByteBuffer.wrap(HEARTBEAT));
+	}
+
+}
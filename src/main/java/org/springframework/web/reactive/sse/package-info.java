@@ -0,0 +1,5 @@
+/**
+ * Support for Server-Sent Events, as defined by the
+ * <a href="https://www.w3.org/TR/eventsource/">EventSource</a> specification.
+ */
+package org.springframework.web.reactive.sse;
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.test.TestSubscriber;
+
+public class AvailableElementsBatcherTests {
+
+	@Test
+	public void synchronousElementsInOneBatch() {
+		Flux<List<Integer>> batches =
+				Flux.from(new AvailableElementsBatcher<>(Flux.range(0, 10), 4));
+
+		TestSubscriber
+				.subscribe(batches)
+				.assertValues(Arrays.asList(0, 1, 2, 3), Arrays.asList(4, 5, 6, 7),
+						Arrays.asList(8, 9))
+				.assertComplete();
+	}
+
+	@Test
+	public void elementsEmittedWhenAvailable() {
+		EmitterProcessor<Integer> source = EmitterProcessor.create();
+		source.connect();
+		Flux<List<Integer>> batches = Flux.from(new AvailableElementsBatcher<>(source, 4));
+
+		TestSubscriber<List<Integer>> subscriber = TestSubscriber.subscribe(batches);
+		source.onNext(1);
+		subscriber.assertValues(Arrays.asList(1));
+		source.onNext(2);
+		source.onComplete();
+		subscriber.assertValues(Arrays.asList(1), Arrays.asList(2)).assertComplete();
+	}
+
+	@Test
+	public void demand() {
+		Flux<List<Integer>> batches =
+				Flux.from(new AvailableElementsBatcher<>(Flux.range(0, 10), 4));
+
+		TestSubscriber<List<Integer>> subscriber = TestSubscriber.subscribe(batches, 0);
+		subscriber.assertNoValues();
+		subscriber.request(1);
+		subscriber.assertValues(Arrays.asList(0, 1, 2, 3));
+		subscriber.request(2);
+		subscriber.assertValueCount(3).assertComplete();
+	}
+
+	@Test
+	public void error() {
+		Flux<Integer> source = Flux.concat(Flux.just(1),
+				Flux.<Integer>error(new IllegalStateException()));
+		Flux<List<Integer>> batches = Flux.from(new AvailableElementsBatcher<>(source, 4));
+
+		TestSubscriber
+				.subscribe(batches)
+				.assertNoValues()
+				.assertError(IllegalStateException.class);
+	}
+
+}
@@ -28,6 +28,7 @@ import reactor.core.test.TestSubscriber;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.http.MediaType;
 
 import static org.junit.Assert.*;
@@ -70,10 +71,12 @@ public class ByteBufferEncoderTests extends AbstractDataBufferAllocatingTestCase
 					byte[] buf = new byte[3];
 					b.read(buf);
 					assertArrayEquals(fooBytes, buf);
+					DataBufferUtils.release(b);
 				}, b -> {
 					byte[] buf = new byte[3];
 					b.read(buf);
 					assertArrayEquals(barBytes, buf);
+					DataBufferUtils.release(b);
 				});
 	}
 
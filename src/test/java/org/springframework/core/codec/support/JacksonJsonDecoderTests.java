@@ -23,13 +23,16 @@ import java.util.List;
 import org.junit.Ignore;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -59,7 +62,6 @@ public class JacksonJsonDecoderTests extends AbstractDataBufferAllocatingTestCas
 	}
 
 	@Test
-	@Ignore // Issues 112 (no generic type), otherwise works
 	public void decodeToListWithoutObjectDecoder() throws Exception {
 		Flux<DataBuffer> source = Flux.just(stringBuffer(
 				"[{\"bar\":\"b1\",\"foo\":\"f1\"},{\"bar\":\"b2\",\"foo\":\"f2\"}]"));
@@ -111,6 +113,63 @@ public class JacksonJsonDecoderTests extends AbstractDataBufferAllocatingTestCas
 				assertValues(new Pojo("f1", "b1"), new Pojo("f2", "b2"));
 	}
 
+	@Test
+	public void decodeToArrayWithoutObjectDecoder() throws Exception {
+		Flux<DataBuffer> source = Flux.just(stringBuffer(
+				"[{\"bar\":\"b1\",\"foo\":\"f1\"},{\"bar\":\"b2\",\"foo\":\"f2\"}]"));
+
+		ResolvableType elementType = ResolvableType.forClass(Pojo[].class);
+		Flux<Object> flux = new JacksonJsonDecoder().decode(source, elementType, null);
+
+		TestSubscriber.subscribe(flux).assertNoError().assertComplete().
+				assertValuesWith(value -> assertArrayEquals(
+						new Pojo[]{new Pojo("f1", "b1"), new Pojo("f2", "b2")}, (Pojo[]) value));
+	}
+
+	@Test
+	public void decodeInvalidJson() throws Exception {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"foo\": "));
+		ResolvableType elementType = ResolvableType.forClass(Pojo.class);
+		Flux<Object> flux = new JacksonJsonDecoder().decode(source, elementType, null);
+
+		TestSubscriber.subscribe(flux).assertError(CodecException.class);
+	}
+
+	@Test
+	public void decodeToMonoWithObjectDecoder() throws Exception {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"foo\": \"foofoo\", "),
+				stringBuffer("\"bar\": \"barbar\"}"));
+		ResolvableType elementType = ResolvableType.forClass(Pojo.class);
+		Mono<Object> mono = new JacksonJsonDecoder(new JsonObjectDecoder())
+				.decodeToMono(source, elementType, null);
+
+		TestSubscriber.subscribe(mono).assertNoError().assertComplete().
+				assertValues(new Pojo("foofoo", "barbar"));
+	}
+
+	@Test
+	public void decodeToMonoListWithObjectDecoder() throws Exception {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"bar\":\"b1\",\"foo\":\"f1\"},"),
+				stringBuffer("{\"bar\":\"b2\",\"foo\":\"f2\"}]"));
+
+		Method method = getClass().getDeclaredMethod("handle", List.class);
+		ResolvableType elementType = ResolvableType.forMethodParameter(method, 0);
+		Mono<Object> mono = new JacksonJsonDecoder(new JsonObjectDecoder())
+				.decodeToMono(source, elementType, null);
+
+		TestSubscriber.subscribe(mono).assertNoError().assertComplete().
+				assertValues(Arrays.asList(new Pojo("f1", "b1"), new Pojo("f2", "b2")));
+	}
+
+	@Test
+	public void decodeToMonoEmpty() throws Exception {
+		ResolvableType elementType = ResolvableType.forClass(Pojo.class);
+		Mono<Object> mono = new JacksonJsonDecoder(new JsonObjectDecoder())
+				.decodeToMono(Flux.empty(), elementType, null);
+
+		TestSubscriber.subscribe(mono).assertNoError().assertComplete().assertNoValues();
+	}
+
 	@SuppressWarnings("unused")
 	void handle(List<Pojo> list) {
 	}
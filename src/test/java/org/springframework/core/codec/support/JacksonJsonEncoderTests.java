@@ -16,13 +16,20 @@
 
 package org.springframework.core.codec.support;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.test.TestSubscriber;
 
+import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
 import org.springframework.http.MediaType;
 
 import static org.junit.Assert.assertFalse;
@@ -57,11 +64,68 @@ public class JacksonJsonEncoderTests extends AbstractDataBufferAllocatingTestCas
 				.subscribe(output)
 				.assertComplete()
 				.assertNoError()
-				.assertValuesWith(stringConsumer("["),
-						stringConsumer("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}"),
-						stringConsumer(","),
-						stringConsumer("{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}"),
-						stringConsumer("]"));
+				.assertValuesWith(stringConsumer("[{\"foo\":\"foofoo\",\"bar\":\"barbar\"}," +
+						"{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}]"));
+	}
+
+	@Test
+	public void writeEmpty() {
+		Flux<DataBuffer> output =
+				this.encoder.encode(Flux.empty(), this.dataBufferFactory, null, null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValuesWith(stringConsumer("[]"));
+	}
+
+	@Test
+	public void writeInBuffersOfBufferSize() {
+		this.encoder.setBufferSize(64);
+		Flux<Pojo> source = Flux.range(0, 10).map(i -> new Pojo("foo" + i, "bar" + i));
+
+		Flux<DataBuffer> output =
+				this.encoder.encode(source, this.dataBufferFactory, null, null);
+
+		List<String> values = output.map(buffer -> {
+			String value = DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8);
+			release(buffer);
+			return value;
+		}).collectList().block();
+		assertTrue(values.size() > 1);
+		assertTrue(values.stream().allMatch(value -> value.length() < 64 + 32));
+		String json = String.join("", values);
+		assertTrue(json.startsWith("[{\"foo\":\"foo0\",\"bar\":\"bar0\"},"));
+		assertTrue(json.endsWith(",{\"foo\":\"foo9\",\"bar\":\"bar9\"}]"));
+	}
+
+	@Test
+	public void flushWhenNoMoreElementsAvailable() {
+		Flux<Pojo> source = Flux.concat(Flux.just(new Pojo("foo", "bar")), Flux.never());
+
+		Flux<DataBuffer> output =
+				this.encoder.encode(source, this.dataBufferFactory, null, null);
+
+		TestSubscriber<DataBuffer> subscriber = TestSubscriber.subscribe(output);
+		subscriber.awaitAndAssertNextValuesWith(stringConsumer("[{\"foo\":\"foo\",\"bar\":\"bar\"}"));
+		subscriber.cancel();
+	}
+
+	@Test
+	public void writeGenericList() {
+		List<Pojo> list = Arrays.asList(new Pojo("foo", "bar"), new Pojo("baz", "qux"));
+		ResolvableType elementType = ResolvableType.forClassWithGenerics(List.class, Pojo.class);
+
+		Flux<DataBuffer> output = this.encoder.encode(Mono.just(list),
+				this.dataBufferFactory, elementType, null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValuesWith(stringConsumer(
+						"[{\"foo\":\"foo\",\"bar\":\"bar\"},{\"foo\":\"baz\",\"bar\":\"qux\"}]"));
 	}
 
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.test.TestSubscriber;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JacksonNdJsonEncoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private static final MediaType NDJSON = new MediaType("application", "x-ndjson");
+
+	@Test
+	public void canEncode() {
+		JacksonNdJsonEncoder encoder = new JacksonNdJsonEncoder();
+		assertTrue(encoder.canEncode(null, NDJSON));
+		assertFalse(encoder.canEncode(null, MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void encode() {
+		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+		Flux<DataBuffer> output =
+				new JacksonNdJsonEncoder().encode(source, this.dataBufferFactory, null, null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValuesWith(stringConsumer("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n"),
+						stringConsumer("{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}\n"));
+	}
+
+	@Test
+	public void encodeWithIndentingMapper() {
+		ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"));
+		Flux<DataBuffer> output =
+				new JacksonNdJsonEncoder(mapper).encode(source, this.dataBufferFactory, null, null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertValuesWith(stringConsumer("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n"));
+		assertTrue(mapper.isEnabled(SerializationFeature.INDENT_OUTPUT));
+	}
+
+	@Test
+	public void encodeAndDecode() {
+		Flux<Pojo> source = Flux.just(new Pojo("f1", "b1"), new Pojo("f2", "b2"));
+		Flux<DataBuffer> encoded =
+				new JacksonNdJsonEncoder().encode(source, this.dataBufferFactory, null, null);
+		Flux<Object> decoded = new JacksonNdJsonDecoder()
+				.decode(encoded, ResolvableType.forClass(Pojo.class), NDJSON);
+
+		TestSubscriber
+				.subscribe(decoded)
+				.assertComplete()
+				.assertNoError()
+				.assertValues(new Pojo("f1", "b1"), new Pojo("f2", "b2"));
+	}
+
+}
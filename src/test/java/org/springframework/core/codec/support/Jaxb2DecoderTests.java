@@ -16,8 +16,10 @@
 
 package org.springframework.core.codec.support;
 
+import java.util.ArrayList;
 import java.util.List;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
 
 import org.junit.Test;
@@ -207,6 +209,50 @@ public class Jaxb2DecoderTests extends AbstractDataBufferAllocatingTestCase {
 				.assertValues(new TypePojo("foo", "bar"), new TypePojo("foofoo", "barbar"));
 	}
 
+	@Test
+	public void decodeMultipleXmlRootElementInChunks() throws Exception {
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < POJO_CHILD.length(); i += 5) {
+			buffers.add(stringBuffer(
+					POJO_CHILD.substring(i, Math.min(i + 5, POJO_CHILD.length()))));
+		}
+		Flux<DataBuffer> source = Flux.fromIterable(buffers);
+		Flux<Object> output =
+				this.decoder.decode(source, ResolvableType.forClass(Pojo.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertNoError()
+				.assertComplete()
+				.assertValues(new Pojo("foo", "bar"), new Pojo("foofoo", "barbar"));
+	}
+
+	@Test
+	public void decodeMultipleXmlRootElementNonAalto() throws Exception {
+		Jaxb2Decoder decoder = new Jaxb2Decoder(false);
+
+		Flux<DataBuffer> source = Flux.just(stringBuffer(POJO_CHILD));
+		Flux<Object> output =
+				decoder.decode(source, ResolvableType.forClass(Pojo.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertNoError()
+				.assertComplete()
+				.assertValues(new Pojo("foo", "bar"), new Pojo("foofoo", "barbar"));
+	}
+
+	@Test
+	public void decodeMalformedXml() throws Exception {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("<root><pojo></root>"));
+		Flux<Object> output =
+				this.decoder.decode(source, ResolvableType.forClass(Pojo.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertError(XMLStreamException.class);
+	}
+
 	@Test
 	public void toExpectedQName() {
 		assertEquals(new QName("pojo"), this.decoder.toQName(Pojo.class));
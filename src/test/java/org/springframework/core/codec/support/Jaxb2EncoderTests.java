@@ -18,11 +18,13 @@ package org.springframework.core.codec.support;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.xml.sax.SAXException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.ResolvableType;
@@ -34,6 +36,7 @@ import org.springframework.http.MediaType;
 
 import static org.custommonkey.xmlunit.XMLAssert.assertXMLEqual;
 import static org.custommonkey.xmlunit.XMLAssert.fail;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -69,7 +72,7 @@ public class Jaxb2EncoderTests extends AbstractDataBufferAllocatingTestCase {
 
 	@Test
 	public void encode() {
-		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+		Mono<Pojo> source = Mono.just(new Pojo("foofoo", "barbar"));
 		Flux<DataBuffer> output = this.encoder.encode(source, this.dataBufferFactory,
 				ResolvableType.forClass(Pojo.class),
 						MediaType.APPLICATION_XML);
@@ -90,4 +93,47 @@ public class Jaxb2EncoderTests extends AbstractDataBufferAllocatingTestCase {
 		});
 	}
 
+	@Test
+	public void encodeStream() throws Exception {
+		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+		Flux<DataBuffer> output = this.encoder.encode(source, this.dataBufferFactory,
+				ResolvableType.forClass(Pojo.class),
+						MediaType.APPLICATION_XML);
+		DataBuffer buffer = DataBufferUtils.join(output).block();
+		String s = DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8);
+		DataBufferUtils.release(buffer);
+
+		assertTrue(s, s.startsWith("<?xml"));
+		assertXMLEqual("<list>" +
+				"<pojo><bar>barbar</bar><foo>foofoo</foo></pojo>" +
+				"<pojo><bar>barbarbar</bar><foo>foofoofoo</foo></pojo>" +
+				"</list>", s);
+	}
+
+	@Test
+	public void encodeStreamElementPerBuffer() {
+		this.encoder.setRootElementName("pojos");
+		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+		Flux<DataBuffer> output = this.encoder.encode(source, this.dataBufferFactory,
+				ResolvableType.forClass(Pojo.class),
+						MediaType.APPLICATION_XML);
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertValuesWith(
+						dataBuffer -> assertString(dataBuffer, s -> assertTrue(s, s.endsWith("<pojos>"))),
+						dataBuffer -> assertString(dataBuffer, s -> assertTrue(s, s.startsWith("<pojo>"))),
+						dataBuffer -> assertString(dataBuffer, s -> assertTrue(s, s.startsWith("<pojo>"))),
+						dataBuffer -> assertString(dataBuffer, s -> assertEquals("</pojos>", s)));
+	}
+
+	private static void assertString(DataBuffer dataBuffer, Consumer<String> consumer) {
+		try {
+			consumer.accept(DataBufferTestUtils.dumpString(dataBuffer, StandardCharsets.UTF_8));
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
 }
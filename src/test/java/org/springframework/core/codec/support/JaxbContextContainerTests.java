@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.junit.Test;
+
+import org.springframework.core.codec.support.jaxb.XmlRootElement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class JaxbContextContainerTests {
+
+	@Test
+	public void borrowedMarshallerIsConfigured() throws Exception {
+		JaxbContextContainer container = new JaxbContextContainer(
+				Collections.singletonMap(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name()));
+		Marshaller marshaller = container.borrowMarshaller(XmlRootElement.class);
+		assertEquals("UTF-8", marshaller.getProperty(Marshaller.JAXB_ENCODING));
+	}
+
+	@Test
+	public void returnedMarshallerIsReused() throws Exception {
+		JaxbContextContainer container = new JaxbContextContainer();
+		Marshaller marshaller = container.borrowMarshaller(XmlRootElement.class);
+		assertNotSame(marshaller, container.borrowMarshaller(XmlRootElement.class));
+
+		container.returnMarshaller(XmlRootElement.class, marshaller);
+		assertSame(marshaller, container.borrowMarshaller(XmlRootElement.class));
+	}
+
+	@Test
+	public void returnedUnmarshallerIsReused() throws Exception {
+		JaxbContextContainer container = new JaxbContextContainer();
+		Unmarshaller unmarshaller = container.borrowUnmarshaller(XmlRootElement.class);
+		container.returnUnmarshaller(XmlRootElement.class, unmarshaller);
+
+		assertSame(unmarshaller, container.borrowUnmarshaller(XmlRootElement.class));
+		assertNotSame(unmarshaller, container.borrowUnmarshaller(XmlRootElement.class));
+	}
+
+	@Test
+	public void poolIsBounded() throws Exception {
+		JaxbContextContainer container = new JaxbContextContainer();
+		List<Unmarshaller> unmarshallers = new ArrayList<>();
+		for (int i = 0; i < JaxbContextContainer.MAX_IDLE + 1; i++) {
+			unmarshallers.add(container.borrowUnmarshaller(XmlRootElement.class));
+		}
+		unmarshallers.forEach(u -> container.returnUnmarshaller(XmlRootElement.class, u));
+
+		for (int i = 0; i < JaxbContextContainer.MAX_IDLE; i++) {
+			assertSame(unmarshallers.get(i), container.borrowUnmarshaller(XmlRootElement.class));
+		}
+		assertNotSame(unmarshallers.get(JaxbContextContainer.MAX_IDLE),
+				container.borrowUnmarshaller(XmlRootElement.class));
+	}
+
+}
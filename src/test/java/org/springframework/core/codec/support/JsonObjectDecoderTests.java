@@ -24,6 +24,7 @@ import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
 
 /**
  * @author Sebastien Deleuze
@@ -82,9 +83,97 @@ public class JsonObjectDecoderTests extends AbstractDataBufferAllocatingTestCase
 							  "{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}");
 	}
 
+	@Test
+	public void decodeObjectSpanningManyChunks() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("  {\"foo\": "),
+				stringBuffer("\"foo"), stringBuffer("foo\", \"bar\": \"barbar\"}{"),
+				stringBuffer("\"baz\": 42}"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}",
+						"{\"baz\": 42}");
+	}
+
+	@Test
+	public void decodeArrayWithSpacesAndEscapedQuotes() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[ {\"foo\": \"a\\\"]\"} , "),
+				stringBuffer(" {\"bar\": \"b\\\\\"}\n]"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"foo\": \"a\\\"]\"}", "{\"bar\": \"b\\\\\"}");
+	}
+
+	@Test
+	public void decodeBracesInStringSpanningChunks() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"foo\": \"{[}] and \\"),
+				stringBuffer("\"]} still a string"), stringBuffer(" }\"}, {\"bar\": 1}]"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"foo\": \"{[}] and \\\"]} still a string }\"}",
+						"{\"bar\": 1}");
+	}
+
+	@Test
+	public void decodeEmptyArray() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[ ]"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertNoValues()
+				.assertComplete();
+	}
+
+	@Test
+	public void maxObjectLengthAppliesPerObject() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder(10);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"a\": 1}{\"b\": 2}"),
+				stringBuffer("{\"c\": 3}"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"a\": 1}", "{\"b\": 2}", "{\"c\": 3}");
+	}
+
+	@Test
+	public void maxObjectLengthExceeded() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder(10);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"a\": 1}{\"b\": "),
+				stringBuffer("\"foo\"}"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"a\": 1}")
+				.assertError(IllegalStateException.class);
+	}
+
+	@Test
+	public void invalidJson() {
+		JsonObjectDecoder decoder = new JsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("foo"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(JsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertError(IllegalStateException.class);
+	}
+
 	private static String toString(DataBuffer buffer) {
 		byte[] b = new byte[buffer.readableByteCount()];
 		buffer.read(b);
+		DataBufferUtils.release(buffer);
 		return new String(b, StandardCharsets.UTF_8);
 	}
 
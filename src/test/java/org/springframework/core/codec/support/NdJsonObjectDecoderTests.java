@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec.support;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.test.TestSubscriber;
+
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferUtils;
+
+public class NdJsonObjectDecoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	@Test
+	public void decodeSingleChunk() {
+		NdJsonObjectDecoder decoder = new NdJsonObjectDecoder();
+		Flux<DataBuffer> source =
+				Flux.just(stringBuffer("{\"foo\": \"foofoo\"}\n{\"bar\": \"barbar\"}\n"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(NdJsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"foo\": \"foofoo\"}", "{\"bar\": \"barbar\"}")
+				.assertComplete();
+	}
+
+	@Test
+	public void decodeLinesSpanningChunks() {
+		NdJsonObjectDecoder decoder = new NdJsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"foo\": "),
+				stringBuffer("\"foofoo\"}\n{\"bar\""), stringBuffer(": "),
+				stringBuffer("\"barbar\"}\n"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(NdJsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"foo\": \"foofoo\"}", "{\"bar\": \"barbar\"}")
+				.assertComplete();
+	}
+
+	@Test
+	public void decodeBlankLinesAndMissingFinalNewline() {
+		NdJsonObjectDecoder decoder = new NdJsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer("\n{\"a\": 1}\r\n  \n"),
+				stringBuffer("\n{\"b\": 2}"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(NdJsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"a\": 1}\r", "{\"b\": 2}")
+				.assertComplete();
+	}
+
+	@Test
+	public void decodeEmpty() {
+		NdJsonObjectDecoder decoder = new NdJsonObjectDecoder();
+		Flux<DataBuffer> source = Flux.just(stringBuffer(""));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(NdJsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertNoValues()
+				.assertComplete();
+	}
+
+	@Test
+	public void maxLineLengthExceeded() {
+		NdJsonObjectDecoder decoder = new NdJsonObjectDecoder(10);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"a\": 1}\n{\"b\": "),
+				stringBuffer("\"foo\"}\n"));
+		Flux<String> output =
+				decoder.decode(source, null, null).map(NdJsonObjectDecoderTests::toString);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("{\"a\": 1}")
+				.assertError(IllegalStateException.class);
+	}
+
+	private static String toString(DataBuffer buffer) {
+		byte[] b = new byte[buffer.readableByteCount()];
+		buffer.read(b);
+		DataBufferUtils.release(buffer);
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+}
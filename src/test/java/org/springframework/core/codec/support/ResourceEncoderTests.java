@@ -25,6 +25,7 @@ import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
@@ -74,4 +75,21 @@ public class ResourceEncoderTests extends AbstractDataBufferAllocatingTestCase {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void encodeFile() throws Exception {
+		Resource resource = new ClassPathResource("ResourceEncoderTests.txt", getClass());
+
+		Mono<Resource> source = Mono.just(resource);
+
+		Flux<DataBuffer> output = this.encoder.encode(source, this.dataBufferFactory,
+				ResolvableType.forClass(Resource.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.await()
+				.assertNoError()
+				.assertComplete()
+				.assertValuesWith(stringConsumer("foo\nbar\n"));
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.core.codec.support;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Before;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
@@ -25,6 +27,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -85,6 +88,75 @@ public class StringDecoderTests extends AbstractDataBufferAllocatingTestCase {
 				.assertComplete().assertValues("\n", "foo\r", "\n", "bar\r", "\n", "baz");
 	}
 
+	@Test
+	public void decodeLinesSpanningBuffers() throws InterruptedException {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("fo"), stringBuffer("o\nb"),
+				stringBuffer("a"), stringBuffer("r\nbaz\n"));
+		Flux<String> output =
+				this.decoder.decode(source, ResolvableType.forClass(String.class), null);
+		TestSubscriber
+				.subscribe(output)
+				.assertNoError()
+				.assertComplete()
+				.assertValues("foo\n", "bar\n", "baz\n");
+	}
+
+	@Test
+	public void decodeFromReadPosition() throws InterruptedException {
+		DataBuffer buffer = stringBuffer("skip\nfoo\nbar");
+		buffer.read(new byte[5]);
+		Flux<String> output = this.decoder.decode(Flux.just(buffer),
+				ResolvableType.forClass(String.class), null);
+		TestSubscriber
+				.subscribe(output)
+				.assertNoError()
+				.assertComplete()
+				.assertValues("foo\n", "bar");
+	}
+
+	@Test
+	public void decodeNonAsciiLineSpanningBuffers() throws InterruptedException {
+		byte[] bytes = "f\u00e9\u20ac\nbar".getBytes(StandardCharsets.UTF_8);
+		DataBuffer first = this.dataBufferFactory.allocateBuffer(2);
+		first.write(bytes, 0, 2);
+		DataBuffer second = this.dataBufferFactory.allocateBuffer(bytes.length - 2);
+		second.write(bytes, 2, bytes.length - 2);
+		Flux<String> output = this.decoder.decode(Flux.just(first, second),
+				ResolvableType.forClass(String.class), null);
+		TestSubscriber
+				.subscribe(output)
+				.assertNoError()
+				.assertComplete()
+				.assertValues("f\u00e9\u20ac\n", "bar");
+	}
+
+	@Test
+	public void decodeLatin1() throws InterruptedException {
+		this.decoder = new StringDecoder(false);
+		DataBuffer buffer = this.dataBufferFactory.allocateBuffer(3);
+		buffer.write(new byte[]{'a', (byte) 0xE9, 'b'});
+		Flux<String> output = this.decoder.decode(Flux.just(buffer),
+				ResolvableType.forClass(String.class),
+				new MimeType("text", "plain", StandardCharsets.ISO_8859_1));
+		TestSubscriber
+				.subscribe(output)
+				.assertNoError()
+				.assertComplete()
+				.assertValues("a\u00e9b");
+	}
+
+	@Test
+	public void maxLineLengthExceeded() throws InterruptedException {
+		this.decoder = new StringDecoder(true, 4);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("foo\nba"), stringBuffer("rbaz\n"));
+		Flux<String> output =
+				this.decoder.decode(source, ResolvableType.forClass(String.class), null);
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("foo\n")
+				.assertError(IllegalStateException.class);
+	}
+
 	@Test
 	public void decodeEmpty() throws InterruptedException {
 		Flux<DataBuffer> source = Flux.just(stringBuffer(""));
@@ -16,7 +16,9 @@
 
 package org.springframework.core.codec.support;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -27,9 +29,13 @@ import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.support.DataBufferUtils;
 import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -71,4 +77,43 @@ public class StringEncoderTests extends AbstractDataBufferAllocatingTestCase {
 				.assertValues("foo");
 	}
 
+	@Test
+	public void writeCharsets() {
+		String[] values = {"", "foo", "caf\u00e9", "\u20ac 100", "\ud83d\ude00 smile",
+				"unpaired \ud83d surrogate", "\ude00 low first"};
+		Charset[] charsets = {StandardCharsets.UTF_8, StandardCharsets.US_ASCII,
+				StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16, Charset.forName("windows-1252")};
+		for (Charset charset : charsets) {
+			MimeType mimeType = new MimeType("text", "plain", charset);
+			Flux<byte[]> output = Flux.from(this.encoder.encode(Flux.fromArray(values),
+					this.dataBufferFactory, null, mimeType))
+					.map(StringEncoderTests::toBytes);
+			List<byte[]> result = output.collectList().block();
+
+			assertEquals(values.length, result.size());
+			for (int i = 0; i < values.length; i++) {
+				assertArrayEquals(charset + " " + values[i], values[i].getBytes(charset),
+						result.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void writeCombined() {
+		this.encoder.setCombineElements(true);
+		Flux<String> output = Flux.from(this.encoder.encode(Flux.just("foo", "bar", "baz"),
+				this.dataBufferFactory, null, null))
+				.map(chunk -> new String(toBytes(chunk), StandardCharsets.UTF_8));
+		TestSubscriber
+				.subscribe(output)
+				.assertValues("foobarbaz");
+	}
+
+	private static byte[] toBytes(DataBuffer chunk) {
+		byte[] b = new byte[chunk.readableByteCount()];
+		chunk.read(b);
+		DataBufferUtils.release(chunk);
+		return b;
+	}
+
 }
@@ -16,6 +16,9 @@
 
 package org.springframework.core.codec.support;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.xml.stream.events.XMLEvent;
 
 import org.junit.Test;
@@ -23,6 +26,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -70,6 +74,7 @@ public class XmlEventDecoderTests extends AbstractDataBufferAllocatingTestCase {
 
 		TestSubscriber
 				.subscribe(events)
+				.await()
 				.assertNoError()
 				.assertComplete()
 				.assertValuesWith(e -> assertTrue(e.isStartDocument()),
@@ -83,6 +88,59 @@ public class XmlEventDecoderTests extends AbstractDataBufferAllocatingTestCase {
 						e -> assertTrue(e.isEndDocument()));
 	}
 
+	@Test
+	public void toXMLEventsNonAaltoInChunks() {
+		decoder.useAalto = false;
+
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < XML.length(); i += 3) {
+			buffers.add(stringBuffer(XML.substring(i, Math.min(i + 3, XML.length()))));
+		}
+		Flux<String> startElements = this.decoder
+				.decode(Flux.fromIterable(buffers), null, null)
+				.filter(XMLEvent::isStartElement)
+				.map(e -> e.asStartElement().getName().getLocalPart());
+
+		TestSubscriber
+				.subscribe(startElements)
+				.await()
+				.assertNoError()
+				.assertComplete()
+				.assertValues("pojo", "foo", "bar");
+	}
+
+	@Test
+	public void toXMLEventsNonAaltoMaxDocumentSize() {
+		decoder.useAalto = false;
+		decoder.setMaxDocumentSize(XML.length() - 1);
+
+		Flux<DataBuffer> source = Flux.just(stringBuffer(XML.substring(0, 10)),
+				stringBuffer(XML.substring(10)));
+		Flux<XMLEvent> events = this.decoder.decode(source, null, null);
+
+		TestSubscriber
+				.subscribe(events)
+				.await()
+				.assertError(IllegalStateException.class);
+	}
+
+	@Test
+	public void toXMLEventsNonAaltoBackpressure() {
+		decoder.useAalto = false;
+
+		AtomicLong requested = new AtomicLong();
+		Flux<DataBuffer> source = Flux.range(0, 1000)
+				.map(i -> stringBuffer(i == 0 ? "<root>" : i == 999 ? "</root>" : "<a/>"))
+				.doOnRequest(requested::addAndGet);
+		Flux<XMLEvent> events = this.decoder.decode(source, null, null);
+
+		TestSubscriber<XMLEvent> subscriber = TestSubscriber.subscribe(events, 2);
+		subscriber.awaitAndAssertNextValuesWith(e -> assertTrue(e.isStartDocument()),
+				e -> assertStartElement(e, "root"));
+		assertTrue(requested.get() < 1000);
+		subscriber.cancel();
+	}
+
 	private static void assertStartElement(XMLEvent event, String expectedLocalName) {
 		assertTrue(event.isStartElement());
 		assertEquals(expectedLocalName, event.asStartElement().getName().getLocalPart());
@@ -22,6 +22,8 @@ import java.util.function.Consumer;
 
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
@@ -47,11 +49,37 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
-
+				{new DefaultDataBufferFactory(false)},
+				{new PoolingDataBufferFactory(true)},
+				{new PoolingDataBufferFactory(false)}
 		};
 	}
 
+	private DataBufferLeakDetector leakDetector;
+
+
+	@Before
+	public final void setUpLeakDetector() {
+		this.leakDetector = new DataBufferLeakDetector(DataBufferLeakDetector.Level.PARANOID);
+		setLeakDetector(this.dataBufferFactory, this.leakDetector);
+	}
+
+	@After
+	public final void verifyNoOutstandingBuffers() {
+		setLeakDetector(this.dataBufferFactory, null);
+		DataBufferTestUtils.assertNoOutstandingBuffers(this.leakDetector);
+	}
+
+	private static void setLeakDetector(DataBufferFactory dataBufferFactory,
+			DataBufferLeakDetector leakDetector) {
+		if (dataBufferFactory instanceof NettyDataBufferFactory) {
+			((NettyDataBufferFactory) dataBufferFactory).setLeakDetector(leakDetector);
+		}
+		else if (dataBufferFactory instanceof PoolingDataBufferFactory) {
+			((PoolingDataBufferFactory) dataBufferFactory).setLeakDetector(leakDetector);
+		}
+	}
+
 	protected DataBuffer createDataBuffer(int capacity) {
 		return this.dataBufferFactory.allocateBuffer(capacity);
 	}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+public class CompositeDataBufferTests extends AbstractDataBufferAllocatingTestCase {
+
+	private CompositeDataBuffer composite(String... values) {
+		CompositeDataBuffer composite = new CompositeDataBuffer(this.dataBufferFactory);
+		for (String value : values) {
+			composite.write(stringBuffer(value));
+		}
+		return composite;
+	}
+
+	@Test
+	public void writeAndRead() {
+		CompositeDataBuffer buffer = composite("ab", "c", "de");
+		assertEquals(3, buffer.componentCount());
+		assertEquals(5, buffer.readableByteCount());
+
+		assertEquals('a', buffer.read());
+		byte[] result = new byte[3];
+		buffer.read(result);
+		assertArrayEquals(new byte[]{'b', 'c', 'd'}, result);
+
+		buffer.write(new byte[]{'f', 'g'});
+		buffer.write((byte) 'h');
+		assertEquals(4, buffer.componentCount());
+
+		result = new byte[4];
+		buffer.read(result);
+		assertArrayEquals(new byte[]{'e', 'f', 'g', 'h'}, result);
+		assertEquals(0, buffer.readableByteCount());
+
+		release(buffer);
+	}
+
+	@Test
+	public void readPrimitivesAcrossComponents() {
+		CompositeDataBuffer buffer = composite("ab", "cdef");
+		buffer.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+		assertEquals(0x61626364, buffer.readInt());
+		assertEquals(0x6566010203040506L, buffer.readLong());
+		assertEquals(0x0708, (buffer.read() << 8) | buffer.read());
+
+		release(buffer);
+	}
+
+	@Test
+	public void writePrimitives() {
+		CompositeDataBuffer buffer = composite("a");
+		byte[] data = new byte[253];
+		buffer.write(data);
+		// crosses into a new tail
+		buffer.writeInt(0xCAFEBABE);
+		buffer.writeLong(-1L);
+
+		assertEquals('a', buffer.getByte(0));
+		assertEquals((byte) 0xCA, buffer.getByte(254));
+		buffer.read(new byte[254]);
+		assertEquals(0xCAFEBABE, buffer.readInt());
+		assertEquals(-1L, buffer.readLong());
+
+		release(buffer);
+	}
+
+	@Test
+	public void writeLargerThanTail() {
+		CompositeDataBuffer buffer = composite("a");
+		byte[] data = new byte[1000];
+		Arrays.fill(data, (byte) 'b');
+		buffer.write(data);
+		buffer.write(ByteBuffer.wrap(data));
+
+		assertEquals(2001, buffer.readableByteCount());
+		assertEquals('a', buffer.read());
+		byte[] result = new byte[2000];
+		buffer.read(result);
+		assertEquals('b', result[0]);
+		assertEquals('b', result[1999]);
+
+		release(buffer);
+	}
+
+	@Test
+	public void nestedComposite() {
+		CompositeDataBuffer inner = composite("b", "c");
+		CompositeDataBuffer buffer = composite("a");
+		buffer.write(inner, stringBuffer("d"));
+
+		assertEquals(4, buffer.componentCount());
+		assertEquals("abcd", DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8));
+
+		release(buffer);
+	}
+
+	@Test
+	public void indexOf() {
+		CompositeDataBuffer buffer = composite("ab", "cd", "ef");
+
+		assertEquals(2, buffer.indexOf(b -> b == 'c', 0));
+		assertEquals(5, buffer.indexOf(b -> b == 'f', 3));
+		assertEquals(-1, buffer.indexOf(b -> b == 'a', 1));
+		assertEquals(0, buffer.indexOf(b -> b == 'a', Integer.MIN_VALUE));
+		assertEquals(-1, buffer.indexOf(b -> b == 'a', Integer.MAX_VALUE));
+		assertEquals(-1, buffer.indexOf(b -> b == 'z', 0));
+
+		release(buffer);
+	}
+
+	@Test
+	public void indexOfByte() {
+		CompositeDataBuffer buffer = composite("abcdefghij", "klmnopqrstuvwxyz", "a");
+
+		assertEquals(9, buffer.indexOf((byte) 'j', 0));
+		assertEquals(10, buffer.indexOf((byte) 'k', 0));
+		assertEquals(26, buffer.indexOf((byte) 'a', 1));
+		assertEquals(-1, buffer.indexOf((byte) 'b', 2));
+		assertEquals(21, buffer.indexOfAny(new byte[]{'w', 'v'}, 12));
+		assertEquals(-1, buffer.indexOfAny(new byte[]{'\r', '\n'}, 0));
+
+		release(buffer);
+	}
+
+	@Test
+	public void lastIndexOf() {
+		CompositeDataBuffer buffer = composite("ab", "cd", "eb");
+
+		assertEquals(5, buffer.lastIndexOf(b -> b == 'b', Integer.MAX_VALUE));
+		assertEquals(1, buffer.lastIndexOf(b -> b == 'b', 4));
+		assertEquals(-1, buffer.lastIndexOf(b -> b == 'b', 0));
+		assertEquals(-1, buffer.lastIndexOf(b -> b == 'b', Integer.MIN_VALUE));
+
+		release(buffer);
+	}
+
+	@Test
+	public void slice() {
+		CompositeDataBuffer buffer = composite("ab", "cd", "ef");
+
+		DataBuffer slice = buffer.slice(1, 4);
+		assertEquals(4, slice.readableByteCount());
+		assertEquals(2, slice.indexOf(b -> b == 'd', 0));
+		assertEquals("bcde", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		try {
+			slice.write((byte) 0);
+			fail("UnsupportedOperationException expected");
+		}
+		catch (UnsupportedOperationException ignored) {
+		}
+
+		assertEquals(6, buffer.readableByteCount());
+		release(buffer);
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		CompositeDataBuffer buffer = composite("ab", "cd");
+		PooledDataBuffer slice = buffer.slice(1, 2);
+
+		slice.retain();
+		assertFalse(buffer.release());
+		assertTrue(slice.release());
+	}
+
+	@Test
+	public void asByteBuffer() {
+		CompositeDataBuffer buffer = composite("ab", "cd");
+		buffer.read();
+
+		ByteBuffer[] byteBuffers = buffer.asByteBuffers();
+		assertEquals(2, byteBuffers.length);
+		assertEquals(1, byteBuffers[0].remaining());
+		assertEquals(2, byteBuffers[1].remaining());
+
+		ByteBuffer byteBuffer = buffer.asByteBuffer();
+		byte[] result = new byte[3];
+		byteBuffer.get(result);
+		assertArrayEquals(new byte[]{'b', 'c', 'd'}, result);
+		assertEquals(3, buffer.readableByteCount());
+
+		release(buffer);
+	}
+
+	@Test
+	public void inputStream() throws IOException {
+		CompositeDataBuffer buffer = composite("ab", "c", "de");
+		buffer.read();
+
+		InputStream inputStream = buffer.asInputStream();
+		assertEquals(4, inputStream.available());
+		assertEquals('b', inputStream.read());
+
+		byte[] bytes = new byte[4];
+		int len = inputStream.read(bytes);
+		assertEquals(3, len);
+		assertArrayEquals(new byte[]{'c', 'd', 'e', 0}, bytes);
+		assertEquals(-1, inputStream.read());
+
+		release(buffer);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DataBufferLeakDetectorTests {
+
+	private final DataBufferLeakDetector leakDetector =
+			new DataBufferLeakDetector(DataBufferLeakDetector.Level.PARANOID);
+
+
+	@Test
+	public void outstandingPoolingBuffers() {
+		PoolingDataBufferFactory dataBufferFactory = new PoolingDataBufferFactory();
+		dataBufferFactory.setLeakDetector(this.leakDetector);
+
+		PoolingDataBuffer buffer = dataBufferFactory.allocateBuffer(16);
+		PooledDataBuffer slice = buffer.slice(0, 0);
+		slice.retain();
+		assertEquals(1, this.leakDetector.getOutstandingCount());
+
+		buffer.release();
+		assertEquals(1, this.leakDetector.getOutstandingCount());
+		String record = this.leakDetector.getOutstandingRecords().get(0);
+		assertTrue(record.contains("Retained"));
+		assertTrue(record.contains("Released"));
+		assertTrue(record.contains("outstandingPoolingBuffers"));
+
+		slice.release();
+		assertEquals(0, this.leakDetector.getOutstandingCount());
+	}
+
+	@Test
+	public void outstandingNettyBuffers() {
+		NettyDataBufferFactory dataBufferFactory =
+				new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+		dataBufferFactory.setLeakDetector(this.leakDetector);
+
+		NettyDataBuffer buffer = dataBufferFactory.allocateBuffer(16);
+		PooledDataBuffer retained = buffer.retain();
+		assertEquals(1, this.leakDetector.getOutstandingCount());
+
+		buffer.release();
+		assertEquals(1, this.leakDetector.getOutstandingCount());
+		retained.release();
+		assertEquals(0, this.leakDetector.getOutstandingCount());
+	}
+
+	@Test
+	public void toByteBufStopsTracking() {
+		NettyDataBufferFactory dataBufferFactory =
+				new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+		dataBufferFactory.setLeakDetector(this.leakDetector);
+
+		NettyDataBuffer buffer = dataBufferFactory.allocateBuffer(16);
+		assertEquals(1, this.leakDetector.getOutstandingCount());
+
+		NettyDataBufferFactory.toByteBuf(buffer).release();
+		assertEquals(0, this.leakDetector.getOutstandingCount());
+	}
+
+	@Test
+	public void sampled() {
+		DataBufferLeakDetector leakDetector =
+				new DataBufferLeakDetector(DataBufferLeakDetector.Level.SAMPLED, 4);
+		PoolingDataBufferFactory dataBufferFactory = new PoolingDataBufferFactory();
+		dataBufferFactory.setLeakDetector(leakDetector);
+
+		PoolingDataBuffer[] buffers = new PoolingDataBuffer[8];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = dataBufferFactory.allocateBuffer(16);
+		}
+		assertEquals(2, leakDetector.getOutstandingCount());
+
+		for (PoolingDataBuffer buffer : buffers) {
+			buffer.release();
+		}
+		assertEquals(0, leakDetector.getOutstandingCount());
+	}
+
+	@Test
+	public void disabled() {
+		DataBufferLeakDetector leakDetector =
+				new DataBufferLeakDetector(DataBufferLeakDetector.Level.DISABLED);
+		PoolingDataBufferFactory dataBufferFactory = new PoolingDataBufferFactory();
+		dataBufferFactory.setLeakDetector(leakDetector);
+
+		dataBufferFactory.allocateBuffer(16);
+		assertEquals(0, leakDetector.getOutstandingCount());
+	}
+
+	@Test
+	public void garbageCollectedBufferIsReported() throws InterruptedException {
+		PoolingDataBufferFactory dataBufferFactory = new PoolingDataBufferFactory();
+		dataBufferFactory.setLeakDetector(this.leakDetector);
+
+		dataBufferFactory.allocateBuffer(16);
+		for (int i = 0; i < 50 && this.leakDetector.getLeakCount() == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(1, this.leakDetector.getLeakCount());
+		assertEquals(0, this.leakDetector.getOutstandingCount());
+	}
+
+}
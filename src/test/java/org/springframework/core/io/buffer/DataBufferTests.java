@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import org.junit.Test;
@@ -51,6 +52,80 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(buffer);
 	}
 
+	@Test
+	public void writeAndReadPrimitives() {
+		DataBuffer buffer = createDataBuffer(1);
+		buffer.write((byte) 'a');
+		buffer.writeInt(0xCAFEBABE);
+		buffer.writeLong(0x0123456789ABCDEFL);
+		assertEquals(13, buffer.readableByteCount());
+
+		assertEquals('a', buffer.read());
+		assertEquals(0xCAFEBABE, buffer.readInt());
+		assertEquals(0x0123456789ABCDEFL, buffer.readLong());
+		assertEquals(0, buffer.readableByteCount());
+
+		release(buffer);
+	}
+
+	@Test
+	public void primitivesAreBigEndian() {
+		DataBuffer buffer = createDataBuffer(4);
+		buffer.writeInt(0x01020304);
+
+		byte[] result = new byte[4];
+		buffer.read(result);
+		assertArrayEquals(new byte[]{1, 2, 3, 4}, result);
+
+		release(buffer);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void readIntNotReadable() {
+		DataBuffer buffer = createDataBuffer(4);
+		buffer.write(new byte[]{'a', 'b', 'c'});
+		try {
+			buffer.readInt();
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
+	@Test
+	public void positionsAndCapacity() {
+		DataBuffer buffer = createDataBuffer(8);
+		assertEquals(0, buffer.readPosition());
+		assertEquals(0, buffer.writePosition());
+		assertTrue(buffer.capacity() >= 8);
+
+		buffer.write(new byte[]{'a', 'b', 'c'});
+		buffer.read();
+		assertEquals(1, buffer.readPosition());
+		assertEquals(3, buffer.writePosition());
+
+		release(buffer);
+	}
+
+	@Test
+	public void getByte() {
+		DataBuffer buffer = createDataBuffer(4);
+		buffer.write(new byte[]{'a', 'b', 'c'});
+		buffer.read();
+
+		assertEquals('a', buffer.getByte(0));
+		assertEquals('c', buffer.getByte(2));
+		assertEquals(1, buffer.readPosition());
+		try {
+			buffer.getByte(3);
+			fail("IndexOutOfBoundsException expected");
+		}
+		catch (IndexOutOfBoundsException ignored) {
+		}
+
+		release(buffer);
+	}
+
 	@Test
 	public void inputStream() throws IOException {
 		byte[] data = new byte[]{'a', 'b', 'c', 'd', 'e'};
@@ -120,6 +195,25 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(buffer);
 	}
 
+	@Test
+	public void expandWithUnreadData() {
+		DataBuffer buffer = createDataBuffer(2);
+		buffer.write(new byte[]{'a', 'b'});
+		assertEquals('a', buffer.read());
+
+		byte[] data = new byte[1024];
+		Arrays.fill(data, (byte) 'c');
+		buffer.write(data);
+
+		assertEquals(1025, buffer.readableByteCount());
+		assertEquals('b', buffer.read());
+		byte[] result = new byte[1024];
+		buffer.read(result);
+		assertArrayEquals(data, result);
+
+		release(buffer);
+	}
+
 	@Test
 	public void writeByteBuffer() {
 		DataBuffer buffer1 = createDataBuffer(1);
@@ -185,6 +279,28 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(buffer);
 	}
 
+	@Test
+	public void writableByteBuffer() {
+		DataBuffer buffer = createDataBuffer(1);
+		buffer.write((byte) 'a');
+
+		ByteBuffer writable = buffer.asWritableByteBuffer(4);
+		assertEquals(0, writable.position());
+		assertEquals(4, writable.remaining());
+		writable.put(new byte[]{'b', 'c'});
+		assertEquals(1, buffer.readableByteCount());
+
+		buffer.commitWritableByteBuffer(writable);
+		buffer.write((byte) 'd'); // make sure the write index is correctly set
+
+		assertEquals(4, buffer.readableByteCount());
+		byte[] result = new byte[4];
+		buffer.read(result);
+		assertArrayEquals(new byte[]{'a', 'b', 'c', 'd'}, result);
+
+		release(buffer);
+	}
+
 	@Test
 	public void indexOf() {
 		DataBuffer buffer = createDataBuffer(3);
@@ -205,6 +321,56 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(buffer);
 	}
 
+	@Test
+	public void indexOfByte() {
+		byte[] bytes = new byte[37];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) (i % 2 == 0 ? 0x01 : 0x80);
+		}
+		DataBuffer buffer = createDataBuffer(bytes.length);
+		buffer.write(bytes);
+
+		for (int i = 0; i < bytes.length; i++) {
+			byte original = bytes[i];
+			DataBuffer target = createDataBuffer(bytes.length);
+			bytes[i] = 0;
+			target.write(bytes);
+			bytes[i] = original;
+
+			assertEquals(i, target.indexOf((byte) 0, 0));
+			assertEquals(i, target.indexOf((byte) 0, i));
+			assertEquals(-1, target.indexOf((byte) 0, i + 1));
+			release(target);
+		}
+
+		assertEquals(1, buffer.indexOf((byte) 0x80, Integer.MIN_VALUE));
+		assertEquals(36, buffer.indexOf((byte) 0x01, 35));
+		assertEquals(-1, buffer.indexOf((byte) 0x01, Integer.MAX_VALUE));
+		assertEquals(-1, buffer.indexOf((byte) 'z', 0));
+
+		release(buffer);
+	}
+
+	@Test
+	public void indexOfAny() {
+		DataBuffer buffer = createDataBuffer(32);
+		buffer.write("lorem ipsum dolor\r\nsit amet\n".getBytes(StandardCharsets.UTF_8));
+
+		byte[] newlines = {'\n', '\r'};
+		assertEquals(17, buffer.indexOfAny(newlines, 0));
+		assertEquals(18, buffer.indexOfAny(newlines, 18));
+		assertEquals(27, buffer.indexOfAny(newlines, 19));
+		assertEquals(-1, buffer.indexOfAny(newlines, 28));
+		assertEquals(17, buffer.indexOfAny(newlines, Integer.MIN_VALUE));
+
+		byte[] many = {'x', 'y', 'z', 'a', 'n', 'q'};
+		assertEquals(23, buffer.indexOfAny(many, 0));
+		assertEquals(4, buffer.indexOfAny(new byte[]{'m'}, 0));
+		assertEquals(-1, buffer.indexOfAny(new byte[0], 0));
+
+		release(buffer);
+	}
+
 	@Test
 	public void lastIndexOf() {
 		DataBuffer buffer = createDataBuffer(3);
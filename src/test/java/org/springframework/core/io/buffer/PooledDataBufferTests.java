@@ -16,12 +16,14 @@
 
 package org.springframework.core.io.buffer;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -41,7 +43,9 @@ public class PooledDataBufferTests {
 				{new NettyDataBufferFactory(new UnpooledByteBufAllocator(true))},
 				{new NettyDataBufferFactory(new UnpooledByteBufAllocator(false))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true))},
-				{new NettyDataBufferFactory(new PooledByteBufAllocator(false))}};
+				{new NettyDataBufferFactory(new PooledByteBufAllocator(false))},
+				{new PoolingDataBufferFactory(true)},
+				{new PoolingDataBufferFactory(false)}};
 	}
 
 	private PooledDataBuffer createDataBuffer(int capacity) {
@@ -69,5 +73,32 @@ public class PooledDataBufferTests {
 		buffer.release();
 	}
 
+	@Test(expected = IllegalStateException.class)
+	public void toByteBufTransfersOwnership() {
+		PooledDataBuffer buffer = createDataBuffer(1);
+		buffer.write((byte) 'a');
+
+		ByteBuf byteBuf = NettyDataBufferFactory.toByteBuf(buffer);
+		assertEquals('a', byteBuf.readByte());
+		byteBuf.release();
+
+		buffer.release();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void writeIntoNettyBufferTransfersOwnership() {
+		NettyDataBufferFactory nettyFactory =
+				new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+		NettyDataBuffer target = nettyFactory.allocateBuffer(1);
+		PooledDataBuffer buffer = createDataBuffer(1);
+		buffer.write((byte) 'a');
+
+		target.write(buffer);
+		assertEquals('a', target.read());
+		target.release();
+
+		buffer.release();
+	}
+
 
 }
\ No newline at end of file
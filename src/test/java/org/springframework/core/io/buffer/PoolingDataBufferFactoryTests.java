@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PoolingDataBufferFactoryTests {
+
+	private final PoolingDataBufferFactory dataBufferFactory =
+			new PoolingDataBufferFactory(false, 256, 1024);
+
+
+	@Test
+	public void sizeClasses() {
+		assertEquals(64, PoolingDataBufferFactory.sizeClassCapacity(0));
+		assertEquals(64, PoolingDataBufferFactory.sizeClassCapacity(64));
+		assertEquals(128, PoolingDataBufferFactory.sizeClassCapacity(65));
+		assertEquals(8192, PoolingDataBufferFactory.sizeClassCapacity(8192));
+
+		assertEquals(0, PoolingDataBufferFactory.sizeClassIndex(1));
+		assertEquals(1, PoolingDataBufferFactory.sizeClassIndex(128));
+		assertEquals(2, PoolingDataBufferFactory.sizeClassIndex(129));
+	}
+
+	@Test
+	public void allocateRoundsUpToSizeClass() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(100);
+		assertEquals(128, buffer.getNativeBuffer().capacity());
+		assertEquals(0, buffer.readableByteCount());
+		buffer.release();
+	}
+
+	@Test
+	public void releasedBufferIsReused() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(100);
+		buffer.write(new byte[]{'a', 'b', 'c'});
+		ByteBuffer byteBuffer = buffer.getNativeBuffer();
+		assertTrue(buffer.release());
+
+		PoolingDataBuffer reused = this.dataBufferFactory.allocateBuffer(128);
+		assertSame(byteBuffer, reused.getNativeBuffer());
+		assertEquals(0, reused.readableByteCount());
+		reused.release();
+	}
+
+	@Test
+	public void retainedBufferIsNotReused() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(100);
+		buffer.retain();
+		assertFalse(buffer.release());
+
+		PoolingDataBuffer other = this.dataBufferFactory.allocateBuffer(100);
+		assertNotSame(buffer.getNativeBuffer(), other.getNativeBuffer());
+		buffer.release();
+		other.release();
+	}
+
+	@Test
+	public void growReturnsOldBufferToPool() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(64);
+		ByteBuffer oldByteBuffer = buffer.getNativeBuffer();
+		buffer.write(new byte[65]);
+		assertEquals(128, buffer.getNativeBuffer().capacity());
+
+		PoolingDataBuffer other = this.dataBufferFactory.allocateBuffer(64);
+		assertSame(oldByteBuffer, other.getNativeBuffer());
+		buffer.release();
+		other.release();
+	}
+
+	@Test
+	public void growKeepsSlicedBufferOutOfPool() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(64);
+		buffer.write(new byte[]{'a', 'b'});
+		ByteBuffer oldByteBuffer = buffer.getNativeBuffer();
+		PooledDataBuffer slice = buffer.slice(0, 2);
+		buffer.write(new byte[64]);
+
+		PoolingDataBuffer other = this.dataBufferFactory.allocateBuffer(64);
+		assertNotSame(oldByteBuffer, other.getNativeBuffer());
+		assertEquals('a', slice.read());
+		other.release();
+		buffer.release();
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(64);
+		buffer.write(new byte[]{'a', 'b', 'c'});
+
+		PooledDataBuffer slice = buffer.slice(1, 2);
+		slice.retain();
+		assertFalse(buffer.release());
+		assertTrue(slice.release());
+	}
+
+	@Test
+	public void largeBufferIsNotPooled() {
+		PoolingDataBuffer buffer = this.dataBufferFactory.allocateBuffer(1025);
+		ByteBuffer byteBuffer = buffer.getNativeBuffer();
+		assertEquals(1025, byteBuffer.capacity());
+		assertTrue(buffer.release());
+
+		PoolingDataBuffer other = this.dataBufferFactory.allocateBuffer(1025);
+		assertNotSame(byteBuffer, other.getNativeBuffer());
+		other.release();
+	}
+
+}
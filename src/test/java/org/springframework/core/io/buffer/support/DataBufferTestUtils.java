@@ -17,8 +17,10 @@
 package org.springframework.core.io.buffer.support;
 
 import java.nio.charset.Charset;
+import java.util.List;
 
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLeakDetector;
 import org.springframework.util.Assert;
 
 /**
@@ -62,4 +64,22 @@ public abstract class DataBufferTestUtils {
 		byte[] bytes = dumpBytes(buffer);
 		return new String(bytes, charset);
 	}
+
+	/**
+	 * Asserts that all buffers tracked by the given leak detector have been released.
+	 * @param leakDetector the leak detector to check
+	 * @throws AssertionError if any tracked buffer has not been released
+	 */
+	public static void assertNoOutstandingBuffers(DataBufferLeakDetector leakDetector) {
+		Assert.notNull(leakDetector, "'leakDetector' must not be null");
+
+		List<String> records = leakDetector.getOutstandingRecords();
+		if (!records.isEmpty()) {
+			StringBuilder message = new StringBuilder();
+			message.append(records.size()).append(" buffer(s) not released");
+			records.forEach(record -> message.append("\n\n").append(record));
+			throw new AssertionError(message.toString());
+		}
+	}
+
 }
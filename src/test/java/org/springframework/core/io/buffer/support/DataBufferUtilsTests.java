@@ -16,26 +16,43 @@
 
 package org.springframework.core.io.buffer.support;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.test.TestSubscriber;
 
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.CompositeDataBuffer;
 import org.springframework.core.io.buffer.DataBuffer;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Arjen Poutsma
  */
 public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+
 	@Test
 	public void readChannel() throws Exception {
 		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt")
@@ -75,6 +92,80 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 		assertFalse(channel.isOpen());
 	}
 
+	@Test
+	public void readAsynchronousFileChannel() throws Exception {
+		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt")
+				.toURI();
+		AsynchronousFileChannel channel =
+				AsynchronousFileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+
+		Flux<DataBuffer> flux = DataBufferUtils.read(channel, 4, this.dataBufferFactory, 3);
+
+		TestSubscriber
+				.subscribe(flux)
+				.await()
+				.assertNoError()
+				.assertComplete()
+				.assertValuesWith(
+						stringConsumer("bar"), stringConsumer("\nba"),
+						stringConsumer("z\nq"), stringConsumer("ux\n"));
+
+		assertFalse(channel.isOpen());
+	}
+
+	@Test
+	public void readAsynchronousFileChannelBackpressure() throws Exception {
+		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt")
+				.toURI();
+		AsynchronousFileChannel channel =
+				AsynchronousFileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+
+		Flux<DataBuffer> flux = DataBufferUtils.read(channel, 0, this.dataBufferFactory, 4);
+
+		TestSubscriber<DataBuffer> testSubscriber = TestSubscriber.subscribe(flux, 1);
+		testSubscriber
+				.awaitAndAssertNextValuesWith(stringConsumer("foo\n"))
+				.assertNotComplete();
+
+		testSubscriber.request(2);
+		testSubscriber
+				.awaitAndAssertNextValuesWith(stringConsumer("bar\n"), stringConsumer("baz\n"))
+				.assertNotComplete();
+
+		testSubscriber.cancel();
+		assertFalse(channel.isOpen());
+	}
+
+	@Test
+	public void readMapped() throws Exception {
+		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt")
+				.toURI();
+		FileChannel channel = FileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(channel, 8, this.dataBufferFactory, 5);
+
+		TestSubscriber
+				.subscribe(flux)
+				.assertNoError()
+				.assertComplete()
+				.assertValuesWith(stringConsumer("baz\nq"), stringConsumer("ux\n"));
+
+		assertFalse(channel.isOpen());
+	}
+
+	@Test
+	public void readMappedIsReadOnly() throws Exception {
+		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt")
+				.toURI();
+		FileChannel channel = FileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+
+		DataBuffer buffer = DataBufferUtils.readMapped(channel, 0, this.dataBufferFactory, 16)
+				.next().block();
+		assertEquals(16, buffer.readableByteCount());
+		assertTrue(buffer.asByteBuffer().isReadOnly());
+		release(buffer);
+	}
+
 	@Test
 	public void readInputStream() {
 		InputStream is = DataBufferUtilsTests.class
@@ -91,6 +182,107 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 						stringConsumer("baz\n"), stringConsumer("qux\n"));
 	}
 
+	@Test
+	public void writeWritableByteChannel() throws Exception {
+		File file = this.tempFolder.newFile();
+		CompositeDataBuffer composite = new CompositeDataBuffer(this.dataBufferFactory);
+		composite.write(stringBuffer("bar"), stringBuffer("baz"));
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), composite, stringBuffer("qux"));
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			TestSubscriber
+					.subscribe(DataBufferUtils.write(flux, channel))
+					.assertNoError()
+					.assertComplete();
+		}
+
+		assertEquals("foobarbazqux",
+				new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void writeWritableByteChannelEmptyComposite() throws Exception {
+		File file = this.tempFolder.newFile();
+		CompositeDataBuffer composite = new CompositeDataBuffer(this.dataBufferFactory);
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), composite, stringBuffer("bar"));
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			TestSubscriber
+					.subscribe(DataBufferUtils.write(flux, channel))
+					.assertNoError()
+					.assertComplete();
+		}
+
+		assertEquals("foobar",
+				new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void writeWritableByteChannelGathering() throws Exception {
+		Flux<DataBuffer> flux = Flux.range(0, 100).map(i -> stringBuffer(i + "\n"));
+		RecordingChannel channel = new RecordingChannel(0);
+
+		TestSubscriber
+				.subscribe(DataBufferUtils.write(flux, channel))
+				.assertNoError()
+				.assertComplete();
+
+		assertEquals(100, channel.toString().split("\n").length);
+		assertTrue(channel.writeCount < 100);
+	}
+
+	@Test
+	public void writeWritableByteChannelNotReady() throws Exception {
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), stringBuffer("bar"));
+		RecordingChannel channel = new RecordingChannel(3);
+
+		TestSubscriber
+				.subscribe(DataBufferUtils.write(flux, channel))
+				.await()
+				.assertNoError()
+				.assertComplete();
+
+		assertEquals("foobar", channel.toString());
+	}
+
+	@Test
+	public void writeAsynchronousFileChannel() throws Exception {
+		File file = this.tempFolder.newFile();
+		CompositeDataBuffer composite = new CompositeDataBuffer(this.dataBufferFactory);
+		composite.write(stringBuffer("bar"), stringBuffer("baz"));
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), composite, stringBuffer("qux"));
+
+		try (AsynchronousFileChannel channel =
+				AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			TestSubscriber
+					.subscribe(DataBufferUtils.write(flux, channel, 0))
+					.await()
+					.assertNoError()
+					.assertComplete();
+		}
+
+		assertEquals("foobarbazqux",
+				new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void writeAsynchronousFileChannelManyBuffers() throws Exception {
+		File file = this.tempFolder.newFile();
+		Flux<DataBuffer> flux = Flux.range(0, 100).map(i -> stringBuffer(i + "\n"));
+
+		try (AsynchronousFileChannel channel =
+				AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			TestSubscriber
+					.subscribe(DataBufferUtils.write(flux, channel, 0))
+					.await()
+					.assertNoError()
+					.assertComplete();
+		}
+
+		assertEquals(100, Files.readAllLines(file.toPath()).size());
+		assertEquals("99", Files.readAllLines(file.toPath()).get(99));
+	}
+
 	@Test
 	public void takeUntilByteCount() {
 		DataBuffer foo = stringBuffer("foo");
@@ -109,4 +301,147 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 		release(baz);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void join() {
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+		DataBuffer baz = stringBuffer("baz");
+		Flux<DataBuffer> flux = Flux.just(foo, bar, baz);
+
+		Mono<DataBuffer> result = DataBufferUtils.join(flux);
+
+		TestSubscriber
+				.subscribe(result)
+				.assertNoError()
+				.assertComplete()
+				.assertValuesWith(stringConsumer("foobarbaz"));
+	}
+
+	@Test
+	public void joinSingle() {
+		DataBuffer foo = stringBuffer("foo");
+
+		Mono<DataBuffer> result = DataBufferUtils.join(Flux.just(foo));
+
+		TestSubscriber
+				.subscribe(result)
+				.assertNoError()
+				.assertComplete()
+				.assertValues(foo);
+
+		release(foo);
+	}
+
+	@Test
+	public void joinEmpty() {
+		Mono<DataBuffer> result = DataBufferUtils.join(Flux.empty());
+
+		TestSubscriber
+				.subscribe(result)
+				.assertNoError()
+				.assertComplete()
+				.assertNoValues();
+	}
+
+	@Test
+	public void varInt() {
+		DataBuffer buffer = this.dataBufferFactory.allocateBuffer(32);
+		DataBufferUtils.writeVarInt(buffer, 0);
+		DataBufferUtils.writeVarInt(buffer, 300);
+		DataBufferUtils.writeVarInt(buffer, -1);
+		assertEquals(1 + 2 + 5, buffer.readableByteCount());
+		assertEquals((byte) 0xAC, buffer.getByte(1));
+		assertEquals((byte) 0x02, buffer.getByte(2));
+
+		assertEquals(0, DataBufferUtils.readVarInt(buffer));
+		assertEquals(300, DataBufferUtils.readVarInt(buffer));
+		assertEquals(-1, DataBufferUtils.readVarInt(buffer));
+
+		release(buffer);
+	}
+
+	@Test
+	public void varLong() {
+		DataBuffer buffer = this.dataBufferFactory.allocateBuffer(32);
+		DataBufferUtils.writeVarLong(buffer, 1L << 40);
+		DataBufferUtils.writeVarLong(buffer, Long.MIN_VALUE);
+		assertEquals(6 + 10, buffer.readableByteCount());
+
+		assertEquals(1L << 40, DataBufferUtils.readVarLong(buffer));
+		assertEquals(Long.MIN_VALUE, DataBufferUtils.readVarLong(buffer));
+
+		release(buffer);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void malformedVarInt() {
+		DataBuffer buffer = this.dataBufferFactory.allocateBuffer(8);
+		buffer.write(new byte[]{-1, -1, -1, -1, -1, 1});
+		try {
+			DataBufferUtils.readVarInt(buffer);
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
+
+	/**
+	 * Non-blocking channel that records the written bytes, and does not accept any
+	 * for a given number of writes.
+	 */
+	private static class RecordingChannel implements GatheringByteChannel {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private int notReadyCount;
+
+		private int writeCount;
+
+		public RecordingChannel(int notReadyCount) {
+			this.notReadyCount = notReadyCount;
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) {
+			this.writeCount++;
+			if (this.notReadyCount > 0) {
+				this.notReadyCount--;
+				return 0;
+			}
+			long written = 0;
+			for (int i = offset; i < offset + length; i++) {
+				written += srcs[i].remaining();
+				while (srcs[i].hasRemaining()) {
+					this.bytes.write(srcs[i].get());
+				}
+			}
+			return written;
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs) {
+			return write(srcs, 0, srcs.length);
+		}
+
+		@Override
+		public int write(ByteBuffer src) {
+			return (int) write(new ByteBuffer[]{src});
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public String toString() {
+			return new String(this.bytes.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
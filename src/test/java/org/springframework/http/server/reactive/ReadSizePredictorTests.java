@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import org.junit.Test;
+
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter.ReadSizePredictor;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReadSizePredictorTests {
+
+	@Test
+	public void contentLength() {
+		ReadSizePredictor predictor = new ReadSizePredictor(8192, 100);
+		assertEquals(100, predictor.nextReadSize());
+
+		predictor.record(40);
+		assertEquals(60, predictor.nextReadSize());
+
+		predictor.record(60);
+		assertEquals(1, predictor.nextReadSize());
+	}
+
+	@Test
+	public void largeContentLength() {
+		ReadSizePredictor predictor = new ReadSizePredictor(8192, 1024 * 1024);
+		assertEquals(ReadSizePredictor.MAX_READ_SIZE, predictor.nextReadSize());
+	}
+
+	@Test
+	public void increaseWhenFull() {
+		ReadSizePredictor predictor = new ReadSizePredictor(8192, -1);
+		assertEquals(8192, predictor.nextReadSize());
+
+		predictor.record(8192);
+		assertEquals(16384, predictor.nextReadSize());
+
+		for (int i = 0; i < 10; i++) {
+			predictor.record(predictor.nextReadSize());
+		}
+		assertEquals(ReadSizePredictor.MAX_READ_SIZE, predictor.nextReadSize());
+	}
+
+	@Test
+	public void decreaseAfterTwoSmallReads() {
+		ReadSizePredictor predictor = new ReadSizePredictor(8192, -1);
+
+		predictor.record(100);
+		assertEquals(8192, predictor.nextReadSize());
+
+		predictor.record(100);
+		assertEquals(4096, predictor.nextReadSize());
+
+		for (int i = 0; i < 20; i++) {
+			predictor.record(10);
+		}
+		assertEquals(ReadSizePredictor.MIN_READ_SIZE, predictor.nextReadSize());
+	}
+
+	@Test
+	public void smallReadInterruptedByLargerRead() {
+		ReadSizePredictor predictor = new ReadSizePredictor(8192, -1);
+
+		predictor.record(100);
+		predictor.record(6000);
+		predictor.record(100);
+		assertEquals(8192, predictor.nextReadSize());
+	}
+
+}
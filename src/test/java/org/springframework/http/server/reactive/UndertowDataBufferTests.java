@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import io.undertow.connector.PooledByteBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+
+public class UndertowDataBufferTests {
+
+	private PooledByteBuffer pooledByteBuffer;
+
+	private UndertowDataBuffer dataBuffer;
+
+	@Before
+	public void setUp() throws Exception {
+		ByteBuffer byteBuffer = ByteBuffer.allocate(16);
+		byteBuffer.put("foobar".getBytes(StandardCharsets.UTF_8));
+		byteBuffer.flip();
+
+		this.pooledByteBuffer = mock(PooledByteBuffer.class);
+		given(this.pooledByteBuffer.getBuffer()).willReturn(byteBuffer);
+
+		this.dataBuffer =
+				new UndertowDataBuffer(this.pooledByteBuffer, new DefaultDataBufferFactory());
+	}
+
+	@Test
+	public void read() {
+		assertEquals(6, this.dataBuffer.readableByteCount());
+
+		byte[] result = new byte[6];
+		this.dataBuffer.read(result);
+		assertEquals("foobar", new String(result, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void release() {
+		assertTrue(this.dataBuffer.release());
+		verify(this.pooledByteBuffer).close();
+	}
+
+	@Test
+	public void retainAndRelease() {
+		this.dataBuffer.retain();
+
+		assertFalse(this.dataBuffer.release());
+		verify(this.pooledByteBuffer, never()).close();
+
+		assertTrue(this.dataBuffer.release());
+		verify(this.pooledByteBuffer).close();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void releaseTwice() {
+		this.dataBuffer.release();
+		this.dataBuffer.release();
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		UndertowDataBuffer slice = this.dataBuffer.slice(3, 3);
+		byte[] result = new byte[3];
+		slice.read(result);
+		assertEquals("bar", new String(result, StandardCharsets.UTF_8));
+
+		slice.retain();
+		assertFalse(this.dataBuffer.release());
+		verify(this.pooledByteBuffer, never()).close();
+
+		assertTrue(slice.release());
+		verify(this.pooledByteBuffer).close();
+	}
+
+}
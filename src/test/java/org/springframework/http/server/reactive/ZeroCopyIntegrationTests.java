@@ -28,13 +28,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
-import org.springframework.http.server.reactive.boot.ReactorHttpServer;
-import org.springframework.http.server.reactive.boot.UndertowHttpServer;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
-import static org.junit.Assume.assumeTrue;
 
 /**
  * @author Arjen Poutsma
@@ -50,10 +47,6 @@ public class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTest
 
 	@Test
 	public void zeroCopy() throws Exception {
-		// Zero-copy only does not support servlet
-		assumeTrue(server instanceof ReactorHttpServer ||
-				server instanceof UndertowHttpServer);
-
 		RestTemplate restTemplate = new RestTemplate();
 
 		RequestEntity request =
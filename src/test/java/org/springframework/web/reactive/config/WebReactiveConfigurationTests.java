@@ -138,13 +138,15 @@ public class WebReactiveConfigurationTests {
 		assertNotNull(adapter);
 
 		List<HttpMessageConverter<?>> converters = adapter.getMessageConverters();
-		assertEquals(5, converters.size());
+		assertEquals(7, converters.size());
 
 		assertHasConverter(converters, ByteBuffer.class, MediaType.APPLICATION_OCTET_STREAM);
 		assertHasConverter(converters, String.class, MediaType.TEXT_PLAIN);
 		assertHasConverter(converters, Resource.class, MediaType.IMAGE_PNG);
 		assertHasConverter(converters, TestBean.class, MediaType.APPLICATION_XML);
 		assertHasConverter(converters, TestBean.class, MediaType.APPLICATION_JSON);
+		assertHasConverter(converters, TestBean.class, new MediaType("application", "x-ndjson"));
+		assertHasConverter(converters, TestBean.class, new MediaType("text", "event-stream"));
 
 		name = "mvcConversionService";
 		ConversionService service = context.getBean(name, ConversionService.class);
@@ -195,13 +197,15 @@ public class WebReactiveConfigurationTests {
 		assertEquals(0, handler.getOrder());
 
 		List<HttpMessageConverter<?>> converters = handler.getMessageConverters();
-		assertEquals(5, converters.size());
+		assertEquals(7, converters.size());
 
 		assertHasConverter(converters, ByteBuffer.class, MediaType.APPLICATION_OCTET_STREAM);
 		assertHasConverter(converters, String.class, MediaType.TEXT_PLAIN);
 		assertHasConverter(converters, Resource.class, MediaType.IMAGE_PNG);
 		assertHasConverter(converters, TestBean.class, MediaType.APPLICATION_XML);
 		assertHasConverter(converters, TestBean.class, MediaType.APPLICATION_JSON);
+		assertHasConverter(converters, TestBean.class, new MediaType("application", "x-ndjson"));
+		assertHasConverter(converters, TestBean.class, new MediaType("text", "event-stream"));
 	}
 
 	@Test
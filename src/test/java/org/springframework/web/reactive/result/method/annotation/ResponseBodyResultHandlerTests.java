@@ -18,6 +18,7 @@ package org.springframework.web.reactive.result.method.annotation;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Encoder;
@@ -48,6 +50,7 @@ import org.springframework.web.reactive.HandlerResultHandler;
 import org.springframework.web.reactive.accept.FixedContentTypeResolver;
 import org.springframework.web.reactive.accept.HeaderContentTypeResolver;
 import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.reactive.sse.SseEventEncoder;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.adapter.DefaultServerWebExchange;
 import org.springframework.web.server.session.WebSessionManager;
@@ -117,6 +120,24 @@ public class ResponseBodyResultHandlerTests {
 		assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
 	}
 
+	@Test
+	public void selectsEventStreamForAcceptHeader() throws Exception {
+		MediaType eventStream = new MediaType("text", "event-stream");
+		ServerWebExchange exchange = createExchange("/foo");
+		exchange.getRequest().getHeaders().setAccept(Collections.singletonList(eventStream));
+
+		JacksonJsonEncoder jsonEncoder = new JacksonJsonEncoder();
+		SseEventEncoder sseEncoder = new SseEventEncoder(Collections.singletonList(jsonEncoder));
+		HandlerResultHandler handler = createHandler(new StringEncoder(), jsonEncoder, sseEncoder);
+
+		ResolvableType type = ResolvableType.forClassWithGenerics(Flux.class, String.class);
+		HandlerResult result = new HandlerResult(new Object(), Flux.just("foo"), type);
+		handler.handleResult(exchange, result).block();
+
+		assertEquals(new MediaType(eventStream, StandardCharsets.UTF_8),
+				exchange.getResponse().getHeaders().getContentType());
+	}
+
 
 	private ResponseBodyResultHandler createHandler(Encoder<?>... encoders) {
 		return createHandler(new HeaderContentTypeResolver(), encoders);
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.sse;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.test.TestSubscriber;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.support.JacksonJsonDecoder;
+import org.springframework.core.codec.support.Pojo;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SseEventDecoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private static final MediaType EVENT_STREAM = new MediaType("text", "event-stream");
+
+	private final SseEventDecoder decoder =
+			new SseEventDecoder(Collections.singletonList(new JacksonJsonDecoder()));
+
+	@Test
+	public void canDecode() {
+		assertTrue(this.decoder.canDecode(ResolvableType.forClass(Pojo.class), EVENT_STREAM));
+		assertFalse(this.decoder.canDecode(ResolvableType.forClass(Pojo.class), null));
+		assertFalse(this.decoder.canDecode(ResolvableType.forClass(Pojo.class),
+				MediaType.TEXT_PLAIN));
+	}
+
+	@Test
+	public void decodeEvents() {
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("id:c42\nevent:update\nretry:1000\n:bar\ndata:foo\n\n"),
+				stringBuffer(":\ndata: bar\ndata:baz\n\n"));
+		Flux<Object> output =
+				this.decoder.decode(source, ResolvableType.forClass(SseEvent.class), EVENT_STREAM);
+
+		SseEvent first = new SseEvent("foo");
+		first.setId("c42");
+		first.setName("update");
+		first.setReconnectTime(1000L);
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValues(first, new SseEvent("bar\nbaz"));
+	}
+
+	@Test
+	public void decodeStringsSpanningBuffers() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("data:fo"),
+				stringBuffer("o\r"), stringBuffer("\n\r\n"), stringBuffer("data:bar\r\rdata:baz"));
+		Flux<Object> output =
+				this.decoder.decode(source, ResolvableType.forClass(String.class), EVENT_STREAM);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValues("foo", "bar");
+	}
+
+	@Test
+	public void decodePojos() {
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("data:{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n\n"),
+				stringBuffer("data:{\"foo\":\"foofoofoo\",\n"),
+				stringBuffer("data:\"bar\":\"barbarbar\"}\n\n"));
+		Flux<Object> output =
+				this.decoder.decode(source, ResolvableType.forClass(Pojo.class), EVENT_STREAM);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValues(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.sse;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.test.TestSubscriber;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.support.JacksonJsonEncoder;
+import org.springframework.core.codec.support.Pojo;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.FlushingDataBuffer;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SseEventEncoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private SseEventEncoder encoder;
+
+	@Before
+	public void createEncoder() {
+		this.encoder = new SseEventEncoder(Collections.singletonList(new JacksonJsonEncoder()));
+		this.encoder.setHeartbeatInterval(null);
+	}
+
+	@Test
+	public void canEncode() {
+		assertTrue(this.encoder.canEncode(null, new MediaType("text", "event-stream")));
+		assertFalse(this.encoder.canEncode(null, MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void encodeEvent() {
+		SseEvent event = new SseEvent("foo");
+		event.setId("c42");
+		event.setName("update");
+		event.setReconnectTime(1000L);
+		event.setComment("bar");
+		Flux<DataBuffer> output = this.encoder.encode(Mono.just(event),
+				this.dataBufferFactory, ResolvableType.forClass(SseEvent.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValuesWith(
+						stringConsumer("id:c42\nevent:update\nretry:1000\n:bar\ndata:foo\n\n"),
+						flushingConsumer());
+	}
+
+	@Test
+	public void encodeMultiLineData() {
+		Flux<DataBuffer> output = this.encoder.encode(Flux.just("foo\nbar\r\nbaz", ""),
+				this.dataBufferFactory, ResolvableType.forClass(String.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValuesWith(
+						stringConsumer("data:foo\ndata:bar\ndata:baz\n\n"),
+						flushingConsumer(),
+						stringConsumer("data:\n\n"),
+						flushingConsumer());
+	}
+
+	@Test
+	public void encodePojo() {
+		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+		Flux<DataBuffer> output = this.encoder.encode(source, this.dataBufferFactory,
+				ResolvableType.forClass(Pojo.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertComplete()
+				.assertNoError()
+				.assertValuesWith(
+						stringConsumer("data:{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n\n"),
+						flushingConsumer(),
+						stringConsumer("data:{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}\n\n"),
+						flushingConsumer());
+	}
+
+	@Test
+	public void encodeWithoutSuitableDataEncoder() {
+		SseEvent event = new SseEvent(new Pojo("foo", "bar"), MediaType.APPLICATION_XML);
+		Flux<DataBuffer> output = this.encoder.encode(Mono.just(event),
+				this.dataBufferFactory, ResolvableType.forClass(SseEvent.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.assertError(CodecException.class);
+	}
+
+	@Test
+	public void heartbeat() {
+		this.encoder.setHeartbeatInterval(Duration.ofMillis(50));
+		Flux<String> source = Flux.concat(Flux.just("foo"), Flux.never());
+		Flux<DataBuffer> output = this.encoder.encode(source, this.dataBufferFactory,
+				ResolvableType.forClass(String.class), null);
+
+		TestSubscriber<DataBuffer> subscriber = TestSubscriber.subscribe(output);
+		subscriber.awaitAndAssertNextValuesWith(stringConsumer("data:foo\n\n"),
+				flushingConsumer(), stringConsumer(":\n"), flushingConsumer());
+		subscriber.cancel();
+	}
+
+	@Test
+	public void heartbeatStopsAtEndOfStream() {
+		this.encoder.setHeartbeatInterval(Duration.ofMillis(50));
+		Flux<DataBuffer> output = this.encoder.encode(Flux.just("foo"),
+				this.dataBufferFactory, ResolvableType.forClass(String.class), null);
+
+		TestSubscriber
+				.subscribe(output)
+				.await()
+				.assertComplete()
+				.assertValuesWith(stringConsumer("data:foo\n\n"), flushingConsumer());
+	}
+
+	private Consumer<DataBuffer> flushingConsumer() {
+		return dataBuffer -> assertTrue(dataBuffer instanceof FlushingDataBuffer);
+	}
+
+}